@@ -0,0 +1,163 @@
+import graphtrav.bench.EdgeList;
+import graphtrav.bench.Workload;
+import java.util.function.IntConsumer;
+
+/**
+ * Implements the benchmark operations against the project classes.
+ * Lives in the unnamed package beside Graph; see graphtrav.bench.Workload.
+ */
+public class BenchmarkWorkload implements Workload {
+    private Graph<Integer> graph;
+    private AdjacencyInterface edges;
+    private int sum; //accumulator for the forEachNeighbor consumer
+    private final IntConsumer addToSum = neighbor -> sum += neighbor;
+
+    @Override
+    public void load(String storage, EdgeList edgeList) {
+        switch (storage) {
+            case "matrix":
+                MatrixAdjacency matrix = new MatrixAdjacency(edgeList.n);
+                for (int i = 0; i < edgeList.size(); i++) {
+                    matrix.addEdge(edgeList.sources[i], edgeList.targets[i]);
+                }
+                edges = matrix;
+                break;
+            case "bitmatrix":
+                BitMatrixAdjacency bits = new BitMatrixAdjacency(edgeList.n);
+                for (int i = 0; i < edgeList.size(); i++) {
+                    bits.addEdge(edgeList.sources[i], edgeList.targets[i]);
+                }
+                edges = bits;
+                break;
+            case "csr":
+                edges = new CsrAdjacency(edgeList.n, edgeList.sources, edgeList.targets);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown storage: " + storage);
+        }
+        graph = new Graph<>(edges);
+        for (int v = 0; v < edgeList.n; v++) {
+            graph.setLabel(v, v);
+        }
+    }
+
+    @Override
+    public void reorder(String strategy) {
+        switch (strategy) {
+            case "none":
+                return;
+            case "rcm":
+                graph = graph.reorder(VertexOrdering.Strategy.REVERSE_CUTHILL_MCKEE).getGraph();
+                break;
+            case "degree":
+                graph = graph.reorder(VertexOrdering.Strategy.DEGREE_DESCENDING).getGraph();
+                break;
+            case "bfs":
+                graph = graph.reorder(VertexOrdering.Strategy.BREADTH_FIRST).getGraph();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown ordering: " + strategy);
+        }
+        edges = graph.adjacency();
+    }
+
+    @Override
+    public int vertexCount() {
+        return graph.size();
+    }
+
+    @Override
+    public boolean isEdge(int source, int target) {
+        return graph.isEdge(source, target);
+    }
+
+    @Override
+    public void addEdge(int source, int target) {
+        graph.addEdge(source, target);
+    }
+
+    @Override
+    public void removeEdge(int source, int target) {
+        graph.removeEdge(source, target);
+    }
+
+    @Override
+    public int sumNeighbors(int vertex) {
+        int total = 0;
+        for (int neighbor : graph.neighbors(vertex)) {
+            total += neighbor;
+        }
+        return total;
+    }
+
+    @Override
+    public int sumNeighborsForEach(int vertex) {
+        sum = 0;
+        graph.forEachNeighbor(vertex, addToSum);
+        return sum;
+    }
+
+    @Override
+    public int sumNeighborsCursor(int vertex) {
+        int total = 0;
+        for (int c = edges.nextNeighbor(vertex, 0); c >= 0; c = edges.nextNeighbor(vertex, c + 1)) {
+            total += edges.neighborAt(vertex, c);
+        }
+        return total;
+    }
+
+    @Override
+    public int breadthFirst(int origin) {
+        return drain(graph.getBreadthFirstTraversal(origin));
+    }
+
+    @Override
+    public int depthFirst(int origin) {
+        return drain(graph.getDepthFirstTraversal(origin));
+    }
+
+    @Override
+    public int directionOptimizingBreadthFirst(int origin) {
+        return graph.directionOptimizingBreadthFirst(origin).size();
+    }
+
+    @Override
+    public int buildCsr(EdgeList edgeList) {
+        return new CsrAdjacency(edgeList.n, edgeList.sources, edgeList.targets).edgeCount();
+    }
+
+    @Override
+    public long linkedQueueRoundTrip(int count) {
+        QueueInterface<Integer> queue = new LinkedQueue<>();
+        for (int i = 0; i < count; i++) {
+            queue.enqueue(i);
+        }
+        long total = 0;
+        while (!queue.isEmpty()) {
+            total += queue.dequeue();
+        }
+        return total;
+    }
+
+    @Override
+    public long intQueueRoundTrip(int count) {
+        IntQueueInterface queue = new IntQueue();
+        for (int i = 0; i < count; i++) {
+            queue.enqueue(i);
+        }
+        long total = 0;
+        while (!queue.isEmpty()) {
+            total += queue.dequeue();
+        }
+        return total;
+    }
+
+    private static int drain(QueueInterface<Integer> queue) {
+        int count = 0;
+        while (!queue.isEmpty()) {
+            queue.dequeue();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,67 @@
+package graphtrav.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-edge operations: isEdge lookups and addEdge/removeEdge pairs at
+ * random positions. Sizes stop at 10K because the matrix storages are n * n.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EdgeBenchmark {
+    private static final int PAIRS = 1 << 16;
+
+    @Param({"matrix", "bitmatrix", "csr"})
+    public String storage;
+
+    @Param({"1000", "10000"})
+    public int vertices;
+
+    private Workload workload;
+    private int[] sources;
+    private int[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.create();
+        workload.load(storage, SyntheticGraphs.random(vertices, 1));
+        SplittableRandom random = new SplittableRandom(2);
+        sources = new int[PAIRS];
+        targets = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            sources[i] = random.nextInt(vertices);
+            targets[i] = random.nextInt(vertices);
+        }
+    }
+
+    @Benchmark
+    public boolean isEdge() {
+        int i = next++ & (PAIRS - 1);
+        return workload.isEdge(sources[i], targets[i]);
+    }
+
+    @Benchmark
+    public void addAndRemoveEdge() {
+        int i = next++ & (PAIRS - 1);
+        workload.addEdge(sources[i], targets[i]);
+        workload.removeEdge(sources[i], targets[i]);
+    }
+}
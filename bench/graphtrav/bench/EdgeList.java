@@ -0,0 +1,21 @@
+package graphtrav.bench;
+
+/**
+ * A directed edge list over vertices 0 through n - 1: edge i goes from
+ * sources[i] to targets[i].
+ */
+public final class EdgeList {
+    public final int n;
+    public final int[] sources;
+    public final int[] targets;
+
+    public EdgeList(int n, int[] sources, int[] targets) {
+        this.n = n;
+        this.sources = sources;
+        this.targets = targets;
+    }
+
+    public int size() {
+        return sources.length;
+    }
+}
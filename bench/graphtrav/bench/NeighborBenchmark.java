@@ -0,0 +1,48 @@
+package graphtrav.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scanning one vertex's neighbors three ways: the allocating neighbors()
+ * array, forEachNeighbor, and the storage cursor. Vertices are visited
+ * round-robin so every degree gets sampled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NeighborBenchmark {
+    private int vertex;
+
+    private int nextVertex(ShapeState graph) {
+        int v = vertex;
+        vertex = v + 1 == graph.vertices ? 0 : v + 1;
+        return v;
+    }
+
+    @Benchmark
+    public int neighborsArray(ShapeState graph) {
+        return graph.workload.sumNeighbors(nextVertex(graph));
+    }
+
+    @Benchmark
+    public int forEachNeighbor(ShapeState graph) {
+        return graph.workload.sumNeighborsForEach(nextVertex(graph));
+    }
+
+    @Benchmark
+    public int cursor(ShapeState graph) {
+        return graph.workload.sumNeighborsCursor(nextVertex(graph));
+    }
+}
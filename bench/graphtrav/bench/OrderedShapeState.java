@@ -0,0 +1,21 @@
+package graphtrav.bench;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A ShapeState whose vertices are renumbered once after loading, for the
+ * traversal benchmarks only. Compare an ordering against "none" with
+ * -prof perfnorm to see the change in cache misses.
+ */
+@State(Scope.Benchmark)
+public class OrderedShapeState extends ShapeState {
+    @Param({"none", "rcm", "degree", "bfs"})
+    public String reorder;
+
+    @Override
+    protected void afterLoad() {
+        workload.reorder(reorder);
+    }
+}
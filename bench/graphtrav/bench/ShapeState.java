@@ -0,0 +1,37 @@
+package graphtrav.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A synthetic graph on CSR storage, shared by the benchmarks of one trial.
+ * The 10M-vertex graphs need a heap of about 12 GB, given with
+ * -jvmArgs -Xmx12g; narrow the run with -p vertices=1000,100000 on
+ * small machines, where the default heap is enough.
+ */
+@State(Scope.Benchmark)
+public class ShapeState {
+    @Param({"random", "powerlaw", "grid", "chain"})
+    public String shape;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int vertices;
+
+    public EdgeList edgeList;
+    public Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edgeList = SyntheticGraphs.generate(shape, vertices, 42);
+        workload = Workload.create();
+        workload.load("csr", edgeList);
+        afterLoad();
+    }
+
+    /** Runs once the graph is loaded; subclasses adjust the workload here. */
+    protected void afterLoad() {
+    }
+}
@@ -0,0 +1,105 @@
+package graphtrav.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates the synthetic graph shapes the benchmarks run over.
+ * All shapes are deterministic for a given vertex count and seed.
+ */
+public final class SyntheticGraphs {
+    /** Average out-degree of the random and power-law shapes. */
+    public static final int AVERAGE_DEGREE = 8;
+
+    private SyntheticGraphs() {
+    }
+
+    /**
+     * Builds a graph of the named shape.
+     *
+     * @param shape one of "random", "powerlaw", "grid" or "chain"
+     * @param n     number of vertices
+     * @param seed  seed for the random shapes
+     */
+    public static EdgeList generate(String shape, int n, long seed) {
+        switch (shape) {
+            case "random":
+                return random(n, seed);
+            case "powerlaw":
+                return powerLaw(n, seed);
+            case "grid":
+                return grid(n);
+            case "chain":
+                return chain(n);
+            default:
+                throw new IllegalArgumentException("Unknown graph shape: " + shape);
+        }
+    }
+
+    /** Uniformly random endpoints (Erdos-Renyi style), n * AVERAGE_DEGREE edges. */
+    public static EdgeList random(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int m = n * AVERAGE_DEGREE;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            targets[i] = random.nextInt(n);
+        }
+        return new EdgeList(n, sources, targets);
+    }
+
+    /**
+     * Skewed endpoints: low-numbered vertices are hubs with very high in- and
+     * out-degree, giving a heavy-tailed degree distribution and a small diameter.
+     */
+    public static EdgeList powerLaw(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int m = n * AVERAGE_DEGREE;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = skewed(random, n);
+            targets[i] = skewed(random, n);
+        }
+        return new EdgeList(n, sources, targets);
+    }
+
+    private static int skewed(SplittableRandom random, int n) {
+        double u = random.nextDouble();
+        return (int) (n * u * u * u); // density falls off as x^(-2/3)
+    }
+
+    /** A square-ish 2D lattice with edges both ways between horizontal and vertical neighbors. */
+    public static EdgeList grid(int n) {
+        int side = (int) Math.ceil(Math.sqrt(n));
+        int m = 0;
+        int[] sources = new int[4 * n];
+        int[] targets = new int[4 * n];
+        for (int v = 0; v < n; v++) {
+            if ((v + 1) % side != 0 && v + 1 < n) {
+                sources[m] = v;
+                targets[m++] = v + 1;
+                sources[m] = v + 1;
+                targets[m++] = v;
+            }
+            if (v + side < n) {
+                sources[m] = v;
+                targets[m++] = v + side;
+                sources[m] = v + side;
+                targets[m++] = v;
+            }
+        }
+        return new EdgeList(n, java.util.Arrays.copyOf(sources, m), java.util.Arrays.copyOf(targets, m));
+    }
+
+    /** A single path 0 -> 1 -> ... -> n - 1, the deepest possible traversal. */
+    public static EdgeList chain(int n) {
+        int[] sources = new int[Math.max(0, n - 1)];
+        int[] targets = new int[sources.length];
+        for (int v = 0; v < sources.length; v++) {
+            sources[v] = v;
+            targets[v] = v + 1;
+        }
+        return new EdgeList(n, sources, targets);
+    }
+}
@@ -0,0 +1,43 @@
+package graphtrav.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole traversals from vertex 0 over each synthetic shape and vertex
+ * ordering, plus building the CSR storage from the edge list, which does
+ * not depend on the ordering. Run with -prof gc for allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TraversalBenchmark {
+
+    @Benchmark
+    public int breadthFirst(OrderedShapeState graph) {
+        return graph.workload.breadthFirst(0);
+    }
+
+    @Benchmark
+    public int depthFirst(OrderedShapeState graph) {
+        return graph.workload.depthFirst(0);
+    }
+
+    @Benchmark
+    public int directionOptimizingBreadthFirst(OrderedShapeState graph) {
+        return graph.workload.directionOptimizingBreadthFirst(0);
+    }
+
+    @Benchmark
+    public int buildCsr(ShapeState graph) {
+        return graph.workload.buildCsr(graph.edgeList);
+    }
+}
@@ -0,0 +1,65 @@
+package graphtrav.bench;
+
+/**
+ * The operations the benchmarks measure. The project classes live in the
+ * unnamed package, which a named package cannot import, while JMH refuses
+ * benchmarks in the unnamed package; the unnamed-package BenchmarkWorkload
+ * implements this interface and is loaded by name. The single
+ * implementation keeps every call monomorphic, so the JIT inlines it.
+ */
+public interface Workload {
+
+    /** Builds a graph labeled with Integer vertex ids on "matrix", "bitmatrix" or "csr" storage. */
+    void load(String storage, EdgeList edges);
+
+    /**
+     * Renumbers the loaded graph with "rcm", "degree" or "bfs" ordering, or
+     * leaves it alone for "none". Labels keep their values, so label 0
+     * remains the traversal origin.
+     */
+    void reorder(String strategy);
+
+    int vertexCount();
+
+    boolean isEdge(int source, int target);
+
+    void addEdge(int source, int target);
+
+    void removeEdge(int source, int target);
+
+    /** Sums the neighbors of a vertex through the array-returning neighbors(). */
+    int sumNeighbors(int vertex);
+
+    /** Sums the neighbors of a vertex through forEachNeighbor. */
+    int sumNeighborsForEach(int vertex);
+
+    /** Sums the neighbors of a vertex through the storage cursor. */
+    int sumNeighborsCursor(int vertex);
+
+    /** Runs getBreadthFirstTraversal and returns the number of labels produced. */
+    int breadthFirst(int origin);
+
+    /** Runs getDepthFirstTraversal and returns the number of labels produced. */
+    int depthFirst(int origin);
+
+    /** Runs directionOptimizingBreadthFirst and returns the number of vertices reached. */
+    int directionOptimizingBreadthFirst(int origin);
+
+    /** Builds CSR storage from an edge list and returns its edge count. */
+    int buildCsr(EdgeList edges);
+
+    /** Pushes count ints through a LinkedQueue, returning their sum. */
+    long linkedQueueRoundTrip(int count);
+
+    /** Pushes count ints through an IntQueue, returning their sum. */
+    long intQueueRoundTrip(int count);
+
+    /** Loads the unnamed-package implementation. */
+    static Workload create() {
+        try {
+            return (Workload) Class.forName("BenchmarkWorkload").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchmarkWorkload is missing from the classpath", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.function.IntConsumer;
+
+/**An interface for the storage backing the edges of a Graph.
+ * Vertices are numbered 0 through size() - 1. Implementations do not
+ * check vertex indices; Graph does that before delegating.
+ */
+public interface AdjacencyInterface{
+    /**Determines the number of vertices this storage holds.
+     * @return integer number of vertices.
+     */
+    public int size();
+
+    /**Determines the number of edges this storage holds.
+     * @return integer number of edges.
+     */
+    public int edgeCount();
+
+    /**Tests whether an edge exists.
+     * @return True if edge exists, false otherwise.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge points to.
+     */
+    public boolean isEdge(int source, int target);
+
+    /**Adds an edge. Adding an edge that already exists has no effect.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge points to.
+     */
+    public void addEdge(int source, int target);
+
+    /**Removes an edge. Removing an edge that does not exist has no effect.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge ends.
+     */
+    public void removeEdge(int source, int target);
+
+    /**Adds a vertex with no edges after the existing ones.
+     * @return integer index of the new vertex, the old size().
+     * @throws UnsupportedOperationException if this storage has a fixed number of vertices.
+     */
+    public default int addVertex(){
+        throw new UnsupportedOperationException("This storage has a fixed number of vertices");
+    } //end addVertex
+
+    /**Removes every edge into or out of a vertex. The vertex keeps its index.
+     * This default scans every row; storage that tracks in-edges does better.
+     * @param vertex integer index of the vertex.
+     */
+    public default void removeVertex(int vertex){
+        for(int v = 0; v < size(); v++){
+            removeEdge(v, vertex);
+        } //end for
+        for(int w : neighbors(vertex)){
+            removeEdge(vertex, w);
+        } //end for
+    } //end removeVertex
+
+    /**Obtains the neighbors of a vertex in ascending order.
+     * @return integer array of all vertices vertex connects to.
+     * @param vertex integer index of the vertex.
+     */
+    public int[] neighbors(int vertex);
+
+    /**Finds the next neighbor of a vertex at or after a cursor position.
+     * Cursors are positions private to the storage: start at 0 and pass
+     * the returned cursor + 1 to resume, so a scan allocates nothing.
+     * @return cursor of the next neighbor, or -1 if there are no more.
+     * @param vertex integer index of the vertex.
+     * @param cursor position to resume scanning from.
+     */
+    public int nextNeighbor(int vertex, int cursor);
+
+    /**Retrieves the neighbor a cursor returned by nextNeighbor points at.
+     * @return integer index of the neighbor.
+     * @param vertex integer index of the vertex.
+     * @param cursor position returned by nextNeighbor.
+     */
+    public int neighborAt(int vertex, int cursor);
+
+    /**Retrieves the weight of the edge a cursor points at.
+     * Storage without weights treats every edge as weight 1.
+     * @return double weight of the edge.
+     * @param vertex integer index of the vertex.
+     * @param cursor position returned by nextNeighbor.
+     */
+    public default double weightAt(int vertex, int cursor){
+        return 1.0;
+    } //end weightAt
+
+    /**Retrieves the weight of an edge.
+     * @return double weight of the edge, or NaN if there is no such edge.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge points to.
+     */
+    public default double weight(int source, int target){
+        for(int c = nextNeighbor(source, 0); c >= 0; c = nextNeighbor(source, c + 1)){
+            if(neighborAt(source, c) == target){
+                return weightAt(source, c);
+            } //end if
+        } //end for
+        return Double.NaN;
+    } //end weight
+
+    /**Changes the weight of an existing edge. Setting the weight of an edge
+     * that does not exist has no effect.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge points to.
+     * @param weight double weight of the edge.
+     * @throws UnsupportedOperationException if this storage does not hold weights.
+     */
+    public default void setWeight(int source, int target, double weight){
+        throw new UnsupportedOperationException("This storage does not hold edge weights");
+    } //end setWeight
+
+    /**Passes every neighbor of a vertex, in ascending order, to an action.
+     * @param vertex integer index of the vertex.
+     * @param action called once per neighbor.
+     */
+    public default void forEachNeighbor(int vertex, IntConsumer action){
+        for(int c = nextNeighbor(vertex, 0); c >= 0; c = nextNeighbor(vertex, c + 1)){
+            action.accept(neighborAt(vertex, c));
+        } //end for
+    } //end forEachNeighbor
+
+    /**Counts the edges leaving a vertex.
+     * @return integer out-degree of vertex.
+     * @param vertex integer index of the vertex.
+     */
+    public default int degree(int vertex){
+        int count = 0;
+        for(int c = nextNeighbor(vertex, 0); c >= 0; c = nextNeighbor(vertex, c + 1)){
+            count++;
+        } //end for
+        return count;
+    } //end degree
+
+    /**Builds storage of the same kind holding every edge reversed, so that
+     * its neighbors of v are the vertices with an edge into v.
+     * @return new storage of the in-edges; later changes to either are not shared.
+     */
+    public AdjacencyInterface transpose();
+
+    /**Obtains a read-only view of the in-edges that follows every later
+     * change to this storage, for storage that keeps its in-edges anyway.
+     * @return AdjacencyInterface whose neighbors of v are the vertices with an
+     *         edge into v, or null if this storage keeps no in-edges.
+     */
+    public default AdjacencyInterface inEdgeView(){
+        return null;
+    } //end inEdgeView
+
+} //end AdjacencyInterface
@@ -0,0 +1,98 @@
+/**
+ * Point-to-point breadth-first search that grows one frontier forward from
+ * the source over out-edges and another backward from the target over
+ * in-edges, each step expanding a whole level of whichever frontier is
+ * smaller. The search stops at the first level where the two sides meet,
+ * so it touches roughly two balls of half the distance instead of
+ * everything the source reaches.
+ */
+public class BidirectionalBfs{
+    private final AdjacencyInterface out;
+    private final AdjacencyInterface in;
+    private int visited; //vertices labeled by either side in the last search
+
+    /**Creates a BidirectionalBfs.
+     * @param out storage of the edges.
+     * @param in storage of the same edges reversed.
+     */
+    public BidirectionalBfs(AdjacencyInterface out, AdjacencyInterface in){
+        this.out = out;
+        this.in = in;
+    } //end constructor
+
+    /**Computes the number of edges on a shortest path between two vertices.
+     * @return integer hop distance, or -1 if target is unreachable from source.
+     * @param forward TraversalContext for the side grown from the source.
+     * @param backward TraversalContext for the side grown from the target.
+     * @param source integer index of the start vertex.
+     * @param target integer index of the end vertex.
+     */
+    public int search(TraversalContext forward, TraversalContext backward, int source, int target){
+        forward.begin();
+        backward.begin();
+        visited = 1;
+        if(source == target){
+            return 0;
+        } //end if
+        visited = 2;
+        IntQueue forwardQueue = forward.getQueue();
+        IntQueue backwardQueue = backward.getQueue();
+        forward.visit(source, -1, 0);
+        forwardQueue.enqueue(source);
+        backward.visit(target, -1, 0);
+        backwardQueue.enqueue(target);
+
+        //Once either side runs dry it has seen everything it can reach
+        while(!forwardQueue.isEmpty() && !backwardQueue.isEmpty()){
+            int meeting;
+            if(forwardQueue.size() <= backwardQueue.size()){
+                meeting = expandLevel(out, forward, backward);
+            }
+            else{
+                meeting = expandLevel(in, backward, forward);
+            } //end if-else
+            if(meeting >= 0){
+                return meeting;
+            } //end if
+        } //end while
+        return -1;
+    } //end search
+
+    /* Expands every vertex of the current level of one side
+     * @return shortest source-target distance through a vertex the other side
+     *         already holds, or -1 if the sides did not meet in this level
+     */
+    private int expandLevel(AdjacencyInterface edges, TraversalContext side, TraversalContext other){
+        IntQueue queue = side.getQueue();
+        int best = -1;
+        //Finish the level: a later vertex in it can meet the other side closer to its origin
+        for(int k = queue.size(); k > 0; k--){
+            int v = queue.dequeue();
+            int level = side.getDepth(v) + 1;
+            for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                int w = edges.neighborAt(v, c);
+                if(!side.isVisited(w)){
+                    side.visit(w, v, level);
+                    visited++;
+                    if(other.isVisited(w)){
+                        int through = level + other.getDepth(w);
+                        if(best < 0 || through < best){
+                            best = through;
+                        } //end if
+                    } //end if
+                    queue.enqueue(w);
+                } //end if
+            } //end for
+        } //end for
+        return best;
+    } //end expandLevel
+
+    /**Counts the vertices the last search labeled, for comparing against a
+     * one-sided search. A vertex labeled by both sides counts twice.
+     * @return integer number of visits.
+     */
+    public int getVisited(){
+        return visited;
+    } //end getVisited
+
+} //end BidirectionalBfs
@@ -0,0 +1,132 @@
+/**
+ * Dense adjacency storage packing each matrix row into a long bitset.
+ * Needs n*n bits, an eighth of the boolean matrix, and neighbor scans
+ * skip 64 absent edges at a time with Long.numberOfTrailingZeros.
+ */
+public class BitMatrixAdjacency implements AdjacencyInterface{
+    private final long[][] rows; //bit (j & 63) of rows[i][j >>> 6] is set if there is an edge from i to j
+    private final int n;
+    private int edgeCount;
+
+    /**Creates a BitMatrixAdjacency with n vertices and no edges. */
+    public BitMatrixAdjacency(int n){
+        this.n = n;
+        rows = new long[n][(n + 63) >>> 6];
+    } //end constructor
+
+    @Override
+    public int size(){
+        return n;
+    } //end size
+
+    @Override
+    public int edgeCount(){
+        return edgeCount;
+    } //end edgeCount
+
+    @Override
+    public boolean isEdge(int source, int target){
+        return (rows[source][target >>> 6] & (1L << target)) != 0;
+    } //end isEdge
+
+    @Override
+    public void addEdge(int source, int target){
+        long[] row = rows[source];
+        long word = row[target >>> 6];
+        long bit = 1L << target;
+        if((word & bit) == 0){
+            row[target >>> 6] = word | bit;
+            edgeCount++;
+        } //end if
+    } //end addEdge
+
+    @Override
+    public void removeEdge(int source, int target){
+        long[] row = rows[source];
+        long word = row[target >>> 6];
+        long bit = 1L << target;
+        if((word & bit) != 0){
+            row[target >>> 6] = word & ~bit;
+            edgeCount--;
+        } //end if
+    } //end removeEdge
+
+    @Override
+    public int degree(int vertex){
+        int count = 0;
+        for(long word : rows[vertex]){
+            count += Long.bitCount(word);
+        } //end for
+        return count;
+    } //end degree
+
+    @Override
+    public int[] neighbors(int vertex){
+        int[] answer = new int[degree(vertex)];
+        long[] row = rows[vertex];
+        int count = 0;
+        for(int w = 0; w < row.length; w++){
+            for(long word = row[w]; word != 0; word &= word - 1){ //clear the lowest bit each pass
+                answer[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            } //end for
+        } //end for
+        return answer;
+    } //end neighbors
+
+    @Override
+    public int nextNeighbor(int vertex, int cursor){
+        if(cursor >= n){
+            return -1;
+        } //end if
+        long[] row = rows[vertex];
+        int w = cursor >>> 6;
+        long word = row[w] & (-1L << cursor); //drop columns below cursor
+        while(word == 0){
+            if(++w == row.length){
+                return -1;
+            } //end if
+            word = row[w];
+        } //end while
+        return (w << 6) + Long.numberOfTrailingZeros(word); //the cursor is the column itself
+    } //end nextNeighbor
+
+    @Override
+    public int neighborAt(int vertex, int cursor){
+        return cursor;
+    } //end neighborAt
+
+    /**Finds the lowest neighbor of a vertex that is also in a set, comparing
+     * 64 vertices per step. This is the bottom-up BFS test "is any of my
+     * in-neighbors on the frontier" when called on the transposed matrix.
+     * @return integer index of the first common vertex, or -1 if there is none.
+     * @param vertex integer index of the vertex.
+     * @param set Bitmap of the same size as this storage.
+     */
+    public int firstNeighborIn(int vertex, Bitmap set){
+        long[] row = rows[vertex];
+        for(int w = 0; w < row.length; w++){
+            long common = row[w] & set.word(w);
+            if(common != 0){
+                return (w << 6) + Long.numberOfTrailingZeros(common);
+            } //end if
+        } //end for
+        return -1;
+    } //end firstNeighborIn
+
+    @Override
+    public BitMatrixAdjacency transpose(){
+        BitMatrixAdjacency reversed = new BitMatrixAdjacency(n);
+        for(int i = 0; i < n; i++){
+            long[] row = rows[i];
+            for(int w = 0; w < row.length; w++){
+                for(long word = row[w]; word != 0; word &= word - 1){
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    reversed.rows[j][i >>> 6] |= 1L << i;
+                } //end for
+            } //end for
+        } //end for
+        reversed.edgeCount = edgeCount;
+        return reversed;
+    } //end transpose
+
+} //end BitMatrixAdjacency
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+/**
+ * A fixed-size set of vertex indices stored one bit per vertex in a long array.
+ * Uses an eighth of the memory of a boolean array and can be scanned or
+ * combined 64 vertices at a time.
+ */
+public class Bitmap{
+    private final long[] words; //bit (i & 63) of words[i >>> 6] is set if i is in the set
+    private final int size;
+
+    /**Creates an empty Bitmap able to hold indices 0 through size - 1. */
+    public Bitmap(int size){
+        this.size = size;
+        words = new long[(size + 63) >>> 6];
+    } //end constructor
+
+    /**Determines how many indices this Bitmap can hold.
+     * @return integer capacity in bits.
+     */
+    public int size(){
+        return size;
+    } //end size
+
+    /**Tests whether an index is in the set.
+     * @return True if the bit is set, false otherwise.
+     * @param index integer index to test.
+     */
+    public boolean get(int index){
+        return (words[index >>> 6] & (1L << index)) != 0;
+    } //end get
+
+    /**Adds an index to the set.
+     * @param index integer index to set.
+     */
+    public void set(int index){
+        words[index >>> 6] |= 1L << index;
+    } //end set
+
+    /**Removes an index from the set.
+     * @param index integer index to clear.
+     */
+    public void clear(int index){
+        words[index >>> 6] &= ~(1L << index);
+    } //end clear
+
+    /**Removes every index from the set. */
+    public void clearAll(){
+        Arrays.fill(words, 0L);
+    } //end clearAll
+
+    /**Counts the indices in the set.
+     * @return integer number of set bits.
+     */
+    public int cardinality(){
+        int count = 0;
+        for(long word : words){
+            count += Long.bitCount(word);
+        } //end for
+        return count;
+    } //end cardinality
+
+    /**Finds the first index in the set at or after from.
+     * @return integer index of the next set bit, or -1 if there is none.
+     * @param from integer index to start searching at.
+     */
+    public int nextSetBit(int from){
+        if(from >= size){
+            return -1;
+        } //end if
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from); //drop bits below from
+        while(true){
+            if(word != 0){
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            } //end if
+            if(++w == words.length){
+                return -1;
+            } //end if
+            word = words[w];
+        } //end while
+    } //end nextSetBit
+
+    /**Retrieves a block of 64 bits, for callers combining bitmaps word by word.
+     * @return bits 64 * wordIndex through 64 * wordIndex + 63 as a long.
+     * @param wordIndex integer index of the word.
+     */
+    public long word(int wordIndex){
+        return words[wordIndex];
+    } //end word
+
+    /**Determines how many 64 bit words back this Bitmap.
+     * @return integer number of words.
+     */
+    public int wordCount(){
+        return words.length;
+    } //end wordCount
+
+} //end Bitmap
@@ -0,0 +1,300 @@
+import java.util.Arrays;
+
+/**
+ * Compressed sparse row (CSR) adjacency storage.
+ * The neighbors of vertex v are targets[offsets[v]] through
+ * targets[offsets[v + 1] - 1], kept sorted and free of duplicates,
+ * so memory grows with the number of edges instead of n*n and a
+ * neighbor scan reads one contiguous block.
+ * CSR is meant to be built once from an edge list; addEdge and
+ * removeEdge work but shift the arrays, costing O(n + e) each.
+ * Edge weights, when present, sit in a double array parallel to targets.
+ */
+public class CsrAdjacency implements AdjacencyInterface{
+    private final int[] offsets; //offsets[v] is where the row of v starts in targets, length n + 1
+    private int[] targets; //concatenated sorted rows, may have spare capacity past offsets[n]
+    private double[] weights; //weights[i] belongs to the edge ending at targets[i], null while every weight is 1
+
+    /**Creates a CsrAdjacency with n vertices and no edges. */
+    public CsrAdjacency(int n){
+        this(n, new int[0], new int[0]);
+    } //end constructor
+
+    /**Creates a CsrAdjacency from an edge list.
+     * Edge i goes from sources[i] to targets[i]; duplicate edges are dropped.
+     * @param n number of vertices.
+     * @param sources integer array of edge start vertices.
+     * @param targets integer array of edge end vertices.
+     */
+    public CsrAdjacency(int n, int[] sources, int[] targets){
+        this(n, sources, targets, null);
+    } //end constructor
+
+    /**Creates a weighted CsrAdjacency from an edge list.
+     * Edge i goes from sources[i] to targets[i] with weight weights[i];
+     * of duplicate edges the first one listed is kept.
+     * @param n number of vertices.
+     * @param sources integer array of edge start vertices.
+     * @param targets integer array of edge end vertices.
+     * @param weights double array of edge weights, or null for weight 1 everywhere.
+     */
+    public CsrAdjacency(int n, int[] sources, int[] targets, double[] weights){
+        if (n < 0) {
+            throw new IllegalArgumentException("Vertex count cannot be negative: " + n);
+        }
+        if (sources.length != targets.length) {
+            throw new IllegalArgumentException("Edge list lengths differ: "
+                + sources.length + " sources, " + targets.length + " targets");
+        }
+        if (weights != null && weights.length != sources.length) {
+            throw new IllegalArgumentException("Edge list lengths differ: "
+                + sources.length + " sources, " + weights.length + " weights");
+        }
+        offsets = new int[n + 1];
+
+        //Count out-degrees, checking every endpoint on the way
+        for(int i = 0; i < sources.length; i++){
+            checkIndex(sources[i], n);
+            checkIndex(targets[i], n);
+            offsets[sources[i] + 1]++;
+        } //end for
+
+        //Prefix sum turns degrees into row starts
+        for(int v = 0; v < n; v++){
+            offsets[v + 1] += offsets[v];
+        } //end for
+
+        if(weights != null){
+            buildWeighted(sources, targets, weights);
+            return;
+        } //end if
+
+        //Scatter targets into their rows
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] scattered = new int[sources.length];
+        for(int i = 0; i < sources.length; i++){
+            scattered[next[sources[i]]++] = targets[i];
+        } //end for
+
+        //Sort each row and squeeze out duplicates in place
+        int write = 0;
+        for(int v = 0; v < n; v++){
+            int start = offsets[v];
+            int end = offsets[v + 1];
+            Arrays.sort(scattered, start, end);
+            offsets[v] = write;
+            for(int i = start; i < end; i++){
+                if(i == start || scattered[i] != scattered[i - 1]){
+                    scattered[write++] = scattered[i];
+                } //end if
+            } //end for
+        } //end for
+        offsets[n] = write;
+        this.targets = scattered;
+    } //end constructor
+
+    /* Fills the rows from a weighted edge list once offsets hold the row starts.
+     * Each edge is packed as (target << 32 | edge index) so sorting a row also
+     * orders duplicates by position in the list, and the weight follows by index
+     */
+    private void buildWeighted(int[] sources, int[] targets, double[] weights){
+        int n = offsets.length - 1;
+        int[] next = Arrays.copyOf(offsets, n);
+        long[] scattered = new long[sources.length];
+        for(int i = 0; i < sources.length; i++){
+            scattered[next[sources[i]]++] = (long) targets[i] << 32 | i;
+        } //end for
+
+        int[] rowTargets = new int[sources.length];
+        double[] rowWeights = new double[sources.length];
+        int write = 0;
+        for(int v = 0; v < n; v++){
+            int start = offsets[v];
+            int end = offsets[v + 1];
+            Arrays.sort(scattered, start, end);
+            offsets[v] = write;
+            for(int i = start; i < end; i++){
+                int target = (int) (scattered[i] >>> 32);
+                if(i == start || target != rowTargets[write - 1]){
+                    rowTargets[write] = target;
+                    rowWeights[write++] = weights[(int) scattered[i]];
+                } //end if
+            } //end for
+        } //end for
+        offsets[n] = write;
+        this.targets = rowTargets;
+        this.weights = rowWeights;
+    } //end buildWeighted
+
+    /* Wraps rows that are already sorted and free of duplicates */
+    private CsrAdjacency(int[] offsets, int[] targets, double[] weights){
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    } //end constructor
+
+    /* Wraps rows that are already sorted and free of duplicates, for storage
+     * that builds its own rows such as a compacting DeltaAdjacency
+     * @param weights parallel to targets, or null while every weight is 1
+     */
+    static CsrAdjacency wrap(int[] offsets, int[] targets, double[] weights) {
+        return new CsrAdjacency(offsets, targets, weights);
+    }
+
+    /* Checks that index is a vertex of an n vertex graph
+     * @param index integer index of the vertex
+     * @param n number of vertices
+     */
+    private static void checkIndex(int index, int n) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Invalid vertex index: " + index);
+        }
+    }
+
+    @Override
+    public int size(){
+        return offsets.length - 1;
+    } //end size
+
+    @Override
+    public int edgeCount(){
+        return offsets[offsets.length - 1];
+    } //end edgeCount
+
+    @Override
+    public int degree(int vertex){
+        return offsets[vertex + 1] - offsets[vertex];
+    } //end degree
+
+    @Override
+    public boolean isEdge(int source, int target){
+        return find(source, target) >= 0;
+    } //end isEdge
+
+    /* Binary searches the row of source for target
+     * @return position of target in targets, or (-(insertion point) - 1) if absent
+     */
+    private int find(int source, int target){
+        return Arrays.binarySearch(targets, offsets[source], offsets[source + 1], target);
+    } //end find
+
+    @Override
+    public void addEdge(int source, int target){
+        int position = find(source, target);
+        if(position >= 0){
+            return;
+        } //end if
+        position = -position - 1;
+        int used = edgeCount();
+        if(used == targets.length){
+            targets = Arrays.copyOf(targets, Math.max(8, used * 2));
+            if(weights != null){
+                weights = Arrays.copyOf(weights, targets.length);
+            } //end if
+        } //end if
+        System.arraycopy(targets, position, targets, position + 1, used - position);
+        targets[position] = target;
+        if(weights != null){
+            System.arraycopy(weights, position, weights, position + 1, used - position);
+            weights[position] = 1.0;
+        } //end if
+        for(int v = source + 1; v < offsets.length; v++){
+            offsets[v]++;
+        } //end for
+    } //end addEdge
+
+    @Override
+    public void removeEdge(int source, int target){
+        int position = find(source, target);
+        if(position < 0){
+            return;
+        } //end if
+        int used = edgeCount();
+        System.arraycopy(targets, position + 1, targets, position, used - position - 1);
+        if(weights != null){
+            System.arraycopy(weights, position + 1, weights, position, used - position - 1);
+        } //end if
+        for(int v = source + 1; v < offsets.length; v++){
+            offsets[v]--;
+        } //end for
+    } //end removeEdge
+
+    @Override
+    public int[] neighbors(int vertex){
+        return Arrays.copyOfRange(targets, offsets[vertex], offsets[vertex + 1]);
+    } //end neighbors
+
+    @Override
+    public int nextNeighbor(int vertex, int cursor){
+        return cursor < degree(vertex) ? cursor : -1; //the cursor is the position within the row
+    } //end nextNeighbor
+
+    @Override
+    public int neighborAt(int vertex, int cursor){
+        return targets[offsets[vertex] + cursor];
+    } //end neighborAt
+
+    @Override
+    public double weightAt(int vertex, int cursor){
+        return weights == null ? 1.0 : weights[offsets[vertex] + cursor];
+    } //end weightAt
+
+    @Override
+    public double weight(int source, int target){
+        int position = find(source, target);
+        if(position < 0){
+            return Double.NaN;
+        } //end if
+        return weights == null ? 1.0 : weights[position];
+    } //end weight
+
+    @Override
+    public void setWeight(int source, int target, double weight){
+        int position = find(source, target);
+        if(position < 0){
+            return;
+        } //end if
+        if(weights == null){
+            weights = new double[targets.length];
+            Arrays.fill(weights, 1.0);
+        } //end if
+        weights[position] = weight;
+    } //end setWeight
+
+    @Override
+    public CsrAdjacency transpose(){
+        return transposeOf(this);
+    } //end transpose
+
+    /**Builds CSR storage holding every edge of another storage reversed.
+     * @return CsrAdjacency whose neighbors of v are the vertices with an edge into v.
+     * @param edges storage to reverse, of any kind.
+     */
+    public static CsrAdjacency transposeOf(AdjacencyInterface edges){
+        int n = edges.size();
+        int[] reversedOffsets = new int[n + 1];
+        int[] reversedTargets = new int[edges.edgeCount()];
+        for(int v = 0; v < n; v++){
+            for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                reversedOffsets[edges.neighborAt(v, c) + 1]++;
+            } //end for
+        } //end for
+        for(int v = 0; v < n; v++){
+            reversedOffsets[v + 1] += reversedOffsets[v];
+        } //end for
+        //Visiting sources in ascending order leaves every reversed row sorted
+        int[] next = Arrays.copyOf(reversedOffsets, n);
+        double[] reversedWeights = new double[reversedTargets.length];
+        boolean weighted = false;
+        for(int v = 0; v < n; v++){
+            for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                int position = next[edges.neighborAt(v, c)]++;
+                reversedTargets[position] = v;
+                reversedWeights[position] = edges.weightAt(v, c);
+                weighted |= reversedWeights[position] != 1.0;
+            } //end for
+        } //end for
+        return new CsrAdjacency(reversedOffsets, reversedTargets, weighted ? reversedWeights : null);
+    } //end transposeOf
+
+} //end CsrAdjacency
@@ -0,0 +1,331 @@
+import java.util.Arrays;
+/**
+ * Immutable edge storage made of a compact CSR base plus a delta layer:
+ * per vertex, a sorted row of edges added since the base was built and a
+ * sorted row of base edges removed since. Applying an EdgeBatch returns a
+ * new DeltaAdjacency and leaves this one untouched, so every version can be
+ * read by any number of threads without locks.
+ * Delta rows sit in pages of 1024 vertices. A new version copies the page
+ * table and only the pages the batch touches, and shares every other page
+ * and row with the version before it.
+ * A cursor is a position in the merge of the base row and the added row,
+ * which share no vertex, so cursor scans are in ascending order like
+ * neighbors(). Finding the entry at a cursor binary searches the added
+ * row, which stays short between compactions.
+ */
+public class DeltaAdjacency implements AdjacencyInterface{
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    private final CsrAdjacency base; //never modified once wrapped
+    private final int[][][] added; //added[v >>> PAGE_BITS][v & PAGE_MASK] is the sorted row of new edges of v; null pages and rows are empty
+    private final int[][][] removed; //same layout, sorted base edges of v that were deleted
+    private final int edgeCount;
+    private final int deltaCount; //total length of every added and removed row
+    private final long version;
+
+    /**Creates a DeltaAdjacency with an empty delta over a base.
+     * @param base CsrAdjacency that nothing may modify afterwards.
+     */
+    public DeltaAdjacency(CsrAdjacency base){
+        this(base, new int[pageCount(base.size())][][], new int[pageCount(base.size())][][], base.edgeCount(), 0, 0);
+    } //end constructor
+
+    /* Wraps the parts of a version, which are kept, not copied */
+    private DeltaAdjacency(CsrAdjacency base, int[][][] added, int[][][] removed, int edgeCount, int deltaCount, long version){
+        this.base = base;
+        this.added = added;
+        this.removed = removed;
+        this.edgeCount = edgeCount;
+        this.deltaCount = deltaCount;
+        this.version = version;
+    } //end constructor
+
+    /* Number of pages needed for n vertices */
+    private static int pageCount(int n){
+        return (n + PAGE_MASK) >>> PAGE_BITS;
+    } //end pageCount
+
+    /* Looks up the delta row of a vertex
+     * @return sorted row, or null if it is empty
+     */
+    private static int[] row(int[][][] pages, int vertex){
+        int[][] page = pages[vertex >>> PAGE_BITS];
+        return page == null ? null : page[vertex & PAGE_MASK];
+    } //end row
+
+    /* Tests whether a sorted row, possibly null, holds a vertex */
+    private static boolean contains(int[] row, int vertex){
+        return row != null && Arrays.binarySearch(row, vertex) >= 0;
+    } //end contains
+
+    /**Retrieves the version number, counting the batches applied since the first version.
+     * @return long version of this storage.
+     */
+    public long getVersion(){
+        return version;
+    } //end getVersion
+
+    /**Counts the entries in the delta layer.
+     * @return integer number of added edges plus removed base edges.
+     */
+    public int deltaSize(){
+        return deltaCount;
+    } //end deltaSize
+
+    @Override
+    public int size(){
+        return base.size();
+    } //end size
+
+    @Override
+    public int edgeCount(){
+        return edgeCount;
+    } //end edgeCount
+
+    @Override
+    public boolean isEdge(int source, int target){
+        if(contains(row(added, source), target)){
+            return true;
+        } //end if
+        return base.isEdge(source, target) && !contains(row(removed, source), target);
+    } //end isEdge
+
+    @Override
+    public void addEdge(int source, int target){
+        throw new UnsupportedOperationException("Snapshots are read-only; apply an EdgeBatch to the DynamicGraph");
+    } //end addEdge
+
+    @Override
+    public void removeEdge(int source, int target){
+        throw new UnsupportedOperationException("Snapshots are read-only; apply an EdgeBatch to the DynamicGraph");
+    } //end removeEdge
+
+    @Override
+    public int degree(int vertex){
+        int[] extra = row(added, vertex);
+        int[] gone = row(removed, vertex);
+        return base.degree(vertex) + (extra == null ? 0 : extra.length) - (gone == null ? 0 : gone.length);
+    } //end degree
+
+    @Override
+    public int[] neighbors(int vertex){
+        int[] answer = new int[degree(vertex)];
+        int[] extra = row(added, vertex);
+        int[] gone = row(removed, vertex);
+        int baseDegree = base.degree(vertex);
+        int count = 0;
+        int j = 0;
+        //Merge the base row, minus removed edges, with the added row
+        for(int i = 0; i < baseDegree; i++){
+            int w = base.neighborAt(vertex, i);
+            if(contains(gone, w)){
+                continue;
+            } //end if
+            while(extra != null && j < extra.length && extra[j] < w){
+                answer[count++] = extra[j++];
+            } //end while
+            answer[count++] = w;
+        } //end for
+        while(extra != null && j < extra.length){
+            answer[count++] = extra[j++];
+        } //end while
+        return answer;
+    } //end neighbors
+
+    @Override
+    public int nextNeighbor(int vertex, int cursor){
+        int[] extra = row(added, vertex);
+        int[] gone = row(removed, vertex);
+        int end = base.degree(vertex) + (extra == null ? 0 : extra.length);
+        for(; cursor < end; cursor++){
+            int entry = locate(vertex, extra, cursor);
+            if(entry < 0 || !contains(gone, base.neighborAt(vertex, entry))){
+                return cursor;
+            } //end if
+        } //end for
+        return -1;
+    } //end nextNeighbor
+
+    /* Finds which row holds the entry at a position of the merged base and
+     * added rows, by binary searching how many added entries come before it
+     * @return index in the base row, or ~(index in the added row)
+     */
+    private int locate(int vertex, int[] extra, int cursor){
+        if(extra == null){
+            return cursor;
+        } //end if
+        int baseDegree = base.degree(vertex);
+        int low = Math.max(0, cursor - baseDegree); //added entries before cursor
+        int high = Math.min(cursor, extra.length);
+        while(low < high){
+            int taken = (low + high) >>> 1;
+            int i = cursor - taken;
+            if(i > 0 && base.neighborAt(vertex, i - 1) > extra[taken]){
+                low = taken + 1; //a base entry before the cursor outranks extra[taken], so it comes earlier too
+            }
+            else{
+                high = taken;
+            } //end if-else
+        } //end while
+        int i = cursor - low;
+        if(low < extra.length && (i == baseDegree || extra[low] < base.neighborAt(vertex, i))){
+            return ~low;
+        } //end if
+        return i;
+    } //end locate
+
+    @Override
+    public int neighborAt(int vertex, int cursor){
+        int[] extra = row(added, vertex);
+        int entry = locate(vertex, extra, cursor);
+        return entry >= 0 ? base.neighborAt(vertex, entry) : extra[~entry];
+    } //end neighborAt
+
+    @Override
+    public double weightAt(int vertex, int cursor){
+        int entry = locate(vertex, row(added, vertex), cursor);
+        return entry >= 0 ? base.weightAt(vertex, entry) : 1.0;
+    } //end weightAt
+
+    /**Builds the in-edges as a DeltaAdjacency over a CSR base, so later
+     * versions can carry them forward by applying each batch reversed.
+     * @return DeltaAdjacency of the reversed edges, with an empty delta layer.
+     */
+    @Override
+    public DeltaAdjacency transpose(){
+        return new DeltaAdjacency(CsrAdjacency.transposeOf(this));
+    } //end transpose
+
+    /**Builds the next version: this one with the operations of a batch applied
+     * in order. Indices are not checked; DynamicGraph does that.
+     * @return new DeltaAdjacency one version newer; this one is unchanged.
+     * @param batch operations to apply.
+     */
+    public DeltaAdjacency apply(EdgeBatch batch){
+        int[][][] nextAdded = added.clone();
+        int[][][] nextRemoved = removed.clone();
+        boolean[] copied = new boolean[added.length]; //pages already copied for this version
+        int nextEdgeCount = edgeCount;
+        int nextDeltaCount = deltaCount;
+
+        for(int i = 0; i < batch.size(); i++){
+            int source = batch.getSource(i);
+            int target = batch.getTarget(i);
+            int page = source >>> PAGE_BITS;
+            if(!copied[page]){
+                nextAdded[page] = copyPage(nextAdded[page]);
+                nextRemoved[page] = copyPage(nextRemoved[page]);
+                copied[page] = true;
+            } //end if
+            int[][] addedPage = nextAdded[page];
+            int[][] removedPage = nextRemoved[page];
+            int slot = source & PAGE_MASK;
+            boolean present = contains(addedPage[slot], target)
+                || (base.isEdge(source, target) && !contains(removedPage[slot], target));
+
+            if(batch.isInsert(i) && !present){
+                if(contains(removedPage[slot], target)){
+                    removedPage[slot] = without(removedPage[slot], target); //back to the base edge
+                    nextDeltaCount--;
+                }
+                else{
+                    addedPage[slot] = with(addedPage[slot], target);
+                    nextDeltaCount++;
+                } //end if-else
+                nextEdgeCount++;
+            }
+            else if(!batch.isInsert(i) && present){
+                if(contains(addedPage[slot], target)){
+                    addedPage[slot] = without(addedPage[slot], target);
+                    nextDeltaCount--;
+                }
+                else{
+                    removedPage[slot] = with(removedPage[slot], target);
+                    nextDeltaCount++;
+                } //end if-else
+                nextEdgeCount--;
+            } //end if-else
+        } //end for
+        return new DeltaAdjacency(base, nextAdded, nextRemoved, nextEdgeCount, nextDeltaCount, version + 1);
+    } //end apply
+
+    /* Copies a page table so rows can be replaced without touching older versions */
+    private static int[][] copyPage(int[][] page){
+        return page == null ? new int[1 << PAGE_BITS][] : page.clone();
+    } //end copyPage
+
+    /* Builds a sorted row holding one more vertex; rows are never changed in place */
+    private static int[] with(int[] row, int vertex){
+        if(row == null){
+            return new int[] {vertex};
+        } //end if
+        int at = -Arrays.binarySearch(row, vertex) - 1;
+        int[] grown = new int[row.length + 1];
+        System.arraycopy(row, 0, grown, 0, at);
+        grown[at] = vertex;
+        System.arraycopy(row, at, grown, at + 1, row.length - at);
+        return grown;
+    } //end with
+
+    /* Builds a sorted row holding one vertex fewer, null once empty */
+    private static int[] without(int[] row, int vertex){
+        if(row.length == 1){
+            return null;
+        } //end if
+        int at = Arrays.binarySearch(row, vertex);
+        int[] shrunk = new int[row.length - 1];
+        System.arraycopy(row, 0, shrunk, 0, at);
+        System.arraycopy(row, at + 1, shrunk, at, row.length - at - 1);
+        return shrunk;
+    } //end without
+
+    /**Merges the delta layer into a fresh CSR base holding the same edges.
+     * Base edges keep their weights; added edges weigh 1.
+     * @return new CsrAdjacency equal to this storage.
+     */
+    public CsrAdjacency compact(){
+        int n = size();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        boolean weighted = false;
+        int count = 0;
+        for(int v = 0; v < n; v++){
+            offsets[v] = count;
+            int[] extra = row(added, v);
+            int[] gone = row(removed, v);
+            int baseDegree = base.degree(v);
+            int j = 0;
+            for(int i = 0; i < baseDegree; i++){
+                int w = base.neighborAt(v, i);
+                if(contains(gone, w)){
+                    continue;
+                } //end if
+                while(extra != null && j < extra.length && extra[j] < w){
+                    weights[count] = 1.0;
+                    targets[count++] = extra[j++];
+                } //end while
+                weights[count] = base.weightAt(v, i);
+                weighted |= weights[count] != 1.0;
+                targets[count++] = w;
+            } //end for
+            while(extra != null && j < extra.length){
+                weights[count] = 1.0;
+                targets[count++] = extra[j++];
+            } //end while
+        } //end for
+        offsets[n] = count;
+        return CsrAdjacency.wrap(offsets, targets, weighted ? weights : null);
+    } //end compact
+
+    /**Rebuilds this version over a new base holding exactly the same edges,
+     * such as the result of compact(), with an empty delta layer.
+     * @return DeltaAdjacency of the same version over the new base.
+     * @param compacted CsrAdjacency equal to this storage.
+     */
+    public DeltaAdjacency rebase(CsrAdjacency compacted){
+        return new DeltaAdjacency(compacted, new int[added.length][][], new int[removed.length][][], edgeCount, 0, version);
+    } //end rebase
+
+} //end DeltaAdjacency
@@ -0,0 +1,52 @@
+/**
+ * Dijkstra's single-source shortest paths over weighted edge storage.
+ * The frontier is an IndexedMinHeap, so each vertex is queued at most once
+ * and relaxing an edge lowers its key in place. Distances, parents and the
+ * heap live in a TraversalContext; a point-to-point search stops as soon as
+ * its target leaves the heap, since its distance is then final.
+ * Weights must be non-negative, which Graph checks when they are set.
+ */
+public class Dijkstra{
+    private final AdjacencyInterface edges;
+
+    /**Creates a Dijkstra over edge storage.
+     * @param edges storage whose weightAt gives the edge lengths.
+     */
+    public Dijkstra(AdjacencyInterface edges){
+        this.edges = edges;
+    } //end constructor
+
+    /**Runs the search, leaving distances and parents of every vertex it
+     * reached in the context. Depths there count the edges of each path.
+     * @param context TraversalContext to search in; begin() is called here.
+     * @param source integer index of the start vertex.
+     * @param target integer index of the vertex to stop at, or -1 to settle every reachable vertex.
+     */
+    public void search(TraversalContext context, int source, int target){
+        context.begin();
+        IndexedMinHeap heap = context.getHeap();
+        context.visit(source, -1, 0);
+        context.setDistance(source, 0.0);
+        heap.offer(source, 0.0);
+
+        while(!heap.isEmpty()){
+            int v = heap.poll();
+            if(v == target){
+                return; //popped with its final distance
+            } //end if
+            double base = context.getDistance(v);
+            int level = context.getDepth(v) + 1;
+            for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                int w = edges.neighborAt(v, c);
+                double candidate = base + edges.weightAt(v, c);
+                //Settled vertices never improve, as no weight is negative
+                if(candidate < context.getDistance(w)){
+                    context.visit(w, v, level);
+                    context.setDistance(w, candidate);
+                    heap.offer(w, candidate);
+                } //end if
+            } //end for
+        } //end while
+    } //end search
+
+} //end Dijkstra
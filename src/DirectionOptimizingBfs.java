@@ -0,0 +1,171 @@
+import java.util.Arrays;
+/**
+ * Direction-optimizing breadth-first search (Beamer, Asanovic and Patterson).
+ * Small frontiers are expanded top-down, pushing along out-edges. Once the
+ * frontier's out-edges outweigh the edges left among unvisited vertices the
+ * search switches to bottom-up: every unvisited vertex looks along its
+ * in-edges for any parent in the frontier and stops at the first one, which
+ * skips most edges into already visited vertices on low-diameter graphs.
+ */
+public class DirectionOptimizingBfs{
+    /**Switch to bottom-up when frontier edges exceed unexplored edges / ALPHA. */
+    public static final int ALPHA = 15;
+    /**Switch back to top-down when the frontier shrinks below n / BETA vertices. */
+    public static final int BETA = 18;
+
+    private final AdjacencyInterface out; //out-edges
+    private final AdjacencyInterface in; //in-edges, the transpose of out
+    private final int n;
+
+    private final Bitmap visited;
+    private final Bitmap frontier; //frontier while going bottom-up
+    private final Bitmap next; //vertices reached by the current bottom-up step
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] order; //order[0..reached) doubles as the top-down queue
+    private int reached;
+
+    /**Creates a search over out-edges and the matching in-edges.
+     * @param out storage of the out-edges.
+     * @param in storage of the in-edges, as built by out.transpose().
+     */
+    public DirectionOptimizingBfs(AdjacencyInterface out, AdjacencyInterface in){
+        this.out = out;
+        this.in = in;
+        n = out.size();
+        visited = new Bitmap(n);
+        frontier = new Bitmap(n);
+        next = new Bitmap(n);
+        parent = new int[n];
+        depth = new int[n];
+        order = new int[n];
+    } //end constructor
+
+    /**Runs the search from origin, filling the parent, depth and order arrays.
+     * @return integer number of vertices reached.
+     * @param origin integer index of the start vertex.
+     */
+    public int search(int origin){
+        Arrays.fill(parent, -1);
+        Arrays.fill(depth, -1);
+        visited.clearAll();
+        reached = 0;
+
+        visit(origin, -1, 0);
+        long unexploredEdges = out.edgeCount() - (long) out.degree(origin);
+        long frontierEdges = out.degree(origin);
+        int levelStart = 0; //frontier is order[levelStart..reached)
+        int level = 0;
+        boolean bottomUp = false;
+
+        while(levelStart < reached){
+            int frontierSize = reached - levelStart;
+            if(!bottomUp && frontierEdges > unexploredEdges / ALPHA){
+                bottomUp = true;
+            }
+            else if(bottomUp && frontierSize < n / BETA){
+                bottomUp = false;
+            } //end if-else
+
+            int levelEnd = reached;
+            frontierEdges = bottomUp ? bottomUpStep(levelStart, levelEnd, level)
+                                     : topDownStep(levelStart, levelEnd, level);
+            unexploredEdges -= frontierEdges;
+            levelStart = levelEnd;
+            level++;
+        } //end while
+        return reached;
+    } //end search
+
+    /* Expands order[start..end) along out-edges
+     * @return sum of the out-degrees of the newly reached vertices
+     */
+    private long topDownStep(int start, int end, int level){
+        long edges = 0;
+        for(int i = start; i < end; i++){
+            int u = order[i];
+            for(int c = out.nextNeighbor(u, 0); c >= 0; c = out.nextNeighbor(u, c + 1)){
+                int w = out.neighborAt(u, c);
+                if(!visited.get(w)){
+                    visit(w, u, level + 1);
+                    edges += out.degree(w);
+                } //end if
+            } //end for
+        } //end for
+        return edges;
+    } //end topDownStep
+
+    /* Lets every unvisited vertex look for a parent among order[start..end)
+     * @return sum of the out-degrees of the newly reached vertices
+     */
+    private long bottomUpStep(int start, int end, int level){
+        frontier.clearAll();
+        for(int i = start; i < end; i++){
+            frontier.set(order[i]);
+        } //end for
+        next.clearAll();
+
+        long edges = 0;
+        BitMatrixAdjacency bitRows = in instanceof BitMatrixAdjacency ? (BitMatrixAdjacency) in : null;
+        for(int v = 0; v < n; v++){
+            if(visited.get(v)){
+                continue;
+            } //end if
+            int u = -1;
+            if(bitRows != null){
+                u = bitRows.firstNeighborIn(v, frontier); //AND 64 in-neighbors at a time
+            }
+            else{
+                for(int c = in.nextNeighbor(v, 0); c >= 0; c = in.nextNeighbor(v, c + 1)){
+                    if(frontier.get(in.neighborAt(v, c))){
+                        u = in.neighborAt(v, c);
+                        break; //one parent is enough
+                    } //end if
+                } //end for
+            } //end if-else
+            if(u >= 0){
+                parent[v] = u;
+                depth[v] = level + 1;
+                next.set(v);
+                edges += out.degree(v);
+            } //end if
+        } //end for
+
+        //Mark visited only after the sweep so no vertex finds a parent in its own level
+        for(int v = next.nextSetBit(0); v >= 0; v = next.nextSetBit(v + 1)){
+            visited.set(v);
+            order[reached++] = v;
+        } //end for
+        return edges;
+    } //end bottomUpStep
+
+    /* Records that vertex was reached from from at the given depth */
+    private void visit(int vertex, int from, int level){
+        visited.set(vertex);
+        parent[vertex] = from;
+        depth[vertex] = level;
+        order[reached++] = vertex;
+    } //end visit
+
+    /**Retrieves the tree parents from the last search.
+     * @return the backing integer array, -1 where there is no parent.
+     */
+    public int[] getParents(){
+        return parent;
+    } //end getParents
+
+    /**Retrieves the depths from the last search.
+     * @return the backing integer array, -1 for unreached vertices.
+     */
+    public int[] getDepths(){
+        return depth;
+    } //end getDepths
+
+    /**Retrieves the reached vertices from the last search, level by level.
+     * @return a copy of the first reached entries of the order array.
+     */
+    public int[] getOrder(){
+        return Arrays.copyOf(order, reached);
+    } //end getOrder
+
+} //end DirectionOptimizingBfs
@@ -0,0 +1,327 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+/**
+ * Bulk synchronous breadth-first search over a PartitionedGraph, as a
+ * coordinator would drive it across a cluster. Each shard keeps the
+ * parent and depth of only the vertices it owns. In superstep L every shard
+ * first claims the vertices delivered to it, which together with its own
+ * finds make up its part of level L, then scans their rows: targets it owns
+ * join level L + 1 at once, the rest go to their owners in one FrontierBatch
+ * per shard, each vertex once however many of the rows reach it. The coordinator runs the shards' steps on an executor and ends
+ * each superstep with the transport's barrier, stopping once every part of
+ * a level is empty.
+ * The communication of each superstep is recorded for sizing a real cluster.
+ */
+public class DistributedBfs<E>{
+    private final PartitionedGraph<E> partitions;
+    private final MessageTransport transport;
+    private final ExecutorService workers;
+    private final Shard[] shards;
+    private TraversalResult<E> result;
+    //Per superstep measurements, indexed by superstep
+    private int supersteps;
+    private long[] frontierSizes = new long[8];
+    private long[] batchesSent = new long[8];
+    private long[] verticesSent = new long[8];
+    private long[] bytesSent = new long[8];
+
+    /**Creates a search over the shards of a PartitionedGraph.
+     * @param partitions the shards to search.
+     * @param transport channel carrying batches between shards.
+     * @param workers executor running the shards' steps; needs no more threads than shards.
+     */
+    public DistributedBfs(PartitionedGraph<E> partitions, MessageTransport transport, ExecutorService workers){
+        this.partitions = partitions;
+        this.transport = transport;
+        this.workers = workers;
+        shards = new Shard[partitions.getShardCount()];
+        for(int s = 0; s < shards.length; s++){
+            shards[s] = new Shard(partitions, transport, s);
+        } //end for
+    } //end constructor
+
+    /**Runs the search from origin.
+     * @return TraversalResult in level order; within a level, shard by shard.
+     * @param origin label of the vertex the search begins at.
+     * @throws IllegalArgumentException if no vertex has the label.
+     */
+    public TraversalResult<E> search(E origin){
+        Graph<E> graph = partitions.getGraph();
+        int originIndex = graph.indexOf(origin);
+        if (originIndex == -1) {
+            throw new IllegalArgumentException("Label not found: " + origin);
+        }
+        for(Shard shard : shards){
+            shard.reset();
+        } //end for
+        supersteps = 0;
+        shards[partitions.getOwner(originIndex)].claim(partitions.localId(originIndex), -1, 0);
+
+        int[] order = new int[16];
+        int[] treeParents = new int[16];
+        int[] levels = new int[16];
+        int count = 0;
+        List<Callable<long[]>> steps = new ArrayList<>(shards.length);
+        for(int level = 0; ; level++){
+            steps.clear();
+            for(Shard shard : shards){
+                int step = level;
+                steps.add(() -> shard.step(step));
+            } //end for
+            long[] totals = new long[4];
+            for(long[] counts : runAll(steps)){
+                for(int i = 0; i < totals.length; i++){
+                    totals[i] += counts[i];
+                } //end for
+            } //end for
+            if(totals[0] == 0){
+                break; //no shard had a part of this level, so nothing was sent either
+            } //end if
+            transport.endSuperstep();
+            record(totals);
+
+            //Gather the level shard by shard
+            for(Shard shard : shards){
+                int needed = count + shard.levelSize;
+                if(needed > order.length){
+                    int capacity = Math.max(needed, order.length * 2);
+                    order = Arrays.copyOf(order, capacity);
+                    treeParents = Arrays.copyOf(treeParents, capacity);
+                    levels = Arrays.copyOf(levels, capacity);
+                } //end if
+                for(int k = 0; k < shard.levelSize; k++){
+                    int local = shard.frontier[k];
+                    order[count] = shard.rows[local];
+                    treeParents[count] = shard.parent[local];
+                    levels[count++] = level;
+                } //end for
+            } //end for
+        } //end for
+        result = new TraversalResult<>(graph, Arrays.copyOf(order, count),
+            Arrays.copyOf(treeParents, count), Arrays.copyOf(levels, count), null, null);
+        return result;
+    } //end search
+
+    /* Runs one step of every shard and waits for all of them: the barrier */
+    private List<long[]> runAll(List<Callable<long[]>> steps){
+        List<long[]> counts = new ArrayList<>(steps.size());
+        try {
+            for(Future<long[]> step : workers.invokeAll(steps)){
+                counts.add(step.get());
+            } //end for
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during a superstep", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A shard failed during a superstep", e.getCause());
+        }
+        return counts;
+    } //end runAll
+
+    /* Appends the measurements of a finished superstep */
+    private void record(long[] totals){
+        if(supersteps == frontierSizes.length){
+            int capacity = supersteps * 2;
+            frontierSizes = Arrays.copyOf(frontierSizes, capacity);
+            batchesSent = Arrays.copyOf(batchesSent, capacity);
+            verticesSent = Arrays.copyOf(verticesSent, capacity);
+            bytesSent = Arrays.copyOf(bytesSent, capacity);
+        } //end if
+        frontierSizes[supersteps] = totals[0];
+        batchesSent[supersteps] = totals[1];
+        verticesSent[supersteps] = totals[2];
+        bytesSent[supersteps++] = totals[3];
+    } //end record
+
+    /**Retrieves the result of the latest search.
+     * @return TraversalResult, or null before the first search.
+     */
+    public TraversalResult<E> getResult(){
+        return result;
+    } //end getResult
+
+    /**Counts the supersteps of the latest search that expanded a level.
+     * @return integer number of supersteps, the depth of the search plus one.
+     */
+    public int getSupersteps(){
+        return supersteps;
+    } //end getSupersteps
+
+    /**Counts the vertices expanded in a superstep, across all shards.
+     * @return long size of the level.
+     * @param superstep integer superstep number.
+     */
+    public long getFrontierSize(int superstep){
+        checkSuperstep(superstep);
+        return frontierSizes[superstep];
+    } //end getFrontierSize
+
+    /**Counts the batches sent in a superstep, at most K * (K - 1).
+     * @return long number of messages.
+     * @param superstep integer superstep number.
+     */
+    public long getBatchesSent(int superstep){
+        checkSuperstep(superstep);
+        return batchesSent[superstep];
+    } //end getBatchesSent
+
+    /**Counts the vertex entries sent in a superstep. A vertex reached over
+     * several cross-partition edges is sent once per sending shard, with
+     * the parent it was first reached from.
+     * @return long number of entries.
+     * @param superstep integer superstep number.
+     */
+    public long getVerticesSent(int superstep){
+        checkSuperstep(superstep);
+        return verticesSent[superstep];
+    } //end getVerticesSent
+
+    /**Estimates the bytes sent in a superstep, by FrontierBatch.wireSize.
+     * @return long number of bytes.
+     * @param superstep integer superstep number.
+     */
+    public long getBytesSent(int superstep){
+        checkSuperstep(superstep);
+        return bytesSent[superstep];
+    } //end getBytesSent
+
+    /**Estimates the bytes sent over the whole latest search.
+     * @return long number of bytes.
+     */
+    public long getTotalBytesSent(){
+        long total = 0;
+        for(int step = 0; step < supersteps; step++){
+            total += bytesSent[step];
+        } //end for
+        return total;
+    } //end getTotalBytesSent
+
+    /* Checks that a superstep ran in the latest search */
+    private void checkSuperstep(int superstep){
+        if (superstep < 0 || superstep >= supersteps) {
+            throw new IndexOutOfBoundsException("Invalid superstep: " + superstep);
+        }
+    }
+
+    /* The search state one shard keeps: only its own vertices, by row */
+    private static final class Shard {
+        private final PartitionedGraph<?> partitions;
+        private final MessageTransport transport;
+        private final int number;
+        private final int[] rows; //rows[i] is the global id of row i
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] parent; //parent[i] is the global id row i was reached from
+        private final int[] depth; //depth[i] is the level of row i, -1 until claimed
+        private int[] frontier; //rows of the level being expanded, then of the next
+        private int levelSize; //rows of the last expanded level at the front of frontier
+        private int[] next;
+        private int nextSize;
+        //Outgoing entries per receiving shard, reused between supersteps
+        private final int[][] outVertices;
+        private final int[][] outParents;
+        private final int[] outSizes;
+        private final int[] sentStamp; //sentStamp[w] == stamp once global vertex w is buffered this superstep
+        private int stamp;
+
+        Shard(PartitionedGraph<?> partitions, MessageTransport transport, int number) {
+            this.partitions = partitions;
+            this.transport = transport;
+            this.number = number;
+            rows = partitions.globalIds(number);
+            offsets = partitions.offsets(number);
+            targets = partitions.targets(number);
+            parent = new int[rows.length];
+            depth = new int[rows.length];
+            frontier = new int[16];
+            next = new int[16];
+            int k = partitions.getShardCount();
+            outVertices = new int[k][16];
+            outParents = new int[k][16];
+            outSizes = new int[k];
+            sentStamp = new int[partitions.idCount()];
+        }
+
+        void reset() {
+            Arrays.fill(depth, -1);
+            nextSize = 0;
+            levelSize = 0;
+        }
+
+        /* Claims a row for level if no earlier level has, queueing it for expansion */
+        void claim(int row, int from, int level) {
+            if (depth[row] >= 0) {
+                return;
+            }
+            depth[row] = level;
+            parent[row] = from;
+            if (nextSize == next.length) {
+                next = Arrays.copyOf(next, nextSize * 2);
+            }
+            next[nextSize++] = row;
+        }
+
+        /* Claims delivered vertices, then expands this shard's part of level
+         * @return {level size, batches sent, entries sent, bytes sent}
+         */
+        long[] step(int level) {
+            for (FrontierBatch batch : transport.receive(number)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    claim(partitions.localId(batch.getVertex(i)), batch.getParent(i), level);
+                }
+            }
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            levelSize = nextSize;
+            nextSize = 0;
+
+            Arrays.fill(outSizes, 0);
+            stamp++; //forgets every vertex buffered in earlier supersteps at once
+            for (int k = 0; k < levelSize; k++) {
+                int row = frontier[k];
+                int vertex = rows[row];
+                for (int e = offsets[row]; e < offsets[row + 1]; e++) {
+                    int w = targets[e];
+                    int owner = partitions.getOwner(w);
+                    if (owner == number) {
+                        claim(partitions.localId(w), vertex, level + 1);
+                    } else if (sentStamp[w] != stamp) {
+                        sentStamp[w] = stamp;
+                        send(owner, w, vertex);
+                    }
+                }
+            }
+
+            long[] counts = {levelSize, 0, 0, 0};
+            for (int s = 0; s < outSizes.length; s++) {
+                if (outSizes[s] > 0) {
+                    FrontierBatch batch = new FrontierBatch(number, s, level,
+                        Arrays.copyOf(outVertices[s], outSizes[s]), Arrays.copyOf(outParents[s], outSizes[s]));
+                    transport.send(batch);
+                    counts[1]++;
+                    counts[2] += batch.size();
+                    counts[3] += batch.wireSize();
+                }
+            }
+            return counts;
+        }
+
+        /* Buffers an entry for the shard owning vertex */
+        private void send(int owner, int vertex, int from) {
+            int size = outSizes[owner];
+            if (size == outVertices[owner].length) {
+                outVertices[owner] = Arrays.copyOf(outVertices[owner], size * 2);
+                outParents[owner] = Arrays.copyOf(outParents[owner], size * 2);
+            }
+            outVertices[owner][size] = vertex;
+            outParents[owner][outSizes[owner]++] = from;
+        }
+    }
+
+} //end DistributedBfs
@@ -0,0 +1,188 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A graph that changes through batches of edge insertions and deletions
+ * while other threads traverse it. Each batch publishes a new immutable
+ * snapshot, a Graph over a DeltaAdjacency, so a reader holding a snapshot
+ * sees one consistent version for as long as it likes without locking.
+ * Writers take turns; a batch costs time in the vertices and pages it
+ * touches, not in the size of the graph.
+ * The delta layer slows scans as it grows, so compact() merges it into a
+ * new CSR base. The merge runs without blocking writers; batches applied
+ * meanwhile are replayed onto the new base before it is published.
+ * Vertices and their labels are fixed when the DynamicGraph is created and
+ * are shared by every snapshot, which refuses setLabel, addVertex and
+ * removeVertex. Snapshots also share one TraversalContextPool, so a new
+ * version's first traversals reuse the contexts of the old ones.
+ * Once a query has built the in-edges of a version, each batch is also
+ * applied to them reversed, so later versions inherit their in-edges
+ * instead of transposing the whole graph again.
+ */
+public class DynamicGraph<E>{
+    private final E[] labels; //shared by every snapshot, never written after construction
+    private final Map<E, Integer> labelIndex; //unmodifiable
+    private final TraversalContextPool contexts = new TraversalContextPool(); //shared by every snapshot
+    private volatile Graph<E> current; //latest published snapshot
+    private final Object writeLock = new Object(); //held by writers while they build and publish a version
+    private List<EdgeBatch> replay; //batches applied while a compaction runs, null otherwise; guarded by writeLock
+
+    /**Creates a DynamicGraph holding a copy of the edges and labels of a Graph.
+     * @param graph Graph to start from; later changes to it are not seen.
+     */
+    @SuppressWarnings("unchecked")
+    public DynamicGraph(Graph<E> graph){
+        int n = graph.size();
+        labels = (E[]) new Object[n];
+        Map<E, Integer> index = new HashMap<>();
+        for(int v = 0; v < n; v++){
+            labels[v] = graph.getLabel(v);
+            if(labels[v] != null){
+                index.put(labels[v], v);
+            } //end if
+        } //end for
+        labelIndex = Collections.unmodifiableMap(index);
+        //Transposing twice copies the edges into sorted CSR rows whatever the storage
+        CsrAdjacency base = CsrAdjacency.transposeOf(CsrAdjacency.transposeOf(graph.adjacency()));
+        current = Graph.snapshotOf(new DeltaAdjacency(base), null, labels, labelIndex, contexts);
+    } //end constructor
+
+    /**Retrieves the latest published version for reading.
+     * Snapshots never change; traverse one as long as needed.
+     * @return read-only Graph of the latest version.
+     */
+    public Graph<E> snapshot(){
+        return current;
+    } //end snapshot
+
+    /**Retrieves the number of the latest published version.
+     * @return long version, counting the batches applied.
+     */
+    public long getVersion(){
+        return storageOf(current).getVersion();
+    } //end getVersion
+
+    /**Counts the entries waiting in the delta layer of the latest version.
+     * @return integer number of added edges plus removed base edges.
+     */
+    public int getDeltaSize(){
+        return storageOf(current).deltaSize();
+    } //end getDeltaSize
+
+    /* Retrieves the storage behind a snapshot */
+    private static DeltaAdjacency storageOf(Graph<?> snapshot){
+        return (DeltaAdjacency) snapshot.adjacency();
+    } //end storageOf
+
+    /**Applies a batch of edge operations in order and publishes the result
+     * as a new version. Readers see all of the batch or none of it.
+     * @return Graph snapshot of the new version.
+     * @param batch operations to apply; it may be reused afterwards.
+     * @throws IndexOutOfBoundsException if an operation names no vertex, in which case nothing is applied.
+     */
+    public Graph<E> apply(EdgeBatch batch){
+        for(int i = 0; i < batch.size(); i++){
+            checkVertexIndex(batch.getSource(i));
+            checkVertexIndex(batch.getTarget(i));
+        } //end for
+        synchronized(writeLock){
+            AdjacencyInterface reversed = current.builtReverseEdges(); //DeltaAdjacency.transpose builds a DeltaAdjacency
+            DeltaAdjacency nextReversed = reversed instanceof DeltaAdjacency ? ((DeltaAdjacency) reversed).apply(batch.reversed()) : null;
+            current = Graph.snapshotOf(storageOf(current).apply(batch), nextReversed, labels, labelIndex, contexts);
+            if(replay != null){
+                replay.add(batch.copy());
+            } //end if
+            return current;
+        } //end synchronized
+    } //end apply
+
+    /**Adds an edge as a batch of its own.
+     * @return Graph snapshot of the new version.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge points to.
+     */
+    public Graph<E> addEdge(int source, int target){
+        return apply(new EdgeBatch().add(source, target));
+    } //end addEdge
+
+    /**Removes an edge as a batch of its own.
+     * @return Graph snapshot of the new version.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge ends.
+     */
+    public Graph<E> removeEdge(int source, int target){
+        return apply(new EdgeBatch().remove(source, target));
+    } //end removeEdge
+
+    /* Checks that index is a vertex of this graph
+     * @param index integer index of the vertex
+     */
+    private void checkVertexIndex(int index) {
+        if (index < 0 || index >= labels.length) {
+            throw new IndexOutOfBoundsException("Invalid vertex index: " + index);
+        }
+    }
+
+    /**Merges the delta layer into a new CSR base. Writers keep going while
+     * the merge runs; their batches are replayed onto the new base, which
+     * then replaces the current version without changing its number.
+     * @return True if a compaction ran, false if the delta was empty or another compaction was running.
+     */
+    public boolean compact(){
+        DeltaAdjacency start;
+        AdjacencyInterface startReversed;
+        synchronized(writeLock){
+            start = storageOf(current);
+            startReversed = current.builtReverseEdges();
+            if(replay != null || start.deltaSize() == 0){
+                return false;
+            } //end if
+            replay = new ArrayList<>();
+        } //end synchronized
+        try {
+            //The slow part, outside the lock; in-edges carried along are merged too
+            CsrAdjacency merged = start.compact();
+            DeltaAdjacency reversedStart = startReversed instanceof DeltaAdjacency ? (DeltaAdjacency) startReversed : null;
+            CsrAdjacency mergedReversed = reversedStart != null ? reversedStart.compact() : null;
+            synchronized(writeLock){
+                DeltaAdjacency rebased = start.rebase(merged);
+                DeltaAdjacency rebasedReversed = reversedStart != null ? reversedStart.rebase(mergedReversed) : null;
+                for(EdgeBatch batch : replay){
+                    rebased = rebased.apply(batch);
+                    if(rebasedReversed != null){
+                        rebasedReversed = rebasedReversed.apply(batch.reversed());
+                    } //end if
+                } //end for
+                current = Graph.snapshotOf(rebased, rebasedReversed, labels, labelIndex, contexts);
+            } //end synchronized
+            return true;
+        } finally {
+            synchronized(writeLock){
+                replay = null;
+            } //end synchronized
+        }
+    } //end compact
+
+    /**Runs compact() periodically on an executor, whenever the delta layer
+     * holds at least a given number of entries.
+     * @return ScheduledFuture to cancel the compactions with.
+     * @param executor where compactions run.
+     * @param minDelta integer delta size that makes a compaction worthwhile.
+     * @param period time between checks.
+     * @param unit unit of period.
+     */
+    public ScheduledFuture<?> scheduleCompaction(ScheduledExecutorService executor, int minDelta, long period, TimeUnit unit){
+        return executor.scheduleWithFixedDelay(() -> {
+            if(getDeltaSize() >= Math.max(1, minDelta)){
+                compact();
+            } //end if
+        }, period, period, unit);
+    } //end scheduleCompaction
+
+} //end DynamicGraph
@@ -0,0 +1,104 @@
+import java.util.Arrays;
+/**
+ * An ordered list of edge insertions and deletions to apply to a
+ * DynamicGraph in one step. Operations take effect in the order added,
+ * so removing and then re-adding an edge leaves it present.
+ */
+public class EdgeBatch{
+    private int[] sources = new int[16];
+    private int[] targets = new int[16];
+    private boolean[] inserts = new boolean[16]; //inserts[i] is true to add edge i, false to remove it
+    private int size;
+
+    /**Queues an edge insertion.
+     * @return this batch, for chaining.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge points to.
+     */
+    public EdgeBatch add(int source, int target){
+        append(source, target, true);
+        return this;
+    } //end add
+
+    /**Queues an edge deletion.
+     * @return this batch, for chaining.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge ends.
+     */
+    public EdgeBatch remove(int source, int target){
+        append(source, target, false);
+        return this;
+    } //end remove
+
+    /* Appends one operation, growing the arrays when full */
+    private void append(int source, int target, boolean insert){
+        if(size == sources.length){
+            sources = Arrays.copyOf(sources, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+            inserts = Arrays.copyOf(inserts, size * 2);
+        } //end if
+        sources[size] = source;
+        targets[size] = target;
+        inserts[size] = insert;
+        size++;
+    } //end append
+
+    /**Determines how many operations are queued.
+     * @return integer number of operations.
+     */
+    public int size(){
+        return size;
+    } //end size
+
+    /**Retrieves where the edge of an operation starts.
+     * @return integer source vertex.
+     * @param i integer position of the operation.
+     */
+    public int getSource(int i){
+        return sources[i];
+    } //end getSource
+
+    /**Retrieves where the edge of an operation points to.
+     * @return integer target vertex.
+     * @param i integer position of the operation.
+     */
+    public int getTarget(int i){
+        return targets[i];
+    } //end getTarget
+
+    /**Tests whether an operation adds or removes its edge.
+     * @return True for an insertion, false for a deletion.
+     * @param i integer position of the operation.
+     */
+    public boolean isInsert(int i){
+        return inserts[i];
+    } //end isInsert
+
+    /**Empties this batch so it can be filled again. */
+    public void clear(){
+        size = 0;
+    } //end clear
+
+    /* Copies this batch, so a caller reusing it cannot change a kept one */
+    EdgeBatch copy() {
+        EdgeBatch copy = new EdgeBatch();
+        copy.sources = Arrays.copyOf(sources, Math.max(1, size));
+        copy.targets = Arrays.copyOf(targets, Math.max(1, size));
+        copy.inserts = Arrays.copyOf(inserts, Math.max(1, size));
+        copy.size = size;
+        return copy;
+    }
+
+    /* Copies this batch with every edge turned around, the same operations
+     * applied to the in-edges
+     */
+    EdgeBatch reversed() {
+        EdgeBatch reversed = new EdgeBatch();
+        reversed.sources = Arrays.copyOf(targets, Math.max(1, size));
+        reversed.targets = Arrays.copyOf(sources, Math.max(1, size));
+        reversed.inserts = Arrays.copyOf(inserts, Math.max(1, size));
+        reversed.size = size;
+        return reversed;
+    }
+
+} //end EdgeBatch
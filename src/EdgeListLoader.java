@@ -0,0 +1,392 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/**
+ * Bulk-loads a Graph from a text edge list, one "source target" pair per line.
+ * The file is read through a FileChannel in fixed-size chunks cut at line
+ * ends. Worker threads parse chunks in parallel, each interning its own
+ * labels, and the chunks are merged in file order, so vertex numbering does
+ * not depend on thread timing. At most twice the worker count of chunks are
+ * held at once. The Graph is then built in a single CSR pass (count
+ * degrees, prefix sum, scatter) instead of one addEdge call per edge.
+ * Lines that are blank or whose first non-blank character is '#' or '%'
+ * are skipped.
+ */
+public class EdgeListLoader{
+    /**How fields on a line are separated. */
+    public enum Format{
+        /**SNAP style: fields separated by spaces or tabs, usually numeric ids. */
+        SNAP,
+        /**Comma separated labels; no quoting, surrounding spaces are trimmed. */
+        CSV
+    } //end Format
+
+    /**Bytes read per chunk unless another size is given. */
+    public static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+
+    private final Format format;
+    private final int parallelism;
+    private final int chunkBytes;
+    private long edgesRead;
+    private long elapsedNanos;
+
+    /**Creates a loader using one worker per available processor. */
+    public EdgeListLoader(Format format){
+        this(format, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_BYTES);
+    } //end constructor
+
+    /**Creates a loader.
+     * @param format how fields on a line are separated.
+     * @param parallelism number of parsing threads.
+     * @param chunkBytes bytes read per chunk; longer lines still work.
+     */
+    public EdgeListLoader(Format format, int parallelism, int chunkBytes){
+        if (parallelism < 1 || chunkBytes < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.format = format;
+        this.parallelism = parallelism;
+        this.chunkBytes = chunkBytes;
+    } //end constructor
+
+    /**Loads an edge list. Each distinct label becomes a vertex, numbered in
+     * order of first appearance; duplicate edges are kept once.
+     * @return Graph on CSR storage labeled with the labels from the file.
+     * @param path file to read.
+     * @throws IOException if the file cannot be read or a line has fewer than two fields.
+     */
+    public Graph<String> load(Path path) throws IOException{
+        long start = System.nanoTime();
+        Map<String, Integer> index = new HashMap<>();
+        List<String> labels = new ArrayList<>();
+        int[] sources = new int[1024];
+        int[] targets = new int[1024];
+        int edgeCount = 0;
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        ArrayDeque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            byte[] carry = new byte[0]; //start of a line cut off by the previous chunk
+            boolean endOfFile = false;
+            while(!endOfFile || !inFlight.isEmpty()){
+                //Keep the workers fed, but never hold more than 2 * parallelism chunks
+                while(!endOfFile && inFlight.size() < 2 * parallelism){
+                    byte[] chunk = readChunk(channel, carry);
+                    endOfFile = chunk == null;
+                    if(endOfFile){
+                        if(carry.length > 0){ //last line had no newline
+                            byte[] last = carry;
+                            inFlight.add(workers.submit(() -> parse(last, last.length)));
+                        } //end if
+                        break;
+                    } //end if
+                    int end = lastLineEnd(chunk);
+                    carry = Arrays.copyOfRange(chunk, end, chunk.length);
+                    if(end > 0){ //otherwise no line is complete yet, so read more first
+                        byte[] lines = chunk;
+                        inFlight.add(workers.submit(() -> parse(lines, end)));
+                    } //end if
+                } //end while
+                if(inFlight.isEmpty()){
+                    break;
+                } //end if
+
+                //Merge the oldest chunk: one global lookup per distinct label, not per edge
+                ParsedChunk parsed = await(inFlight.poll());
+                int[] toGlobal = new int[parsed.labels.size()];
+                for(int i = 0; i < toGlobal.length; i++){
+                    String label = parsed.labels.get(i);
+                    Integer vertex = index.get(label);
+                    if(vertex == null){
+                        vertex = labels.size();
+                        index.put(label, vertex);
+                        labels.add(label);
+                    } //end if
+                    toGlobal[i] = vertex;
+                } //end for
+                if(edgeCount + parsed.edgeCount > sources.length){
+                    int capacity = Math.max(edgeCount + parsed.edgeCount, sources.length * 2);
+                    sources = Arrays.copyOf(sources, capacity);
+                    targets = Arrays.copyOf(targets, capacity);
+                } //end if
+                for(int i = 0; i < parsed.edgeCount; i++){
+                    sources[edgeCount] = toGlobal[parsed.sources[i]];
+                    targets[edgeCount++] = toGlobal[parsed.targets[i]];
+                } //end for
+            } //end while
+        } finally {
+            workers.shutdownNow();
+        }
+
+        int n = labels.size();
+        CsrAdjacency edges = new CsrAdjacency(n, Arrays.copyOf(sources, edgeCount), Arrays.copyOf(targets, edgeCount));
+        String[] labelArray = labels.toArray(new String[n]);
+        Graph<String> graph = new Graph<>(edges, labelArray, index);
+
+        edgesRead = edgeCount;
+        elapsedNanos = System.nanoTime() - start;
+        return graph;
+    } //end load
+
+    /**Retrieves how many edge lines the last load read, duplicates included.
+     * @return long number of edges read.
+     */
+    public long getEdgesRead(){
+        return edgesRead;
+    } //end getEdgesRead
+
+    /**Retrieves how long the last load took, reading through building the Graph.
+     * @return long elapsed nanoseconds.
+     */
+    public long getElapsedNanos(){
+        return elapsedNanos;
+    } //end getElapsedNanos
+
+    /**Computes the throughput of the last load.
+     * @return edges read per second.
+     */
+    public double getEdgesPerSecond(){
+        return elapsedNanos == 0 ? 0 : edgesRead * 1e9 / elapsedNanos;
+    } //end getEdgesPerSecond
+
+    /* Reads the next chunk, prefixed with carry
+     * @return the bytes read, or null at end of file
+     */
+    private byte[] readChunk(FileChannel channel, byte[] carry) throws IOException{
+        byte[] chunk = Arrays.copyOf(carry, carry.length + chunkBytes);
+        ByteBuffer buffer = ByteBuffer.wrap(chunk, carry.length, chunkBytes);
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer) < 0){
+                break;
+            } //end if
+        } //end while
+        if(buffer.position() == carry.length){
+            return null;
+        } //end if
+        return buffer.position() == chunk.length ? chunk : Arrays.copyOf(chunk, buffer.position());
+    } //end readChunk
+
+    /* Finds where the last complete line of chunk ends
+     * @return index just past the last newline, 0 if there is none
+     */
+    private static int lastLineEnd(byte[] chunk){
+        for(int i = chunk.length - 1; i >= 0; i--){
+            if(chunk[i] == '\n'){
+                return i + 1;
+            } //end if
+        } //end for
+        return 0;
+    } //end lastLineEnd
+
+    /* Waits for a parsed chunk, unwrapping worker failures */
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException{
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading edge list", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to parse edge list", e.getCause());
+        }
+    } //end await
+
+    /* Parses the lines in chunk[0..end), interning labels locally */
+    private ParsedChunk parse(byte[] chunk, int end) throws IOException{
+        ParsedChunk parsed = new ParsedChunk();
+        LocalLabels local = new LocalLabels(parsed.labels);
+        int lineStart = 0;
+        while(lineStart < end){
+            int lineEnd = lineStart;
+            while(lineEnd < end && chunk[lineEnd] != '\n'){
+                lineEnd++;
+            } //end while
+            int stop = lineEnd;
+            while(stop > lineStart && (chunk[stop - 1] == '\r' || chunk[stop - 1] == ' ' || chunk[stop - 1] == '\t')){
+                stop--;
+            } //end while
+            int first = lineStart;
+            while(first < stop && isSpace(chunk[first])){
+                first++; //an indented comment is still a comment
+            } //end while
+            if(first < stop && chunk[first] != '#' && chunk[first] != '%'){
+                parseLine(chunk, first, stop, parsed, local);
+            } //end if
+            lineStart = lineEnd + 1;
+        } //end while
+        return parsed;
+    } //end parse
+
+    /* Adds the edge on chunk[start..stop) to parsed */
+    private void parseLine(byte[] chunk, int start, int stop, ParsedChunk parsed, LocalLabels local) throws IOException{
+        int[] fields = new int[4]; //start and end of the first two fields
+        int found = 0;
+        int i = start;
+        while(found < 2 && i < stop){
+            while(i < stop && isSpace(chunk[i])){
+                i++; //skip leading spaces
+            } //end while
+            int fieldStart = i;
+            while(i < stop && !isSeparator(chunk[i])){
+                i++;
+            } //end while
+            int fieldEnd = i;
+            while(fieldEnd > fieldStart && isSpace(chunk[fieldEnd - 1])){
+                fieldEnd--;
+            } //end while
+            if(fieldEnd > fieldStart){
+                fields[2 * found] = fieldStart;
+                fields[2 * found + 1] = fieldEnd;
+                found++;
+            } //end if
+            if(i < stop){
+                i++; //step over the separator
+            } //end if
+        } //end while
+        if (found < 2) {
+            throw new IOException("Malformed edge line: " + new String(chunk, start, stop - start, StandardCharsets.UTF_8));
+        }
+        parsed.add(local.intern(chunk, fields[0], fields[1]), local.intern(chunk, fields[2], fields[3]));
+    } //end parseLine
+
+    private static boolean isSpace(byte b){
+        return b == ' ' || b == '\t';
+    } //end isSpace
+
+    private boolean isSeparator(byte b){
+        return format == Format.CSV ? b == ',' : isSpace(b);
+    } //end isSeparator
+
+    /**Chunk-local label ids. Plain decimal numbers, the usual SNAP ids, are
+     * looked up as longs in an open-addressing table, so a String is only
+     * made the first time a chunk sees a label; anything else goes through
+     * a HashMap. A number with a sign or leading zero counts as text, so
+     * "07" and "7" stay different labels as they are in the file.
+     */
+    private static class LocalLabels{
+        private final List<String> labels; //labels.get(id) for local ids
+        private final Map<String, Integer> text = new HashMap<>();
+        private long[] keys = new long[1024];
+        private int[] ids = new int[1024]; //ids[slot] + 1, 0 for an empty slot
+        private int numbers;
+
+        private LocalLabels(List<String> labels){
+            this.labels = labels;
+        } //end constructor
+
+        /* Gives the label in chunk[start..end) a chunk-local id */
+        private int intern(byte[] chunk, int start, int end){
+            long value = parseNumber(chunk, start, end);
+            if(value < 0){
+                String label = new String(chunk, start, end - start, StandardCharsets.UTF_8);
+                Integer id = text.get(label);
+                if(id == null){
+                    id = labels.size();
+                    text.put(label, id);
+                    labels.add(label);
+                } //end if
+                return id;
+            } //end if
+
+            int mask = keys.length - 1;
+            int slot = home(value, keys.length);
+            while(ids[slot] != 0){
+                if(keys[slot] == value){
+                    return ids[slot] - 1;
+                } //end if
+                slot = (slot + 1) & mask;
+            } //end while
+            int id = labels.size();
+            labels.add(Long.toString(value));
+            keys[slot] = value;
+            ids[slot] = id + 1;
+            if(++numbers * 2 > keys.length){
+                grow();
+            } //end if
+            return id;
+        } //end intern
+
+        /* Picks the first slot to probe for a number in a table of length slots,
+         * a power of two: the top bits of a 64-bit multiplicative hash, which
+         * depend on every bit of the value, so ids sharing their low bits, such
+         * as multiples of 1024, still spread over the whole table
+         */
+        private static int home(long value, int length){
+            return (int) ((value * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(length)));
+        } //end home
+
+        /* Reads chunk[start..end) as a canonical decimal number
+         * @return the value, or -1 if the field is not one
+         */
+        private static long parseNumber(byte[] chunk, int start, int end){
+            int length = end - start;
+            if(length > 18 || (length > 1 && chunk[start] == '0')){
+                return -1;
+            } //end if
+            long value = 0;
+            for(int i = start; i < end; i++){
+                int digit = chunk[i] - '0';
+                if(digit < 0 || digit > 9){
+                    return -1;
+                } //end if
+                value = value * 10 + digit;
+            } //end for
+            return value;
+        } //end parseNumber
+
+        /* Doubles the number table, reinserting every entry */
+        private void grow(){
+            long[] oldKeys = keys;
+            int[] oldIds = ids;
+            keys = new long[oldKeys.length * 2];
+            ids = new int[oldIds.length * 2];
+            int mask = keys.length - 1;
+            for(int i = 0; i < oldKeys.length; i++){
+                if(oldIds[i] != 0){
+                    long value = oldKeys[i];
+                    int slot = home(value, keys.length);
+                    while(ids[slot] != 0){
+                        slot = (slot + 1) & mask;
+                    } //end while
+                    keys[slot] = value;
+                    ids[slot] = oldIds[i];
+                } //end if
+            } //end for
+        } //end grow
+
+    } //end LocalLabels
+
+    /**The edges of one chunk, numbered by chunk-local label ids. */
+    private static class ParsedChunk{
+        private final List<String> labels = new ArrayList<>(); //labels.get(id) for local ids
+        private int[] sources = new int[256];
+        private int[] targets = new int[256];
+        private int edgeCount;
+
+        private void add(int source, int target){
+            if(edgeCount == sources.length){
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+            } //end if
+            sources[edgeCount] = source;
+            targets[edgeCount++] = target;
+        } //end add
+
+    } //end ParsedChunk
+
+} //end EdgeListLoader
@@ -0,0 +1,150 @@
+/**
+ * Read-only CSR adjacency whose offsets and targets live outside the Java
+ * heap: memory-mapped from a graph file by GraphFile, or copied into direct
+ * memory by offHeapCopyOf. The garbage collector sees only a few small
+ * buffer objects however many edges there are. Closing releases the memory;
+ * only close once no thread is using the storage.
+ */
+public class ExternalCsrAdjacency implements AdjacencyInterface, AutoCloseable{
+    private final IntArrayInterface offsets; //n + 1 row starts, as in CsrAdjacency
+    private final IntArrayInterface targets;
+
+    /**Creates an ExternalCsrAdjacency over offsets and targets held outside the heap.
+     * @param offsets n + 1 row starts into targets.
+     * @param targets concatenated sorted rows.
+     */
+    public ExternalCsrAdjacency(IntArrayInterface offsets, IntArrayInterface targets){
+        this.offsets = offsets;
+        this.targets = targets;
+    } //end constructor
+
+    @Override
+    public int size(){
+        return (int) offsets.length() - 1;
+    } //end size
+
+    @Override
+    public int edgeCount(){
+        return offsets.get(offsets.length() - 1);
+    } //end edgeCount
+
+    @Override
+    public int degree(int vertex){
+        return offsets.get(vertex + 1) - offsets.get(vertex);
+    } //end degree
+
+    @Override
+    public boolean isEdge(int source, int target){
+        int low = offsets.get(source);
+        int high = offsets.get(source + 1) - 1;
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            int value = targets.get(middle);
+            if(value < target){
+                low = middle + 1;
+            }
+            else if(value > target){
+                high = middle - 1;
+            }
+            else{
+                return true;
+            } //end if-else
+        } //end while
+        return false;
+    } //end isEdge
+
+    /**Not supported: the storage is read-only.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void addEdge(int source, int target){
+        throw new UnsupportedOperationException("Off-heap graphs are read-only");
+    } //end addEdge
+
+    /**Not supported: the storage is read-only.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void removeEdge(int source, int target){
+        throw new UnsupportedOperationException("Off-heap graphs are read-only");
+    } //end removeEdge
+
+    @Override
+    public int[] neighbors(int vertex){
+        int start = offsets.get(vertex);
+        int[] answer = new int[offsets.get(vertex + 1) - start];
+        for(int i = 0; i < answer.length; i++){
+            answer[i] = targets.get(start + i);
+        } //end for
+        return answer;
+    } //end neighbors
+
+    @Override
+    public int nextNeighbor(int vertex, int cursor){
+        return cursor < degree(vertex) ? cursor : -1; //the cursor is the position within the row
+    } //end nextNeighbor
+
+    @Override
+    public int neighborAt(int vertex, int cursor){
+        return targets.get(offsets.get(vertex) + cursor);
+    } //end neighborAt
+
+    /**Builds the in-edges, also in direct memory.
+     * @return ExternalCsrAdjacency of the reversed edges.
+     */
+    @Override
+    public ExternalCsrAdjacency transpose(){
+        int n = size();
+        OffHeapInts reversedOffsets = new OffHeapInts(n + 1L);
+        OffHeapInts reversedTargets = new OffHeapInts(edgeCount());
+        for(long i = 0; i < edgeCount(); i++){
+            int row = targets.get(i) + 1;
+            reversedOffsets.set(row, reversedOffsets.get(row) + 1);
+        } //end for
+        for(int v = 0; v < n; v++){
+            reversedOffsets.set(v + 1, reversedOffsets.get(v + 1) + reversedOffsets.get(v));
+        } //end for
+        //Visiting sources in ascending order leaves every reversed row sorted
+        try (OffHeapInts next = new OffHeapInts(n)) {
+            for(int v = 0; v < n; v++){
+                next.set(v, reversedOffsets.get(v));
+            } //end for
+            for(int v = 0; v < n; v++){
+                for(int i = offsets.get(v); i < offsets.get(v + 1); i++){
+                    int target = targets.get(i);
+                    int position = next.get(target);
+                    reversedTargets.set(position, v);
+                    next.set(target, position + 1);
+                } //end for
+            } //end for
+        }
+        return new ExternalCsrAdjacency(reversedOffsets, reversedTargets);
+    } //end transpose
+
+    /**Releases the offsets and targets. */
+    @Override
+    public void close(){
+        offsets.close();
+        targets.close();
+    } //end close
+
+    /**Copies the edges of any storage into direct memory, row by row.
+     * @return ExternalCsrAdjacency holding the same edges; close it to free the memory.
+     * @param edges storage to copy.
+     */
+    public static ExternalCsrAdjacency offHeapCopyOf(AdjacencyInterface edges){
+        int n = edges.size();
+        OffHeapInts offsets = new OffHeapInts(n + 1L);
+        OffHeapInts targets = new OffHeapInts(edges.edgeCount());
+        int position = 0;
+        offsets.set(0, 0);
+        for(int v = 0; v < n; v++){
+            for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                targets.set(position++, edges.neighborAt(v, c));
+            } //end for
+            offsets.set(v + 1, position);
+        } //end for
+        return new ExternalCsrAdjacency(offsets, targets);
+    } //end offHeapCopyOf
+
+} //end ExternalCsrAdjacency
@@ -0,0 +1,84 @@
+/**
+ * One message of a DistributedBfs: the vertices one shard found in a
+ * superstep that another shard owns, each with the vertex it was reached
+ * from. Vertices are global ids of the PartitionedGraph.
+ */
+public final class FrontierBatch{
+    private final int from;
+    private final int to;
+    private final int superstep;
+    private final int[] vertices;
+    private final int[] parents;
+
+    /**Creates a FrontierBatch. The arrays are kept, not copied.
+     * @param from integer shard that sends the batch.
+     * @param to integer shard that owns every vertex in it.
+     * @param superstep integer superstep the batch was sent in.
+     * @param vertices integer array of reached vertices.
+     * @param parents integer array, parents[i] is the vertex vertices[i] was reached from.
+     */
+    public FrontierBatch(int from, int to, int superstep, int[] vertices, int[] parents){
+        if (vertices.length != parents.length) {
+            throw new IllegalArgumentException("Batch lengths differ: "
+                + vertices.length + " vertices, " + parents.length + " parents");
+        }
+        this.from = from;
+        this.to = to;
+        this.superstep = superstep;
+        this.vertices = vertices;
+        this.parents = parents;
+    } //end constructor
+
+    /**Retrieves the sending shard.
+     * @return integer shard number.
+     */
+    public int getFrom(){
+        return from;
+    } //end getFrom
+
+    /**Retrieves the receiving shard.
+     * @return integer shard number.
+     */
+    public int getTo(){
+        return to;
+    } //end getTo
+
+    /**Retrieves the superstep the batch was sent in.
+     * @return integer superstep number.
+     */
+    public int getSuperstep(){
+        return superstep;
+    } //end getSuperstep
+
+    /**Determines the number of vertices in the batch.
+     * @return integer number of entries.
+     */
+    public int size(){
+        return vertices.length;
+    } //end size
+
+    /**Retrieves a vertex of the batch.
+     * @return integer global id of entry i.
+     * @param i integer position in the batch.
+     */
+    public int getVertex(int i){
+        return vertices[i];
+    } //end getVertex
+
+    /**Retrieves the vertex an entry was reached from.
+     * @return integer global id of the parent of entry i.
+     * @param i integer position in the batch.
+     */
+    public int getParent(int i){
+        return parents[i];
+    } //end getParent
+
+    /**Estimates the bytes the batch takes on the wire: two 4-byte ints per
+     * entry plus a 12-byte header for the shards and superstep.
+     * @return long number of bytes.
+     */
+    public long wireSize(){
+        return 12L + 8L * vertices.length;
+    } //end wireSize
+
+} //end FrontierBatch
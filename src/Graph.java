@@ -1,31 +1,110 @@
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Stack;
-
-public class Graph<E>{
-    private boolean[][] edges; //edges[i][j] is true if there is a vertex from i to j
-    private E[] labels; //labels[i] contains the label for vertex i
-    private boolean[] visited;
-    private int[] bfsParent;
-    private int[] dfsParent;
-
-    private List<String> bfsTreeEdges = new ArrayList<>();
-    private List<String> dfsTreeEdges = new ArrayList<>();
-    /**Creates an empty Graph. */
-    @SuppressWarnings("unchecked")
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class Graph<E> implements AutoCloseable{
+    private AdjacencyInterface edges; //storage answering which edges exist
+    private volatile AdjacencyInterface reverseEdges; //in-edges, built on first use and kept up to date by every edit
+    private boolean reverseIsView; //true when reverseEdges is the storage's own live inEdgeView; guarded by this
+    private final PagedLabels<E> labels; //labels.get(i) contains the label for vertex i
+    private Map<E, Integer> labelIndex = new HashMap<>(); //labelIndex.get(labels.get(i)) is i
+    private final BitSet removed = new BitSet(); //ids of removed vertices, free for reuse
+    private final IntStack freeIds = new IntStack(); //the same ids, most recently removed on top
+    private final TraversalContextPool contexts; //visited/parent state, one per running traversal; shared by DynamicGraph snapshots
+    private final boolean snapshot; //true for DynamicGraph versions, whose labels are shared and fixed
+    private volatile long version; //bumped by every change to the edges or labels
+    private volatile TraversalCache queryCache; //null unless enabled
+    private volatile TraversalListener listener; //null unless set; traversals only measure themselves when there is one
+
+    //Latest traversal of each kind, for printing its tree edges; null until one runs
+    private volatile TraversalResult<E> lastBreadthFirst;
+    private volatile TraversalResult<E> lastDepthFirst;
+
+    /**Creates a Graph with no vertices that grows as vertices are added,
+     * backed by paged adjacency rows.
+     */
+    public Graph(){
+        this(new PagedAdjacency(0));
+    } //end Graph constructor
+
+    /**Creates an empty Graph backed by an adjacency matrix. */
     public Graph(int n){
-        edges = new boolean[n][n]; //All values initially false - cast, but warning suppressed
-        labels = (E[]) new Object[n]; //All values initially null
+        this(new MatrixAdjacency(n));
     } //end Graph constructor
 
+    /**Creates a Graph whose edges live in the given storage, such as a CsrAdjacency.
+     * @param edges storage holding the edges, one vertex per index.
+     */
+    @SuppressWarnings("unchecked")
+    public Graph(AdjacencyInterface edges){
+        this.edges = edges;
+        labels = new PagedLabels<>((E[]) new Object[edges.size()]); //All values initially null - cast, but warning suppressed
+        contexts = new TraversalContextPool();
+        snapshot = false;
+    } //end Graph constructor
+
+    /* Creates a Graph over labels that are already indexed, as bulk loaders build them.
+     * The array and map are kept, not copied; labelIndex.get(labels[i]) must be i
+     */
+    Graph(AdjacencyInterface edges, E[] labels, Map<E, Integer> labelIndex) {
+        this(edges, labels, labelIndex, new TraversalContextPool(), false);
+    }
+
+    /* Creates a Graph over indexed labels, traversing with contexts from a given pool */
+    private Graph(AdjacencyInterface edges, E[] labels, Map<E, Integer> labelIndex, TraversalContextPool contexts, boolean snapshot) {
+        this(edges, null, labels, labelIndex, contexts, snapshot);
+    }
+
+    /* Creates a Graph whose in-edges are already known, or null to build them on first use */
+    private Graph(AdjacencyInterface edges, AdjacencyInterface reverseEdges, E[] labels, Map<E, Integer> labelIndex, TraversalContextPool contexts, boolean snapshot) {
+        this.edges = edges;
+        this.reverseEdges = reverseEdges;
+        this.labels = new PagedLabels<>(labels);
+        this.labelIndex = labelIndex;
+        this.contexts = contexts;
+        this.snapshot = snapshot;
+    }
+
+    /* Creates one version of a DynamicGraph. Its labels are shared with every
+     * other version, so setLabel, addVertex and removeVertex are refused, and
+     * its traversals draw on the pool all versions share
+     */
+    static <E> Graph<E> snapshotOf(AdjacencyInterface edges, AdjacencyInterface reverseEdges, E[] labels, Map<E, Integer> labelIndex, TraversalContextPool contexts) {
+        return new Graph<>(edges, reverseEdges, labels, labelIndex, contexts, true);
+    }
+
+    /* Retrieves the in-edges if some query has built them, without building them
+     * @return storage of the in-edges, or null
+     */
+    AdjacencyInterface builtReverseEdges() {
+        return reverseEdges;
+    }
+
+    /* Refuses a change to the labels or vertices of a DynamicGraph snapshot */
+    private void checkNotSnapshot() {
+        if (snapshot) {
+            throw new UnsupportedOperationException("Snapshots are read-only; vertices and labels are fixed by the DynamicGraph");
+        }
+    }
+
     /**Retrieves the label of a vertex of this Graph.
      * @return label of vertex.
      * @param vertex integer correlating to the label.
      */
     public E getLabel(int vertex){
         checkVertexIndex(vertex); //Check if vertex is in bounds
-        return labels[vertex];
+        return labels.get(vertex);
     } //end getLabel
 
     /**Tests whether an edge exists.
@@ -36,14 +115,14 @@ public class Graph<E>{
     public boolean isEdge(int source, int target){
         checkVertexIndex(source); //Check if source is in bounds
         checkVertexIndex(target); //Check if target is in bounds
-        return edges[source][target];
+        return edges.isEdge(source, target);
     } //end isEdge
 
     /* Checks if source/target is in bounds of Graph
      * @param index integer index of the vertex
      */ 
     private void checkVertexIndex(int index) {
-        if (index < 0 || index >= labels.length) {
+        if (index < 0 || index >= labels.size()) {
             throw new IndexOutOfBoundsException("Invalid vertex index: " + index);
         }
     }
@@ -55,34 +134,162 @@ public class Graph<E>{
     public void addEdge(int source, int target){
         checkVertexIndex(source);
         checkVertexIndex(target);
-        edges[source][target] = true;
+        if (!edges.isEdge(source, target)) {
+            edges.addEdge(source, target);
+            updateReverseEdges(reversed -> reversed.addEdge(target, source));
+            edgesChanged(source);
+        }
     } //end addEdge
 
+    /**Adds an edge with a weight, or changes the weight of an existing edge.
+     * Edges added without a weight weigh 1.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge points to.
+     * @param weight double weight of the edge, finite and not negative.
+     * @throws UnsupportedOperationException if the storage does not hold weights;
+     * this Graph is then left unchanged.
+     */
+    public void addEdge(int source, int target, double weight){
+        checkVertexIndex(source);
+        checkVertexIndex(target);
+        if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) { //also rejects NaN
+            throw new IllegalArgumentException("Edge weight must be finite and non-negative: " + weight);
+        }
+        boolean added = !edges.isEdge(source, target);
+        edges.addEdge(source, target);
+        if (edges.weight(source, target) != weight) { //storage without weights still takes weight 1
+            try {
+                edges.setWeight(source, target, weight);
+            } catch (UnsupportedOperationException e) {
+                if (added) {
+                    edges.removeEdge(source, target); //take the edge back out so nothing derived goes stale
+                }
+                throw e;
+            }
+        }
+        else if (!added) {
+            return; //nothing changed
+        }
+        updateReverseEdges(reversed -> {
+            reversed.addEdge(target, source);
+            if (reversed.weight(target, source) != weight) {
+                reversed.setWeight(target, source, weight);
+            }
+        });
+        edgesChanged(source);
+    } //end addEdge
+
+    /**Retrieves the weight of an edge.
+     * @return double weight of the edge, or NaN if there is no such edge.
+     * @param source integer where the edge starts.
+     * @param target integer where the edge points to.
+     */
+    public double getWeight(int source, int target){
+        checkVertexIndex(source);
+        checkVertexIndex(target);
+        return edges.weight(source, target);
+    } //end getWeight
+
     /**Obtains a list of neighbors of a specified vertex of this Graph.
      * @return integer array of all vertices vertex connects to.
      * @param vertex integer index of vertex in this Graph.
      */
     public int[] neighbors(int vertex){
         checkVertexIndex(vertex); //Check if vertex is in bounds
-        int count = 0;
-        int[] answer;
-        
-        for(int i = 0; i < labels.length; i++){
-            if(edges[vertex][i]){
-                count++;
-            } //end if
-        } //end for
-        answer = new int[count];
-        count = 0;
-        for(int i = 0; i < labels.length; i++){
-            if(edges[vertex][i]){
-                answer[count++] = i;
-            } //end if
-        } //end for
-        return answer;
-
+        return edges.neighbors(vertex);
     } //end neighbors
 
+    /**Obtains the vertices with an edge into a specified vertex of this Graph.
+     * @return integer array of all vertices that connect to vertex.
+     * @param vertex integer index of vertex in this Graph.
+     */
+    public int[] inNeighbors(int vertex){
+        checkVertexIndex(vertex); //Check if vertex is in bounds
+        return getReverseEdges().neighbors(vertex);
+    } //end inNeighbors
+
+    /* Retrieves the in-edges: the storage's own view when it keeps them,
+     * otherwise a transpose built on first use and then updated edit by edit
+     * @return storage whose neighbors of v are the vertices with an edge into v
+     */
+    private AdjacencyInterface getReverseEdges() {
+        AdjacencyInterface reversed = reverseEdges;
+        if (reversed == null) {
+            synchronized (this) { //one build only, so no off-heap transpose is lost unclosed
+                reversed = reverseEdges;
+                if (reversed == null) {
+                    reversed = edges.inEdgeView();
+                    reverseIsView = reversed != null;
+                    if (reversed == null) {
+                        reversed = edges.transpose();
+                    }
+                    reverseEdges = reversed;
+                }
+            }
+        }
+        return reversed;
+    }
+
+    /* Applies an edit just made to the edges to the in-edges too, reversed,
+     * so point queries after it need no new O(E) transpose. A live view
+     * follows by itself; in-edges that refuse the edit are dropped instead
+     * @param change the edit, given the in-edges
+     */
+    private synchronized void updateReverseEdges(Consumer<AdjacencyInterface> change) {
+        AdjacencyInterface reversed = reverseEdges;
+        if (reversed == null || reverseIsView) {
+            return;
+        }
+        try {
+            change.accept(reversed);
+        } catch (UnsupportedOperationException e) {
+            dropReverseEdges();
+        }
+    }
+
+    /* Forgets the in-edges, freeing them at once if they live off the heap */
+    private synchronized void dropReverseEdges() {
+        AdjacencyInterface reversed = reverseEdges;
+        reverseEdges = null;
+        if (!reverseIsView) {
+            closeStorage(reversed);
+        }
+        reverseIsView = false;
+    }
+
+    /* Closes storage that holds memory outside the heap; other storage is left alone */
+    private static void closeStorage(AdjacencyInterface storage) {
+        if (storage instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) storage).close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not close graph storage", e);
+            }
+        }
+    }
+
+    /**Releases the storage of this Graph and of its in-edge view when they
+     * live outside the heap, as for GraphFile.load and offHeapCopyOf; for
+     * heap storage it does nothing. Only close once no thread is using the
+     * Graph, which cannot be read afterwards.
+     */
+    @Override
+    public void close(){
+        dropReverseEdges();
+        closeStorage(edges);
+    } //end close
+
+    /**Passes each neighbor of a vertex to an action without building an array.
+     * @param vertex integer index of vertex in this Graph.
+     * @param action called once per neighbor, in ascending order.
+     */
+    public void forEachNeighbor(int vertex, IntConsumer action){
+        checkVertexIndex(vertex); //Check if vertex is in bounds
+        edges.forEachNeighbor(vertex, action);
+    } //end forEachNeighbor
+
     /**Removes an edge.
      * @param source integer where the edge starts.
      * @param target integer where the edge ends.
@@ -90,38 +297,207 @@ public class Graph<E>{
     public void removeEdge(int source, int target){
         checkVertexIndex(source); //Check if source is in bounds
         checkVertexIndex(target); //Check if target is in bounds
-        edges[source][target] = false;
+        if (edges.isEdge(source, target)) {
+            edges.removeEdge(source, target);
+            updateReverseEdges(reversed -> reversed.removeEdge(target, source));
+            edgesChanged(source);
+        }
     } //end removeEdge
 
+    /* Drops the cached walks derived from the edges leaving source after they changed
+     * @param source integer index of the vertex whose out-edges changed
+     */
+    private void edgesChanged(int source) {
+        version++;
+        TraversalCache cache = queryCache;
+        if (cache != null) {
+            cache.invalidate(source, version);
+        }
+    }
+
     /**Changes the label of a vertex of this Graph. 
+    * Labels are unique: a label already naming another vertex is rejected.
     * @param vertex integer index of the vertex.
     * @param newLabel label to assign to the vertex.
     */
     public void setLabel(int vertex, E newLabel){
+        checkNotSnapshot();
         checkVertexIndex(vertex); //Check if vertex is in bounds
         if (newLabel == null) {
             throw new IllegalArgumentException("Label cannot be null.");
         }
         
-        labels[vertex] = newLabel;
+        if (removed.get(vertex)) {
+            throw new IllegalArgumentException("Vertex was removed: " + vertex);
+        }
+
+        Integer owner = labelIndex.get(newLabel);
+        if (owner != null && owner != vertex) {
+            throw new IllegalArgumentException("Duplicate label: " + newLabel + " already names vertex " + owner);
+        }
+
+        if (labels.get(vertex) != null) {
+            labelIndex.remove(labels.get(vertex)); //Old label no longer names this vertex
+        }
+        labels.set(vertex, newLabel);
+        labelIndex.put(newLabel, vertex);
+        version++; //cached walks hold indices and take labels on use, so they stay valid
     } //end setLabel
 
+    /**Finds the vertex with a given label.
+     * @return integer index of the vertex, or -1 if no vertex has the label.
+     * @param label label to look up.
+     */
+    public int indexOf(E label){
+        Integer vertex = labelIndex.get(label);
+        return vertex == null ? -1 : vertex;
+    } //end indexOf
+
+    /* Finds the vertex a traversal starts from
+     * @return integer index of the vertex labeled origin
+     * @throws IllegalArgumentException if no vertex has the label
+     */
+    private int originIndex(E origin) {
+        int originIndex = indexOf(origin);
+        if (originIndex == -1) {
+            throw new IllegalArgumentException("Label not found: " + origin);
+        }
+        return originIndex;
+    }
+
     /**Determines the number of vertices in this Graph.
+     * Removed vertices keep their ids and are counted until reused.
      * @return integer number on vertices in this Graph.
      */
     public int size(){
-        return labels.length;
+        return labels.size();
     } //end size
 
-    /**Resets the visited array
-     * reset visited arrays to false
+    /**Counts the vertices of this Graph that have not been removed.
+     * @return integer number of live vertices.
+     */
+    public int vertexCount(){
+        return labels.size() - freeIds.size();
+    } //end vertexCount
+
+    /**Adds a vertex, reusing the id of a removed vertex when there is one.
+     * Ids of other vertices never change. Storage that cannot grow, such as
+     * the matrix behind Graph(int), only takes new vertices into removed ids.
+     * @return integer index of the new vertex.
+     * @param label label of the new vertex, unique and not null.
+     * @throws UnsupportedOperationException if no id is free and the storage cannot grow.
+     */
+    public int addVertex(E label){
+        checkNotSnapshot();
+        if (label == null) {
+            throw new IllegalArgumentException("Label cannot be null.");
+        }
+        if (labelIndex.containsKey(label)) {
+            throw new IllegalArgumentException("Duplicate label: " + label + " already names vertex " + labelIndex.get(label));
+        }
+        int vertex;
+        if (!freeIds.isEmpty()) {
+            vertex = freeIds.pop();
+            removed.clear(vertex);
+        } else {
+            vertex = edges.addVertex();
+            labels.add();
+            updateReverseEdges(reversed -> reversed.addVertex()); //the transpose is one vertex short otherwise
+        }
+        setLabel(vertex, label);
+        return vertex;
+    } //end addVertex
+
+    /**Removes a vertex: drops every edge into or out of it and its label,
+     * and frees its id for a later addVertex. Ids of other vertices never change.
+     * @param vertex integer index of the vertex.
+     */
+    public void removeVertex(int vertex){
+        checkNotSnapshot();
+        checkVertexIndex(vertex);
+        if (removed.get(vertex)) {
+            throw new IllegalArgumentException("Vertex already removed: " + vertex);
+        }
+        edges.removeVertex(vertex);
+        updateReverseEdges(reversed -> reversed.removeVertex(vertex));
+        //Only walks that reached vertex could have used an edge into or out of it
+        edgesChanged(vertex);
+        if (labels.get(vertex) != null) {
+            labelIndex.remove(labels.get(vertex));
+            labels.set(vertex, null);
+        }
+        removed.set(vertex);
+        freeIds.push(vertex);
+    } //end removeVertex
+
+    /**Tests whether a vertex id has been removed and not reused.
+     * @return True if the id is free, false otherwise.
+     * @param vertex integer index of the vertex.
+     */
+    public boolean isRemoved(int vertex){
+        checkVertexIndex(vertex);
+        return removed.get(vertex);
+    } //end isRemoved
+
+    /**Retrieves the version counter, which changes whenever an edge, an edge
+     * weight or a label changes.
+     * @return long version of this Graph.
+     */
+    public long getVersion(){
+        return version;
+    } //end getVersion
+
+    /**Starts caching the results of getBreadthFirstTraversal and
+     * getDepthFirstTraversal, so repeated queries from the same origin cost
+     * time in the size of the result instead of a new search.
+     * Replaces any cache already in use.
+     * @return the new TraversalCache, for its hit and miss metrics.
+     * @param capacity most vertices to hold across all cached results.
+     */
+    public TraversalCache enableQueryCache(long capacity){
+        TraversalCache cache = new TraversalCache(capacity);
+        queryCache = cache;
+        return cache;
+    } //end enableQueryCache
+
+    /**Sets the observer told about every breadth-first and depth-first
+     * traversal this Graph runs; traversals answered from the query cache
+     * are not reported.
+     * @param listener TraversalListener to notify, or null to stop measuring.
+     */
+    public void setTraversalListener(TraversalListener listener){
+        this.listener = listener;
+    } //end setTraversalListener
+
+    /**Stops caching traversal results and drops the cache. */
+    public void disableQueryCache(){
+        queryCache = null;
+    } //end disableQueryCache
+
+    /**Retrieves the traversal result cache.
+     * @return TraversalCache in use, or null if caching is off.
+     */
+    public TraversalCache getQueryCache(){
+        return queryCache;
+    } //end getQueryCache
+
+    /* Retrieves the edge storage, for traversal engines working beside this Graph */
+    AdjacencyInterface adjacency() {
+        return edges;
+    }
+
+    /* Retrieves the pool of traversal state, for traversal engines working beside this Graph */
+    TraversalContextPool traversalContexts() {
+        return contexts;
+    }
+
+    /**Resets traversal state.
+     * Traversals keep their visited and parent arrays in pooled contexts
+     * rather than in this Graph; this drops the idle ones to free memory.
     */
     public void resetVertices(){
-       if (visited == null) {
-        visited = new boolean[labels.length];
-       }
-       Arrays.fill(visited, false);
-   } //end resetVertices
+        contexts.clear();
+    } //end resetVertices
     
 
     /**Performs a breadth-first search traversal on this Graph.
@@ -129,116 +505,597 @@ public class Graph<E>{
      * @param origin vertex search will begin at.
      */
     public QueueInterface<E> getBreadthFirstTraversal(E origin){
-        visited = new boolean[labels.length];
-        bfsParent = new int[labels.length];
-        Arrays.fill(bfsParent, -1);
-        bfsTreeEdges.clear();
+        return getBreadthFirstTraversal(origin, Integer.MAX_VALUE);
+    } //end getBreadthFirstTraversal
+
+    /**Performs a breadth-first search traversal on this Graph, visiting no
+     * vertex more than maxDepth edges from the origin.
+     * @return Queue of labels in the order they were visited.
+     * @param origin vertex search will begin at.
+     * @param maxDepth deepest level to visit; Integer.MAX_VALUE for no bound.
+     */
+    public QueueInterface<E> getBreadthFirstTraversal(E origin, int maxDepth){
+        return breadthFirst(origin, maxDepth).getLabelOrder();
+    } //end getBreadthFirstTraversal
 
-        resetVertices();
+    /**Performs a breadth-first search traversal on this Graph.
+     * @return TraversalResult with the order, tree, depths and times of the search.
+     * @param origin vertex search will begin at.
+     */
+    public TraversalResult<E> breadthFirst(E origin){
+        return breadthFirst(origin, Integer.MAX_VALUE);
+    } //end breadthFirst
 
-        QueueInterface<E> traversalOrder = new LinkedQueue<>();
-        QueueInterface<Integer> vertexQueue = new LinkedQueue<>();
-
-        int originIndex = -1;
-        for(int i = 0; i < labels.length; i++){
-            if(labels[i].equals(origin)){
-                originIndex = i;
-                break;
-            } //end if
-        } //end for
+    /**Performs a breadth-first search traversal on this Graph, visiting no
+     * vertex more than maxDepth edges from the origin.
+     * @return TraversalResult with the order, tree, depths and times of the search.
+     * @param origin vertex search will begin at.
+     * @param maxDepth deepest level to visit; Integer.MAX_VALUE for no bound.
+     */
+    public TraversalResult<E> breadthFirst(E origin, int maxDepth){
+        TraversalResult<E> result = walk(originIndex(origin), TraversalCache.Kind.BREADTH_FIRST, maxDepth, null);
+        lastBreadthFirst = result;
+        return result;
+    } //end breadthFirst
 
-        if (originIndex == -1) {
-            throw new IllegalArgumentException("Label not found: " + origin);
-        }        
-
-        visited[originIndex] = true;
-        traversalOrder.enqueue(origin);
-        vertexQueue.enqueue(originIndex);
-
-        while(!vertexQueue.isEmpty()){
-            int frontIndex = vertexQueue.dequeue();
-            for(int neighbor : neighbors(frontIndex)){
-                if(!visited[neighbor]){
-                    visited[neighbor] = true;
-                    bfsParent[neighbor] = frontIndex;
-                    traversalOrder.enqueue(labels[neighbor]);
-                    vertexQueue.enqueue(neighbor);
-                    bfsTreeEdges.add("(" + labels[frontIndex] + "," + labels[neighbor] + ")");
+    /* Runs a walk, or takes it from the query cache when one is enabled
+     * @param deadline checked while walking, or null to walk to the end
+     * @throws CancellationException if the deadline passes or is cancelled first
+     */
+    TraversalResult<E> walk(int originIndex, TraversalCache.Kind kind, int maxDepth, QueryDeadline deadline) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth cannot be negative: " + maxDepth);
+        }
+        TraversalCache cache = queryCache;
+        if (cache != null) {
+            @SuppressWarnings("unchecked") //this Graph's cache only holds this Graph's results
+            TraversalResult<E> cached = (TraversalResult<E>) cache.get(originIndex, kind, maxDepth);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        if (deadline != null) {
+            deadline.check(); //it may have passed while the query waited for a thread
+        }
+        long startVersion = version; //read before walking, so a change during the walk keeps it out of the cache
+        TraversalListener observer = listener;
+        TraversalStats stats = null;
+        long startNanos = 0;
+        if (observer != null) {
+            stats = new TraversalStats(kind, originIndex);
+            observer.traversalStarted(stats);
+            stats.allocatedBytes = TraversalStats.threadAllocatedBytes();
+            startNanos = System.nanoTime();
+        }
+        TraversalResult<E> result = kind == TraversalCache.Kind.BREADTH_FIRST
+            ? breadthFirstWalk(originIndex, maxDepth, stats, deadline)
+            : depthFirstWalk(originIndex, maxDepth, stats, deadline);
+        if (observer != null) {
+            stats.wallNanos = System.nanoTime() - startNanos;
+            long allocatedAfter = TraversalStats.threadAllocatedBytes();
+            stats.allocatedBytes = stats.allocatedBytes < 0 ? -1 : allocatedAfter - stats.allocatedBytes;
+            observer.traversalFinished(stats);
+        }
+        if (cache != null) {
+            cache.put(originIndex, kind, maxDepth, result, startVersion);
+        }
+        return result;
+    }
+
+    /* Visits vertices breadth-first; the order array doubles as the queue.
+     * A vertex is discovered when queued and finished once its row is scanned
+     * @param stats where to record counts, or null to skip measuring
+     * @param deadline checked every QueryDeadline.CHECK_INTERVAL edges, or null
+     */
+    private TraversalResult<E> breadthFirstWalk(int originIndex, int maxDepth, TraversalStats stats, QueryDeadline deadline) {
+        TraversalContext context = contexts.acquire(labels.size());
+        try {
+            int[] order = new int[16];
+            int[] discovery = new int[16];
+            int[] finish = new int[16];
+            int count = 0;
+            int clock = 0;
+            long scanned = 0;
+            int maxQueued = 1;
+            context.visit(originIndex, -1, 0);
+            discovery[count] = clock++;
+            order[count++] = originIndex;
+
+            int head = 0;
+            while(head < count){
+                int frontIndex = order[head];
+                int level = context.getDepth(frontIndex) + 1;
+                if(level > maxDepth){
+                    break; //levels only grow from here
                 } //end if
-            } //end for each
-        } //end while
+                maxQueued = Math.max(maxQueued, count - head);
+                for(int c = edges.nextNeighbor(frontIndex, 0); c >= 0; c = edges.nextNeighbor(frontIndex, c + 1)){
+                    if((++scanned & (QueryDeadline.CHECK_INTERVAL - 1)) == 0 && deadline != null){
+                        deadline.check();
+                    } //end if
+                    int neighbor = edges.neighborAt(frontIndex, c);
+                    if(!context.isVisited(neighbor)){
+                        context.visit(neighbor, frontIndex, level);
+                        if(count == order.length){
+                            order = Arrays.copyOf(order, count * 2);
+                            discovery = Arrays.copyOf(discovery, count * 2);
+                            finish = Arrays.copyOf(finish, count * 2);
+                        } //end if
+                        discovery[count] = clock++;
+                        order[count++] = neighbor;
+                    } //end if
+                } //end for
+                finish[head++] = clock++;
+            } //end while
+            while(head < count){
+                finish[head++] = clock++; //at the depth bound: nothing more to scan
+            } //end while
+            if (stats != null) {
+                stats.edgesScanned = scanned;
+                stats.maxStackDepth = maxQueued;
+            }
+            return finishWalk(context, order, discovery, finish, count, stats);
+        } finally {
+            contexts.release(context);
+        }
+    }
+
+    /* Trims a walk's arrays and reads each vertex's tree parent and depth
+     * out of the context, counting vertices per depth into stats when measuring
+     */
+    private TraversalResult<E> finishWalk(TraversalContext context, int[] order, int[] discovery, int[] finish, int count, TraversalStats stats) {
+        int[] trimmed = Arrays.copyOf(order, count);
+        int[] treeParents = new int[count];
+        int[] levels = new int[count];
+        for (int k = 0; k < count; k++) {
+            treeParents[k] = context.getParent(trimmed[k]);
+            levels[k] = context.getDepth(trimmed[k]);
+        }
+        if (stats != null) {
+            int[] levelSizes = new int[4];
+            int levelCount = 0;
+            for (int depth : levels) {
+                if (depth >= levelSizes.length) {
+                    levelSizes = Arrays.copyOf(levelSizes, Math.max(depth + 1, levelSizes.length * 2));
+                }
+                levelSizes[depth]++;
+                levelCount = Math.max(levelCount, depth + 1);
+            }
+            stats.levelSizes = Arrays.copyOf(levelSizes, levelCount);
+            stats.verticesVisited = count;
+        }
+        return new TraversalResult<>(this, trimmed, treeParents, levels,
+            Arrays.copyOf(discovery, count), Arrays.copyOf(finish, count));
+    }
 
+    /* Builds the label queue traversals return */
+    private QueueInterface<E> labelQueue(int[] order) {
+        QueueInterface<E> traversalOrder = new LinkedQueue<>();
+        for (int vertex : order) {
+            traversalOrder.enqueue(labels.get(vertex));
+        }
         return traversalOrder;
-    } //end getBreadthFirstTraversal
+    }
 
-    //Performs depth-first search traversal on this Graph.
-    public QueueInterface<E> getDepthFirstTraversal(E origin){
-        visited = new boolean[labels.length];
-        dfsParent = new int[labels.length];
-        Arrays.fill(dfsParent, -1);
-        dfsTreeEdges.clear();
+    /**Walks this Graph breadth-first one vertex per call to next.
+     * @return Iterator of labels in breadth-first order.
+     * @param origin vertex the walk will begin at.
+     */
+    public TraversalIterator<E> breadthFirstIterator(E origin){
+        return breadthFirstIterator(origin, Integer.MAX_VALUE, label -> true);
+    } //end breadthFirstIterator
 
+    /**Walks this Graph breadth-first one vertex per call to next, pruning as it goes.
+     * @return Iterator of labels in breadth-first order.
+     * @param origin vertex the walk will begin at.
+     * @param maxDepth deepest level to visit, 0 for the origin alone.
+     * @param filter test a label must pass for its vertex to be visited and expanded.
+     */
+    public TraversalIterator<E> breadthFirstIterator(E origin, int maxDepth, Predicate<? super E> filter){
+        return new TraversalIterator<>(this, originIndex(origin), false, maxDepth, filter);
+    } //end breadthFirstIterator
 
-        resetVertices();
+    /**Walks this Graph depth-first one vertex per call to next.
+     * @return Iterator of labels in depth-first order.
+     * @param origin vertex the walk will begin at.
+     */
+    public TraversalIterator<E> depthFirstIterator(E origin){
+        return depthFirstIterator(origin, Integer.MAX_VALUE, label -> true);
+    } //end depthFirstIterator
 
-        QueueInterface<E> traversalOrder = new LinkedQueue<>();
-        Stack<Integer> vertexStack = new Stack<>();
+    /**Walks this Graph depth-first one vertex per call to next, pruning as it goes.
+     * @return Iterator of labels in depth-first order.
+     * @param origin vertex the walk will begin at.
+     * @param maxDepth deepest level to visit, 0 for the origin alone.
+     * @param filter test a label must pass for its vertex to be visited and expanded.
+     */
+    public TraversalIterator<E> depthFirstIterator(E origin, int maxDepth, Predicate<? super E> filter){
+        return new TraversalIterator<>(this, originIndex(origin), true, maxDepth, filter);
+    } //end depthFirstIterator
 
-        int originIndex = -1;
-        for (int i = 0; i < labels.length; i++) {
-        if (labels[i].equals(origin)) {
-            originIndex = i;
-            break;
-            }
-        }
+    /**Streams the labels of a lazy breadth-first walk; operations such as
+     * limit or findFirst stop the walk early. Closing the stream, as
+     * try-with-resources does, hands the walk's context back to the pool.
+     * @return sequential Stream of labels in breadth-first order.
+     * @param origin vertex the walk will begin at.
+     * @param maxDepth deepest level to visit, 0 for the origin alone.
+     * @param filter test a label must pass for its vertex to be visited and expanded.
+     */
+    public Stream<E> breadthFirstStream(E origin, int maxDepth, Predicate<? super E> filter){
+        return toStream(breadthFirstIterator(origin, maxDepth, filter));
+    } //end breadthFirstStream
 
-        if (originIndex == -1) {
-            throw new IllegalArgumentException("Label not found: " + origin);
+    /**Streams the labels of a lazy depth-first walk; operations such as
+     * limit or findFirst stop the walk early. Closing the stream, as
+     * try-with-resources does, hands the walk's context back to the pool.
+     * @return sequential Stream of labels in depth-first order.
+     * @param origin vertex the walk will begin at.
+     * @param maxDepth deepest level to visit, 0 for the origin alone.
+     * @param filter test a label must pass for its vertex to be visited and expanded.
+     */
+    public Stream<E> depthFirstStream(E origin, int maxDepth, Predicate<? super E> filter){
+        return toStream(depthFirstIterator(origin, maxDepth, filter));
+    } //end depthFirstStream
+
+    /* Wraps a traversal in a sequential Stream; each label appears once and
+     * closing the stream closes the iterator
+     */
+    private static <T> Stream<T> toStream(TraversalIterator<T> iterator) {
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+            .onClose(iterator::close);
+    }
+
+    /**Performs a breadth-first search keeping all of its per-vertex state in
+     * direct memory instead of on the heap; pair it with an ExternalCsrAdjacency
+     * to keep huge graphs out of the garbage collector's way entirely.
+     * @return OffHeapTraversalResult holding parents and depths; close it when done.
+     * @param origin vertex search will begin at.
+     */
+    public OffHeapTraversalResult breadthFirstOffHeap(E origin){
+        return new OffHeapTraversalResult(edges, originIndex(origin));
+    } //end breadthFirstOffHeap
+
+    /**Performs a direction-optimizing breadth-first search on this Graph,
+     * switching between top-down and bottom-up steps by frontier size.
+     * Depths match getBreadthFirstTraversal; parents may differ where a
+     * vertex has several parents one level up.
+     * @return TraversalResult with the parent and depth of every vertex.
+     * @param origin vertex search will begin at.
+     */
+    public TraversalResult<E> directionOptimizingBreadthFirst(E origin){
+        int originIndex = originIndex(origin);
+        DirectionOptimizingBfs search = new DirectionOptimizingBfs(edges, getReverseEdges());
+        search.search(originIndex);
+        return new TraversalResult<>(this, originIndex, search.getOrder(), search.getParents(), search.getDepths());
+    } //end directionOptimizingBreadthFirst
+
+    /**Performs a breadth-first search that expands each level in parallel.
+     * Each vertex gets whichever parent claims it first.
+     * @return TraversalResult with the parent and depth of every vertex.
+     * @param origin vertex search will begin at.
+     * @param pool workers to run the search on.
+     */
+    public TraversalResult<E> parallelBreadthFirst(E origin, ForkJoinPool pool){
+        return parallelBreadthFirst(origin, pool, false);
+    } //end parallelBreadthFirst
+
+    /**Performs a breadth-first search that expands each level in parallel.
+     * @return TraversalResult with the parent and depth of every vertex.
+     * @param origin vertex search will begin at.
+     * @param pool workers to run the search on.
+     * @param deterministic True to get exactly the order and parents of
+     *        getBreadthFirstTraversal, at the cost of sorting each level.
+     */
+    public TraversalResult<E> parallelBreadthFirst(E origin, ForkJoinPool pool, boolean deterministic){
+        int originIndex = originIndex(origin);
+        ParallelBfs search = new ParallelBfs(edges, pool, deterministic);
+        search.search(originIndex);
+        return new TraversalResult<>(this, originIndex, search.getOrder(), search.getParents(), search.getDepths());
+    } //end parallelBreadthFirst
+
+    /**Finds a path with the fewest edges between two vertices, ignoring
+     * weights. The breadth-first search stops once the target is reached.
+     * @return ShortestPath whose distance is the number of edges.
+     * @param source vertex the path starts at.
+     * @param target vertex the path ends at.
+     */
+    public ShortestPath<E> unweightedShortestPath(E source, E target){
+        return unweightedShortestPath(originIndex(source), originIndex(target), null);
+    } //end unweightedShortestPath
+
+    /* Searches breadth-first from source until target is discovered, leaving
+     * the rest of the graph unvisited, as point queries want
+     * @param deadline checked every QueryDeadline.CHECK_INTERVAL edges, or null
+     * @throws CancellationException if the deadline passes or is cancelled first
+     */
+    ShortestPath<E> unweightedShortestPath(int sourceIndex, int targetIndex, QueryDeadline deadline) {
+        if (deadline != null) {
+            deadline.check(); //it may have passed while the query waited for a thread
         }
+        TraversalContext context = contexts.acquire(labels.size());
+        try {
+            IntQueueInterface vertexQueue = context.getQueue();
+            context.visit(sourceIndex, -1, 0);
+            vertexQueue.enqueue(sourceIndex);
+            long scanned = 0;
 
-        visited[originIndex] = true;
-        traversalOrder.enqueue(origin);
-        vertexStack.push(originIndex);
+            while(!vertexQueue.isEmpty() && !context.isVisited(targetIndex)){
+                int frontIndex = vertexQueue.dequeue();
+                for(int c = edges.nextNeighbor(frontIndex, 0); c >= 0; c = edges.nextNeighbor(frontIndex, c + 1)){
+                    if((++scanned & (QueryDeadline.CHECK_INTERVAL - 1)) == 0 && deadline != null){
+                        deadline.check();
+                    } //end if
+                    int neighbor = edges.neighborAt(frontIndex, c);
+                    if(!context.isVisited(neighbor)){
+                        context.visit(neighbor, frontIndex, context.getDepth(frontIndex) + 1);
+                        if(neighbor == targetIndex){
+                            break; //its depth is final, the rest of the row is not needed
+                        } //end if
+                        vertexQueue.enqueue(neighbor);
+                    } //end if
+                } //end for
+            } //end while
+            return ShortestPath.fromParents(this, context, sourceIndex, targetIndex, context.getDepth(targetIndex));
+        } finally {
+            contexts.release(context);
+        }
+    }
 
-        while (!vertexStack.isEmpty()) {
-            int topIndex = vertexStack.peek(); // Peek without removing
-            boolean foundUnvisited = false;
+    /**Finds a path of least total weight between two vertices with
+     * Dijkstra's algorithm, stopping once the target's distance is final.
+     * @return ShortestPath whose distance is the sum of edge weights.
+     * @param source vertex the path starts at.
+     * @param target vertex the path ends at.
+     */
+    public ShortestPath<E> shortestPath(E source, E target){
+        int sourceIndex = originIndex(source);
+        int targetIndex = originIndex(target);
+        TraversalContext context = contexts.acquire(labels.size());
+        try {
+            new Dijkstra(edges).search(context, sourceIndex, targetIndex);
+            return ShortestPath.fromParents(this, context, sourceIndex, targetIndex, context.getDistance(targetIndex));
+        } finally {
+            contexts.release(context);
+        }
+    } //end shortestPath
 
-            for (int neighbor : neighbors(topIndex)) {
-                if (!visited[neighbor]) {
-                    visited[neighbor] = true;
-                    dfsParent[neighbor] = topIndex;
-                    traversalOrder.enqueue(labels[neighbor]);
-                    vertexStack.push(neighbor);
-                    foundUnvisited = true;
-                    dfsTreeEdges.add("(" + labels[topIndex] + "," + labels[neighbor] + ")");
-                    break; // Important: go deeper
-                }
+    /**Computes the least total weight from one vertex to every other.
+     * @return distances[v] is the weight of the shortest path to vertex v, infinity if unreachable.
+     * @param origin vertex the paths start at.
+     */
+    public double[] shortestDistances(E origin){
+        int originIndex = originIndex(origin);
+        TraversalContext context = contexts.acquire(labels.size());
+        try {
+            new Dijkstra(edges).search(context, originIndex, -1);
+            double[] distances = new double[labels.size()];
+            for (int v = 0; v < distances.length; v++) {
+                distances[v] = context.getDistance(v);
             }
+            return distances;
+        } finally {
+            contexts.release(context);
+        }
+    } //end shortestDistances
+
+    /**Computes the number of edges on a shortest path between two vertices,
+     * searching forward from one and backward from the other until they meet.
+     * @return integer hop distance, or -1 if to cannot be reached from from.
+     * @param from vertex the path starts at.
+     * @param to vertex the path ends at.
+     */
+    public int hopDistance(E from, E to){
+        int fromIndex = originIndex(from);
+        int toIndex = originIndex(to);
+        TraversalContext forward = contexts.acquire(labels.size());
+        TraversalContext backward = contexts.acquire(labels.size());
+        try {
+            return new BidirectionalBfs(edges, getReverseEdges()).search(forward, backward, fromIndex, toIndex);
+        } finally {
+            contexts.release(forward);
+            contexts.release(backward);
+        }
+    } //end hopDistance
 
-            if (!foundUnvisited) {
-                vertexStack.pop(); // Backtrack
+    /**Tests whether there is a path between two vertices.
+     * @return True if to can be reached from from, false otherwise.
+     * @param from vertex the path starts at.
+     * @param to vertex the path ends at.
+     */
+    public boolean isReachable(E from, E to){
+        TraversalCache cache = queryCache;
+        if (cache != null) {
+            Boolean known = cache.reaches(originIndex(from), originIndex(to));
+            if (known != null) {
+                return known;
             }
         }
+        return hopDistance(from, to) >= 0;
+    } //end isReachable
 
-        return traversalOrder;
+    /**Splits this Graph into strongly connected components.
+     * @return StronglyConnectedComponents numbered in topological order.
+     */
+    public StronglyConnectedComponents<E> stronglyConnectedComponents(){
+        return new StronglyConnectedComponents<>(this);
+    } //end stronglyConnectedComponents
+
+    /**Computes a renumbering of the vertices of this Graph that keeps
+     * vertices used together at nearby ids; its getGraph is the renumbered copy.
+     * @return VertexOrdering mapping ids between this Graph and the copy.
+     * @param strategy how to choose the new order.
+     */
+    public VertexOrdering<E> reorder(VertexOrdering.Strategy strategy){
+        return new VertexOrdering<>(this, strategy);
+    } //end reorder
+
+    /**Splits this Graph into shards that each own some vertices and their
+     * out-edges, for a DistributedBfs over them.
+     * @return PartitionedGraph holding copies of the edges.
+     * @param shards integer number of shards, at least 1.
+     * @param partitioning how to assign vertices to shards.
+     */
+    public PartitionedGraph<E> partition(int shards, PartitionedGraph.Partitioning partitioning){
+        return new PartitionedGraph<>(this, shards, partitioning);
+    } //end partition
+
+    /**Orders the vertices of this Graph so every edge points forward.
+     * @return Queue of labels in topological order.
+     * @throws IllegalStateException if this Graph has a cycle.
+     */
+    public QueueInterface<E> getTopologicalOrder(){
+        return labelQueue(stronglyConnectedComponents().getTopologicalOrder());
+    } //end getTopologicalOrder
+
+    /**Computes hop distances from many origins at once, sharing each scan
+     * of the edges between up to 64 searches.
+     * @return distances[i][v] is the hops from origins.get(i) to vertex v, or -1 if unreachable.
+     * @param origins labels of the vertices the searches begin at.
+     */
+    public int[][] multiSourceDistances(List<E> origins){
+        return new MultiSourceBfs(edges).distances(originIndices(origins));
+    } //end multiSourceDistances
+
+    /**Counts how many of the origins reach each vertex, sharing each scan
+     * of the edges between up to 64 searches.
+     * @return counts[v] is the number of origins with a path to vertex v.
+     * @param origins labels of the vertices the searches begin at.
+     */
+    public int[] multiSourceReachCounts(List<E> origins){
+        return new MultiSourceBfs(edges).reachCounts(originIndices(origins));
+    } //end multiSourceReachCounts
+
+    /* Looks up the vertex of every origin label
+     * @throws IllegalArgumentException if a label is not found
+     */
+    private int[] originIndices(List<E> origins) {
+        int[] indices = new int[origins.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = originIndex(origins.get(i));
+        }
+        return indices;
+    }
+
+    //Performs depth-first search traversal on this Graph.
+    public QueueInterface<E> getDepthFirstTraversal(E origin){
+        return getDepthFirstTraversal(origin, Integer.MAX_VALUE);
     }//end getDepthFirstTraversal
 
-    public void printBFSTreeEdgesInOrder() {
-        System.out.print("BFS Tree edges: { ");
-        for (int i = 0; i < bfsTreeEdges.size(); i++) {
-            if (i > 0)
-                System.out.print(", ");
-            System.out.print(bfsTreeEdges.get(i));
+    /**Performs a depth-first search traversal on this Graph, going no
+     * deeper than maxDepth tree edges below the origin.
+     * @return Queue of labels in the order they were visited.
+     * @param origin vertex search will begin at.
+     * @param maxDepth deepest level to visit; Integer.MAX_VALUE for no bound.
+     */
+    public QueueInterface<E> getDepthFirstTraversal(E origin, int maxDepth){
+        return depthFirst(origin, maxDepth).getLabelOrder();
+    }//end getDepthFirstTraversal
+
+    /**Performs a depth-first search traversal on this Graph.
+     * @return TraversalResult with the order, tree, depths and times of the search.
+     * @param origin vertex search will begin at.
+     */
+    public TraversalResult<E> depthFirst(E origin){
+        return depthFirst(origin, Integer.MAX_VALUE);
+    } //end depthFirst
+
+    /**Performs a depth-first search traversal on this Graph, going no
+     * deeper than maxDepth tree edges below the origin.
+     * @return TraversalResult with the order, tree, depths and times of the search.
+     * @param origin vertex search will begin at.
+     * @param maxDepth deepest level to visit; Integer.MAX_VALUE for no bound.
+     */
+    public TraversalResult<E> depthFirst(E origin, int maxDepth){
+        TraversalResult<E> result = walk(originIndex(origin), TraversalCache.Kind.DEPTH_FIRST, maxDepth, null);
+        lastDepthFirst = result;
+        return result;
+    } //end depthFirst
+
+    /* Visits vertices depth-first. The stack holds positions in the order
+     * array, so a vertex's finish time goes in place when it is popped
+     * @param stats where to record counts, or null to skip measuring
+     * @param deadline checked every QueryDeadline.CHECK_INTERVAL edges, or null
+     */
+    private TraversalResult<E> depthFirstWalk(int originIndex, int maxDepth, TraversalStats stats, QueryDeadline deadline) {
+        TraversalContext context = contexts.acquire(labels.size());
+        try {
+            int[] order = new int[16];
+            int[] discovery = new int[16];
+            int[] finish = new int[16];
+            int count = 0;
+            int clock = 0;
+            long scanned = 0;
+            int maxStacked = 1;
+            IntStack positionStack = context.getStack();
+            context.visit(originIndex, -1, 0);
+            discovery[count] = clock++;
+            order[count] = originIndex;
+            positionStack.push(count++);
+
+            while (!positionStack.isEmpty()) {
+                int topIndex = order[positionStack.peek()]; // Peek without removing
+                boolean foundUnvisited = false;
+
+                // Resume where the last visit to topIndex stopped instead of rescanning its row
+                int start = positionStack.size() > maxDepth ? -1 : edges.nextNeighbor(topIndex, context.getCursor(topIndex));
+                for (int c = start; c >= 0; c = edges.nextNeighbor(topIndex, c + 1)) {
+                    if ((++scanned & (QueryDeadline.CHECK_INTERVAL - 1)) == 0 && deadline != null) {
+                        deadline.check();
+                    }
+                    int neighbor = edges.neighborAt(topIndex, c);
+                    if (!context.isVisited(neighbor)) {
+                        context.visit(neighbor, topIndex, positionStack.size());
+                        if (count == order.length) {
+                            order = Arrays.copyOf(order, count * 2);
+                            discovery = Arrays.copyOf(discovery, count * 2);
+                            finish = Arrays.copyOf(finish, count * 2);
+                        }
+                        discovery[count] = clock++;
+                        order[count] = neighbor;
+                        positionStack.push(count++);
+                        maxStacked = Math.max(maxStacked, positionStack.size());
+                        context.setCursor(topIndex, c + 1);
+                        foundUnvisited = true;
+                        break; // Important: go deeper
+                    }
+                }
+
+                if (!foundUnvisited) {
+                    finish[positionStack.pop()] = clock++; // Backtrack
+                }
+            }
+            if (stats != null) {
+                stats.edgesScanned = scanned;
+                stats.maxStackDepth = maxStacked;
+            }
+            return finishWalk(context, order, discovery, finish, count, stats);
+        } finally {
+            contexts.release(context);
         }
-        System.out.println(" }");
     }
-    
+
+    /**Prints the tree edges of the latest breadth-first traversal, rendering
+     * the labels only now.
+     */
+    public void printBFSTreeEdgesInOrder() {
+        printTreeEdges("BFS", lastBreadthFirst);
+    }
+
+    /**Prints the tree edges of the latest depth-first traversal, rendering
+     * the labels only now.
+     */
     public void printDFSTreeEdgesInOrder() {
-        System.out.print("DFS Tree edges: { ");
-        for (int i = 0; i < dfsTreeEdges.size(); i++) {
+        printTreeEdges("DFS", lastDepthFirst);
+    }
+
+    /* Prints the tree edges of a traversal, or an empty set before any has run */
+    private static void printTreeEdges(String kind, TraversalResult<?> result) {
+        List<String> treeEdges = result == null ? Collections.emptyList() : result.getTreeEdges();
+        System.out.print(kind + " Tree edges: { ");
+        for (int i = 0; i < treeEdges.size(); i++) {
             if (i > 0) System.out.print(", ");
-            System.out.print(dfsTreeEdges.get(i));
+            System.out.print(treeEdges.get(i));
         }
         System.out.println(" }");
     }
@@ -0,0 +1,254 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * Reads and writes the binary graph file format. All numbers are little-endian.
+ * <pre>
+ * header, 32 bytes: magic "GRTV", version, vertex count n, edge count m (ints),
+ *                   label table position, label table size in bytes (longs)
+ * offsets:          n + 1 ints, CSR row starts
+ * targets:          m ints, each row sorted
+ * label table:      per vertex, a byte length (-1 for no label) then UTF-8 bytes
+ * </pre>
+ * Loading maps the offsets and targets with FileChannel.map rather than
+ * reading them, so the Graph is usable as soon as the labels are decoded.
+ * The format holds no weights, so only unweighted graphs can be written.
+ * Loading checks every offset and target once, in time linear in the file.
+ */
+public class GraphFile{
+    /**First four bytes of every graph file, "GRTV". */
+    public static final int MAGIC = 0x56545247;
+    /**Format version this class reads and writes. */
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private GraphFile(){
+    } //end constructor
+
+    /**Writes a Graph to a file, replacing the file if it exists.
+     * @param graph Graph to write, of any storage kind.
+     * @param path file to write.
+     * @throws IOException if writing fails.
+     * @throws IllegalArgumentException if an edge has a weight other than 1,
+     *         which the format cannot hold; the file is then left untouched.
+     */
+    public static void write(Graph<String> graph, Path path) throws IOException{
+        AdjacencyInterface edges = graph.adjacency();
+        int n = edges.size();
+        for(int v = 0; v < n; v++){
+            for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                if (edges.weightAt(v, c) != 1.0) {
+                    throw new IllegalArgumentException("Graph files hold no weights, but edge (" + v + ", "
+                        + edges.neighborAt(v, c) + ") has weight " + edges.weightAt(v, c));
+                }
+            } //end for
+        } //end for
+        long labelsPosition = HEADER_BYTES + 4L * (n + 1) + 4L * edges.edgeCount();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_BYTES);
+
+            //Offsets, then targets, both straight from the storage cursors
+            int offset = 0;
+            putInt(channel, buffer, 0);
+            for(int v = 0; v < n; v++){
+                offset += edges.degree(v);
+                putInt(channel, buffer, offset);
+            } //end for
+            for(int v = 0; v < n; v++){
+                for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                    putInt(channel, buffer, edges.neighborAt(v, c));
+                } //end for
+            } //end for
+
+            //Label table
+            for(int v = 0; v < n; v++){
+                String label = graph.getLabel(v);
+                if(label == null){
+                    putInt(channel, buffer, -1);
+                    continue;
+                } //end if
+                byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+                putInt(channel, buffer, bytes.length);
+                for(int written = 0; written < bytes.length; ){
+                    if(!buffer.hasRemaining()){
+                        flush(channel, buffer);
+                    } //end if
+                    int count = Math.min(buffer.remaining(), bytes.length - written);
+                    buffer.put(bytes, written, count);
+                    written += count;
+                } //end for
+            } //end for
+            flush(channel, buffer);
+            long labelsEnd = channel.position();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(edges.edgeCount())
+                  .putLong(labelsPosition).putLong(labelsEnd - labelsPosition).flip();
+            channel.position(0);
+            while(header.hasRemaining()){
+                channel.write(header);
+            } //end while
+        }
+    } //end write
+
+    /**Opens a graph file, mapping its edges into memory.
+     * The returned Graph is read-only: adding or removing edges throws
+     * UnsupportedOperationException, while labels may still be changed.
+     * Close it when done, which frees the in-edge view inNeighbors builds
+     * in direct memory.
+     * @return Graph backed by an ExternalCsrAdjacency over the mapped file.
+     * @param path file to open.
+     * @throws IOException if the file cannot be read or is not a graph file.
+     */
+    public static Graph<String> load(Path path) throws IOException{
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported graph file version " + version + ": " + path);
+            }
+            int n = header.getInt();
+            int m = header.getInt();
+            long labelsPosition = header.getLong();
+            long labelsBytes = header.getLong();
+            //The sections must lie end to end, so a corrupt count cannot send a read astray
+            if (n < 0 || m < 0 || labelsPosition != HEADER_BYTES + 4L * (n + 1) + 4L * m
+                    || labelsBytes < 4L * n || labelsBytes > channel.size() - labelsPosition) {
+                throw new IOException("Corrupt graph file header (n = " + n + ", m = " + m + "): " + path);
+            }
+
+            MappedInts offsets = new MappedInts(channel, HEADER_BYTES, n + 1L);
+            MappedInts targets = new MappedInts(channel, HEADER_BYTES + 4L * (n + 1), m);
+            checkEdges(offsets, targets, n, m, path);
+            String[] labels = new String[n];
+            Map<String, Integer> labelIndex = readLabels(channel, labelsPosition, labelsBytes, labels, path);
+            return new Graph<>(new ExternalCsrAdjacency(offsets, targets), labels, labelIndex);
+        }
+    } //end load
+
+    /* Checks the mapped edges in one pass, so a corrupt file fails here instead
+     * of deep inside a traversal: offsets run from 0 to m without going back,
+     * and every row holds vertex ids in strictly ascending order
+     */
+    private static void checkEdges(MappedInts offsets, MappedInts targets, int n, int m, Path path) throws IOException{
+        if (offsets.get(0) != 0 || offsets.get(n) != m) {
+            throw new IOException("Corrupt graph file offsets: " + path);
+        }
+        for(int v = 0; v < n; v++){
+            int start = offsets.get(v);
+            int end = offsets.get(v + 1);
+            if (end < start || end > m) {
+                throw new IOException("Corrupt graph file: row " + v + " runs from " + start + " to " + end + ": " + path);
+            }
+            int previous = -1;
+            for(int i = start; i < end; i++){
+                int target = targets.get(i);
+                if (target <= previous || target >= n) {
+                    throw new IOException("Corrupt graph file: row " + v + " holds " + target
+                        + (target >= n ? ", not a vertex" : " out of order") + ": " + path);
+                }
+                previous = target;
+            } //end for
+        } //end for
+    } //end checkEdges
+
+    /* Decodes the label table into labels, reading the channel in buffered blocks,
+     * and indexes them in one map sized up front rather than label by label
+     * @return map from each label to its vertex
+     */
+    private static Map<String, Integer> readLabels(FileChannel channel, long position, long size,
+            String[] labels, Path path) throws IOException{
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip(); //start empty
+        long end = position + size;
+        Map<String, Integer> labelIndex = new HashMap<>((int) Math.min(Integer.MAX_VALUE, labels.length * 4L / 3 + 1));
+        byte[] bytes = new byte[64];
+        for(int v = 0; v < labels.length; v++){
+            position = fill(channel, buffer, position, 4);
+            int length = buffer.getInt();
+            if(length < 0){
+                continue; //no label
+            } //end if
+            if (length > end - position + buffer.remaining()) {
+                throw new IOException("Corrupt graph file label length " + length + " for vertex " + v + ": " + path);
+            }
+            if(length > bytes.length){
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            } //end if
+            for(int read = 0; read < length; ){
+                position = fill(channel, buffer, position, 1);
+                int count = Math.min(buffer.remaining(), length - read);
+                buffer.get(bytes, read, count);
+                read += count;
+            } //end for
+            labels[v] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            Integer owner = labelIndex.put(labels[v], v);
+            if (owner != null) {
+                throw new IOException("Corrupt graph file: label " + labels[v] + " names vertices " + owner + " and " + v + ": " + path);
+            }
+        } //end for
+        return labelIndex;
+    } //end readLabels
+
+    /* Makes sure buffer has at least needed bytes, reading more from position on
+     * @return file position after what has been read
+     */
+    private static long fill(FileChannel channel, ByteBuffer buffer, long position, int needed) throws IOException{
+        if(buffer.remaining() >= needed){
+            return position;
+        } //end if
+        buffer.compact();
+        while(buffer.position() < needed){
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Truncated graph file label table");
+            }
+            position += read;
+        } //end while
+        buffer.flip();
+        return position;
+    } //end fill
+
+    /* Reads until buffer is full, starting at position */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+        while(buffer.hasRemaining()){
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Truncated graph file header");
+            }
+        } //end while
+    } //end readFully
+
+    /* Appends an int, writing the buffer out first if it is full */
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException{
+        if(buffer.remaining() < 4){
+            flush(channel, buffer);
+        } //end if
+        buffer.putInt(value);
+    } //end putInt
+
+    /* Writes everything in buffer to the channel and empties it */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException{
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        } //end while
+        buffer.clear();
+    } //end flush
+
+} //end GraphFile
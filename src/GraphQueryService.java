@@ -0,0 +1,345 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+/**
+ * Answers traversal queries over a shared Graph asynchronously, for
+ * serving many clients at once without a blocked thread per request.
+ * <ul>
+ * <li>Queries run on virtual threads when the JVM has them (Java 21+),
+ * otherwise on a fixed pool of one platform thread per processor.</li>
+ * <li>Admission control: at most maxInFlight walks run or wait for a
+ * thread at once; a query beyond that fails at once with a
+ * RejectedExecutionException instead of queueing without bound.</li>
+ * <li>Every query has a deadline. Its future fails with a TimeoutException
+ * when the deadline passes, and the search itself checks a QueryDeadline
+ * every 1024 edges, so it stops once nobody waits for it.</li>
+ * <li>Point queries: isReachable and shortestPath run a breadth-first
+ * search that stops as soon as the target is found, so a nearby target
+ * costs a few rows rather than a walk of everything the source reaches.
+ * The price is that point queries from one source to different targets
+ * each search separately.</li>
+ * <li>Single-flight batching: a query for the same walk (kind and origin)
+ * or the same point search (source and target) as one already running
+ * joins it instead of starting another. The shared search lasts until
+ * the latest joined deadline and is cancelled once every query waiting
+ * for it has been cancelled or timed out.</li>
+ * </ul>
+ * The Graph must not change while queries run.
+ */
+public class GraphQueryService<E> implements AutoCloseable{
+    private final Graph<E> graph;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final boolean virtualThreads;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final ConcurrentHashMap<Long, Flight<TraversalResult<E>>> walkFlights = new ConcurrentHashMap<>(); //running walks by (origin, kind)
+    private final ConcurrentHashMap<Long, Flight<ShortestPath<E>>> pathFlights = new ConcurrentHashMap<>(); //running point searches by (source, target)
+    private final LongAdder walks = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean closed;
+
+    /**Creates a GraphQueryService running queries on virtual threads when
+     * available, otherwise on a fixed pool sized to the processors.
+     * @param graph the Graph to query.
+     * @param maxInFlight integer number of walks allowed at once.
+     */
+    public GraphQueryService(Graph<E> graph, int maxInFlight){
+        this(graph, maxInFlight, virtualThreadExecutor(), true);
+    } //end constructor
+
+    /**Creates a GraphQueryService running queries on the given executor,
+     * which close leaves running.
+     * @param graph the Graph to query.
+     * @param maxInFlight integer number of walks allowed at once.
+     * @param executor where walks run.
+     */
+    public GraphQueryService(Graph<E> graph, int maxInFlight, ExecutorService executor){
+        this(graph, maxInFlight, executor, false);
+    } //end constructor
+
+    /* Creates a GraphQueryService; a null executor means the fixed pool fallback */
+    private GraphQueryService(Graph<E> graph, int maxInFlight, ExecutorService executor, boolean ownsExecutor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight limit must be positive: " + maxInFlight);
+        }
+        this.graph = graph;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+        this.ownsExecutor = ownsExecutor;
+        this.virtualThreads = executor != null && ownsExecutor;
+        this.executor = executor != null ? executor
+            : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /* Looks up Executors.newVirtualThreadPerTaskExecutor, which the Java 17
+     * this project compiles against lacks
+     * @return the executor, or null on a JVM without virtual threads
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**Walks the Graph breadth-first.
+     * @return CompletableFuture of the TraversalResult.
+     * @param origin label of the vertex the walk begins at.
+     * @param timeout how long the caller will wait.
+     * @param unit unit of timeout.
+     */
+    public CompletableFuture<TraversalResult<E>> breadthFirst(E origin, long timeout, TimeUnit unit){
+        return walk(origin, TraversalCache.Kind.BREADTH_FIRST, unit.toNanos(timeout));
+    } //end breadthFirst
+
+    /**Walks the Graph depth-first.
+     * @return CompletableFuture of the TraversalResult.
+     * @param origin label of the vertex the walk begins at.
+     * @param timeout how long the caller will wait.
+     * @param unit unit of timeout.
+     */
+    public CompletableFuture<TraversalResult<E>> depthFirst(E origin, long timeout, TimeUnit unit){
+        return walk(origin, TraversalCache.Kind.DEPTH_FIRST, unit.toNanos(timeout));
+    } //end depthFirst
+
+    /**Tests whether one vertex can reach another, searching breadth-first
+     * only until the target is found.
+     * @return CompletableFuture of True if a path exists, false otherwise.
+     * @param from label of the vertex the path starts at.
+     * @param to label of the vertex the path ends at.
+     * @param timeout how long the caller will wait.
+     * @param unit unit of timeout.
+     */
+    public CompletableFuture<Boolean> isReachable(E from, E to, long timeout, TimeUnit unit){
+        return pointQuery(from, to, unit.toNanos(timeout), ShortestPath::isFound);
+    } //end isReachable
+
+    /**Finds a path of fewest edges between two vertices, searching
+     * breadth-first only until the target is found.
+     * @return CompletableFuture of the ShortestPath, whose distance is its hop count.
+     * @param source label of the vertex the path starts at.
+     * @param target label of the vertex the path ends at.
+     * @param timeout how long the caller will wait.
+     * @param unit unit of timeout.
+     */
+    public CompletableFuture<ShortestPath<E>> shortestPath(E source, E target, long timeout, TimeUnit unit){
+        return pointQuery(source, target, unit.toNanos(timeout), Function.identity());
+    } //end shortestPath
+
+    /* Joins or starts the walk of (origin, kind) */
+    private CompletableFuture<TraversalResult<E>> walk(E origin, TraversalCache.Kind kind, long timeoutNanos) {
+        int originIndex = graph.indexOf(origin);
+        if (originIndex == -1) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Label not found: " + origin));
+        }
+        Long key = (long) originIndex << 1 | kind.ordinal();
+        return query(walkFlights, key, timeoutNanos,
+            deadline -> graph.walk(originIndex, kind, Integer.MAX_VALUE, deadline), Function.identity());
+    }
+
+    /* Joins or starts the target-bounded search of (source, target) and
+     * gives the caller answer(path)
+     */
+    private <T> CompletableFuture<T> pointQuery(E source, E target, long timeoutNanos, Function<ShortestPath<E>, T> answer) {
+        int sourceIndex = graph.indexOf(source);
+        int targetIndex = graph.indexOf(target);
+        if (sourceIndex == -1 || targetIndex == -1) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                "Label not found: " + (sourceIndex == -1 ? source : target)));
+        }
+        Long key = (long) sourceIndex << 32 | targetIndex;
+        return query(pathFlights, key, timeoutNanos,
+            deadline -> graph.unweightedShortestPath(sourceIndex, targetIndex, deadline), answer);
+    }
+
+    /* Joins the search under key in flight or starts one, and gives the
+     * caller its own future of answer(result) that times out on its own deadline
+     */
+    private <R, T> CompletableFuture<T> query(ConcurrentHashMap<Long, Flight<R>> flights, Long key, long timeoutNanos,
+            Function<QueryDeadline, R> search, Function<R, T> answer) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Query service is closed"));
+        }
+        while (true) {
+            Flight<R> flight = flights.get(key);
+            if (flight != null) {
+                if (flight.join(timeoutNanos)) {
+                    joined.increment();
+                    return flight.waiter(answer, timeoutNanos);
+                }
+                flights.remove(key, flight); //finishing or abandoned; start afresh
+                continue;
+            }
+            if (!permits.tryAcquire()) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Query service is at capacity: " + maxInFlight + " walks in flight"));
+            }
+            Flight<R> started = new Flight<>(flights, key, timeoutNanos);
+            if (flights.putIfAbsent(key, started) != null) {
+                permits.release(); //another query started the same search first
+                continue;
+            }
+            CompletableFuture<T> waiter = started.waiter(answer, timeoutNanos);
+            try {
+                executor.execute(() -> run(started, search));
+            } catch (RejectedExecutionException e) {
+                flights.remove(key, started);
+                permits.release();
+                started.result.completeExceptionally(e);
+            }
+            return waiter;
+        }
+    }
+
+    /* Runs a search on an executor thread and hands the result to its waiters */
+    private <R> void run(Flight<R> flight, Function<QueryDeadline, R> search) {
+        R result = null;
+        Throwable failure = null;
+        try {
+            walks.increment();
+            result = search.apply(flight.deadline);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+        flight.finish();
+        permits.release(); //before waking the waiters, so a query they issue next finds it free
+        if (failure == null) {
+            flight.result.complete(result);
+        } else {
+            flight.result.completeExceptionally(failure);
+        }
+    }
+
+    /**Counts the walks and point searches run so far.
+     * @return long number of searches started on the executor.
+     */
+    public long getWalks(){
+        return walks.sum();
+    } //end getWalks
+
+    /**Counts the queries answered by joining a search already in flight.
+     * @return long number of batched queries.
+     */
+    public long getJoined(){
+        return joined.sum();
+    } //end getJoined
+
+    /**Counts the queries turned away by admission control.
+     * @return long number of rejected queries.
+     */
+    public long getRejected(){
+        return rejected.sum();
+    } //end getRejected
+
+    /**Counts the searches running or waiting for a thread.
+     * @return integer number of searches in flight.
+     */
+    public int getInFlight(){
+        return maxInFlight - permits.availablePermits();
+    } //end getInFlight
+
+    /**Tests whether queries run on virtual threads.
+     * @return True if this service made a virtual-thread executor, false otherwise.
+     */
+    public boolean usesVirtualThreads(){
+        return virtualThreads;
+    } //end usesVirtualThreads
+
+    /**Turns away new queries and, if this service made its executor, shuts
+     * it down; walks already in flight still complete.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    } //end close
+
+    /* One search in flight, producing an R, and the queries waiting for it */
+    private static final class Flight<R> {
+        private final ConcurrentHashMap<Long, Flight<R>> flights; //where it is registered, under key
+        private final Long key;
+        private final QueryDeadline deadline;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private int waiters = 1; //the query that started the search
+        private boolean finished;
+
+        Flight(ConcurrentHashMap<Long, Flight<R>> flights, Long key, long timeoutNanos) {
+            this.flights = flights;
+            this.key = key;
+            deadline = new QueryDeadline(timeoutNanos);
+        }
+
+        /* Adds a waiting query, keeping the search going until its deadline too
+         * @return false if the search has finished or been abandoned
+         */
+        synchronized boolean join(long timeoutNanos) {
+            if (finished || waiters == 0) {
+                return false;
+            }
+            waiters++;
+            deadline.extend(timeoutNanos);
+            return true;
+        }
+
+        /* Drops a query that stopped waiting; the last one out cancels the search */
+        synchronized void leave() {
+            if (--waiters == 0 && !finished) {
+                deadline.cancel();
+            }
+        }
+
+        /* Stops new queries joining once the search is over */
+        void finish() {
+            synchronized (this) {
+                finished = true;
+            }
+            flights.remove(key, this);
+        }
+
+        /* Gives one query its own future of the answer, failing on its own deadline.
+         * A search cancelled because the shared deadline passed fails the query
+         * with a TimeoutException once its own deadline has passed too, as if
+         * its timer had fired first
+         */
+        <T> CompletableFuture<T> waiter(Function<R, T> answer, long timeoutNanos) {
+            long expiresAt = System.nanoTime() + timeoutNanos;
+            CompletableFuture<T> mine = new CompletableFuture<>();
+            result.whenComplete((found, failure) -> {
+                if (failure instanceof CancellationException && System.nanoTime() - expiresAt >= 0) {
+                    mine.completeExceptionally(new TimeoutException(failure.getMessage()));
+                    return;
+                }
+                if (failure != null) {
+                    mine.completeExceptionally(failure);
+                    return;
+                }
+                try {
+                    mine.complete(answer.apply(found));
+                } catch (RuntimeException e) {
+                    mine.completeExceptionally(e);
+                }
+            });
+            mine.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS);
+            mine.whenComplete((answered, failure) -> {
+                if (!result.isDone()) {
+                    leave(); //cancelled or timed out before the search ended
+                }
+            });
+            return mine;
+        }
+    }
+}
\ No newline at end of file
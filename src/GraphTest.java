@@ -1,8 +1,27 @@
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class GraphTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     /*
      *  Builds a sample directed graph for testing:
      * A -> B
@@ -210,4 +229,1778 @@ public class GraphTest {
         graph.setLabel(0, "B");
         assertEquals("B", graph.getLabel(0));
     }
+
+    /*
+     * Tests that a CSR backed graph answers edge queries and traverses like the matrix graph.
+     */
+    @Test
+    public void testCsrBackedGraph() {
+        int[] sources = {0, 0, 1, 2, 3, 0};
+        int[] targets = {2, 1, 3, 3, 4, 1}; // A -> B listed twice
+        Graph<String> graph = new Graph<>(new CsrAdjacency(5, sources, targets));
+        String[] labels = {"A", "B", "C", "D", "E"};
+        for (int i = 0; i < labels.length; i++) {
+            graph.setLabel(i, labels[i]);
+        }
+
+        assertTrue(graph.isEdge(0, 1));
+        assertFalse(graph.isEdge(1, 0));
+        assertArrayEquals(new int[]{1, 2}, graph.neighbors(0));
+
+        QueueInterface<String> result = graph.getBreadthFirstTraversal("A");
+        List<String> output = new ArrayList<>();
+        while (!result.isEmpty()) {
+            output.add(result.dequeue());
+        }
+        assertEquals(Arrays.asList("A", "B", "C", "D", "E"), output);
+    }
+
+    /*
+     * Tests adding and removing edges on a CSR backed graph keeps rows sorted.
+     */
+    @Test
+    public void testCsrAddAndRemoveEdge() {
+        Graph<String> graph = new Graph<>(new CsrAdjacency(3));
+        graph.addEdge(1, 2);
+        graph.addEdge(0, 2);
+        graph.addEdge(0, 1);
+        graph.addEdge(0, 1); // Duplicate
+        assertArrayEquals(new int[]{1, 2}, graph.neighbors(0));
+        assertArrayEquals(new int[]{2}, graph.neighbors(1));
+
+        graph.removeEdge(0, 1);
+        assertFalse(graph.isEdge(0, 1));
+        assertArrayEquals(new int[]{2}, graph.neighbors(0));
+        assertArrayEquals(new int[]{2}, graph.neighbors(1));
+    }
+
+    /*
+     * Tests forEachNeighbor visits the same vertices as neighbors on both storages,
+     * and that DFS over a CSR graph matches the matrix graph.
+     */
+    @Test
+    public void testForEachNeighborAndCsrDepthFirst() {
+        Graph<String> matrix = buildSampleGraph();
+        Graph<String> csr = new Graph<>(new CsrAdjacency(5, new int[]{0, 0, 1, 2, 3}, new int[]{1, 2, 3, 3, 4}));
+        for (int i = 0; i < matrix.size(); i++) {
+            csr.setLabel(i, matrix.getLabel(i));
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        csr.forEachNeighbor(0, visited::add);
+        assertEquals(Arrays.asList(1, 2), visited);
+        visited.clear();
+        matrix.forEachNeighbor(0, visited::add);
+        assertEquals(Arrays.asList(1, 2), visited);
+
+        QueueInterface<String> result = csr.getDepthFirstTraversal("A");
+        List<String> output = new ArrayList<>();
+        while (!result.isEmpty()) {
+            output.add(result.dequeue());
+        }
+        assertEquals(Arrays.asList("A", "B", "D", "E", "C"), output);
+    }
+
+    /*
+     * Tests that IntQueue keeps FIFO order when it grows while wrapped around,
+     * and that IntStack keeps LIFO order across growth.
+     */
+    @Test
+    public void testIntQueueAndIntStack() {
+        IntQueue queue = new IntQueue(4);
+        queue.enqueue(1);
+        queue.enqueue(2);
+        queue.enqueue(3);
+        assertEquals(1, queue.dequeue());
+        assertEquals(2, queue.dequeue());
+        for (int i = 4; i <= 10; i++) {
+            queue.enqueue(i); // Wraps, then grows
+        }
+        for (int i = 3; i <= 10; i++) {
+            assertEquals(i, queue.dequeue());
+        }
+        assertTrue(queue.isEmpty());
+
+        IntStack stack = new IntStack(1);
+        for (int i = 0; i < 5; i++) {
+            stack.push(i);
+        }
+        assertEquals(5, stack.size());
+        for (int i = 4; i >= 0; i--) {
+            assertEquals(i, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+    }
+
+    /*
+     * Tests that dequeuing from an empty IntQueue throws an exception.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testEmptyIntQueue() {
+        new IntQueue().dequeue();
+    }
+
+    /*
+     * Tests that indexOf follows relabeling and returns -1 for unknown labels.
+     */
+    @Test
+    public void testIndexOf() {
+        Graph<String> graph = buildSampleGraph();
+        assertEquals(3, graph.indexOf("D"));
+        assertEquals(-1, graph.indexOf("Z"));
+
+        graph.setLabel(3, "Z");
+        assertEquals(3, graph.indexOf("Z"));
+        assertEquals(-1, graph.indexOf("D"));
+
+        graph.setLabel(3, "Z"); // Same label again is fine
+        assertEquals(3, graph.indexOf("Z"));
+    }
+
+    /*
+     * Tests that giving two vertices the same label throws an exception.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateLabel() {
+        Graph<String> graph = buildSampleGraph();
+        graph.setLabel(4, "A"); // Should throw
+    }
+
+    /*
+     * Tests that traversing from an unknown label throws an exception.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTraversalFromUnknownLabel() {
+        Graph<String> graph = buildSampleGraph();
+        graph.getBreadthFirstTraversal("Z"); // Should throw
+    }
+
+    /*
+     * Builds a random directed graph on CSR storage with labels "0" to "n-1".
+     */
+    private Graph<String> buildRandomGraph(int n, int edgeCount, long seed) {
+        Random random = new Random(seed);
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            sources[i] = random.nextInt(n);
+            targets[i] = random.nextInt(n);
+        }
+        Graph<String> graph = new Graph<>(new CsrAdjacency(n, sources, targets));
+        for (int i = 0; i < n; i++) {
+            graph.setLabel(i, String.valueOf(i));
+        }
+        return graph;
+    }
+
+    /*
+     * Computes BFS depths the plain way, through neighbors, as a reference.
+     */
+    private int[] referenceDepths(Graph<String> graph, int origin) {
+        int[] depth = new int[graph.size()];
+        Arrays.fill(depth, -1);
+        depth[origin] = 0;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(origin);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int w : graph.neighbors(u)) {
+                if (depth[w] < 0) {
+                    depth[w] = depth[u] + 1;
+                    queue.add(w);
+                }
+            }
+        }
+        return depth;
+    }
+
+    /*
+     * Tests that inNeighbors lists the vertices with an edge into a vertex and follows edge changes.
+     */
+    @Test
+    public void testInNeighbors() {
+        Graph<String> graph = buildSampleGraph();
+        assertArrayEquals(new int[]{1, 2}, graph.inNeighbors(3));
+        graph.addEdge(4, 3);
+        assertArrayEquals(new int[]{1, 2, 4}, graph.inNeighbors(3));
+        graph.removeEdge(1, 3);
+        assertArrayEquals(new int[]{2, 4}, graph.inNeighbors(3));
+    }
+
+    /*
+     * Tests that direction-optimizing BFS finds the same depths as plain BFS,
+     * on a small matrix graph and on a random graph dense enough to go bottom-up.
+     */
+    @Test
+    public void testDirectionOptimizingBreadthFirst() {
+        Graph<String> sample = buildSampleGraph();
+        TraversalResult<String> small = sample.directionOptimizingBreadthFirst("A");
+        assertArrayEquals(referenceDepths(sample, 0), small.getDepths());
+        assertEquals(5, small.size());
+
+        Graph<String> graph = buildRandomGraph(2000, 16000, 42);
+        TraversalResult<String> result = graph.directionOptimizingBreadthFirst("7");
+        int[] expected = referenceDepths(graph, 7);
+        assertArrayEquals(expected, result.getDepths());
+        for (int v = 0; v < graph.size(); v++) {
+            if (result.isReached(v) && v != 7) {
+                int parent = result.getParent(v);
+                assertTrue(graph.isEdge(parent, v));
+                assertEquals(expected[v] - 1, expected[parent]);
+            }
+        }
+    }
+
+    /*
+     * Tests that the bitset matrix agrees with the boolean matrix on edges,
+     * neighbors and transpose, and that its word-parallel bottom-up step in
+     * direction-optimizing BFS finds the same depths.
+     */
+    @Test
+    public void testBitMatrixAdjacency() {
+        Random random = new Random(11);
+        int n = 130; //spans three words per row
+        MatrixAdjacency matrix = new MatrixAdjacency(n);
+        BitMatrixAdjacency bits = new BitMatrixAdjacency(n);
+        for (int i = 0; i < 2000; i++) {
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            matrix.addEdge(s, t);
+            bits.addEdge(s, t);
+        }
+        bits.removeEdge(0, 129);
+        matrix.removeEdge(0, 129);
+        bits.addEdge(0, 63);
+        matrix.addEdge(0, 63);
+        assertEquals(matrix.edgeCount(), bits.edgeCount());
+        AdjacencyInterface reversed = bits.transpose();
+        for (int v = 0; v < n; v++) {
+            assertArrayEquals(matrix.neighbors(v), bits.neighbors(v));
+            assertEquals(matrix.degree(v), bits.degree(v));
+            List<Integer> walked = new ArrayList<>();
+            for (int c = bits.nextNeighbor(v, 0); c >= 0; c = bits.nextNeighbor(v, c + 1)) {
+                walked.add(bits.neighborAt(v, c));
+            }
+            assertEquals(Arrays.stream(matrix.neighbors(v)).boxed().collect(Collectors.toList()), walked);
+            for (int w = 0; w < n; w++) {
+                assertEquals(matrix.isEdge(v, w), reversed.isEdge(w, v));
+            }
+        }
+
+        int size = 3000;
+        Graph<String> sparse = buildRandomGraph(size, 60000, 5);
+        BitMatrixAdjacency dense = new BitMatrixAdjacency(size);
+        for (int v = 0; v < size; v++) {
+            for (int w : sparse.neighbors(v)) {
+                dense.addEdge(v, w);
+            }
+        }
+        Graph<String> graph = new Graph<>(dense);
+        for (int v = 0; v < size; v++) {
+            graph.setLabel(v, String.valueOf(v));
+        }
+        TraversalResult<String> result = graph.directionOptimizingBreadthFirst("3");
+        assertArrayEquals(referenceDepths(sparse, 3), result.getDepths());
+    }
+
+    /*
+     * Tests that Dijkstra's distances match a Bellman-Ford reference on a
+     * weighted CSR graph, that returned paths follow real edges and add up
+     * to their distance, and that weights survive edits and transposing.
+     */
+    @Test
+    public void testShortestPath() {
+        Random random = new Random(21);
+        int n = 400;
+        int m = 3000;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            targets[i] = random.nextInt(n);
+            weights[i] = random.nextInt(100) / 4.0;
+        }
+        CsrAdjacency storage = new CsrAdjacency(n, sources, targets, weights);
+        Graph<String> graph = new Graph<>(storage);
+        for (int v = 0; v < n; v++) {
+            graph.setLabel(v, String.valueOf(v));
+        }
+
+        //Bellman-Ford over the stored edges
+        double[] expected = new double[n];
+        Arrays.fill(expected, Double.POSITIVE_INFINITY);
+        expected[0] = 0;
+        for (int round = 0; round < n; round++) {
+            for (int v = 0; v < n; v++) {
+                for (int w : graph.neighbors(v)) {
+                    expected[w] = Math.min(expected[w], expected[v] + graph.getWeight(v, w));
+                }
+            }
+        }
+        assertArrayEquals(expected, graph.shortestDistances("0"), 1e-9);
+
+        for (int t = 1; t < n; t += 37) {
+            ShortestPath<String> path = graph.shortestPath("0", String.valueOf(t));
+            assertEquals(expected[t], path.getDistance(), 1e-9);
+            if (path.isFound()) {
+                int[] vertices = path.getVertices();
+                double total = 0;
+                for (int i = 1; i < vertices.length; i++) {
+                    assertTrue(graph.isEdge(vertices[i - 1], vertices[i]));
+                    total += graph.getWeight(vertices[i - 1], vertices[i]);
+                }
+                assertEquals(path.getDistance(), total, 1e-9);
+                assertEquals(String.valueOf(t), path.getLabels().get(path.getHops()));
+            }
+        }
+
+        //Weights shift with edits and follow edges into the transpose
+        graph.addEdge(5, 6, 2.5);
+        graph.addEdge(5, 4);
+        assertEquals(2.5, graph.getWeight(5, 6), 0);
+        assertEquals(1.0, graph.getWeight(5, 4), 0);
+        AdjacencyInterface reversed = storage.transpose();
+        assertEquals(2.5, reversed.weight(6, 5), 0);
+        graph.removeEdge(5, 6);
+        assertTrue(Double.isNaN(graph.getWeight(5, 6)));
+        try {
+            graph.addEdge(1, 2, -1.0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("non-negative"));
+        }
+
+        //Of duplicate edges the first listed wins
+        CsrAdjacency duplicates = new CsrAdjacency(2, new int[] {0, 0}, new int[] {1, 1}, new double[] {3, 7});
+        assertEquals(1, duplicates.edgeCount());
+        assertEquals(3.0, duplicates.weight(0, 1), 0);
+    }
+
+    /*
+     * Tests the unweighted path against BFS depths, and that a cheap detour
+     * beats a short expensive edge in the weighted search on matrix storage.
+     */
+    @Test
+    public void testUnweightedShortestPath() {
+        Graph<String> sample = buildSampleGraph();
+        ShortestPath<String> path = sample.unweightedShortestPath("A", "E");
+        assertEquals(referenceDepths(sample, 0)[4], path.getHops());
+        assertEquals(path.getHops(), path.getDistance(), 0);
+        assertEquals("A", path.getLabels().get(0));
+        assertEquals("E", path.getLabels().get(path.getHops()));
+
+        ShortestPath<String> none = sample.unweightedShortestPath("E", "A");
+        assertFalse(none.isFound());
+        assertEquals(-1, none.getHops());
+        assertTrue(none.getLabels().isEmpty());
+
+        Graph<String> roads = new Graph<>(4);
+        for (int v = 0; v < 4; v++) {
+            roads.setLabel(v, "R" + v);
+        }
+        roads.addEdge(0, 3, 10.0);
+        roads.addEdge(0, 1, 1.0);
+        roads.addEdge(1, 2, 1.0);
+        roads.addEdge(2, 3, 1.5);
+        assertEquals(Arrays.asList("R0", "R3"), roads.unweightedShortestPath("R0", "R3").getLabels());
+        ShortestPath<String> cheapest = roads.shortestPath("R0", "R3");
+        assertEquals(Arrays.asList("R0", "R1", "R2", "R3"), cheapest.getLabels());
+        assertEquals(3.5, cheapest.getDistance(), 0);
+    }
+
+    /*
+     * Tests that bidirectional hop distances match one-sided BFS depths,
+     * including unreachable pairs and a vertex to itself, and that meeting
+     * in the middle labels fewer vertices than the full search reaches.
+     */
+    @Test
+    public void testHopDistance() {
+        Graph<String> sample = buildSampleGraph();
+        assertEquals(3, sample.hopDistance("A", "E"));
+        assertEquals(0, sample.hopDistance("C", "C"));
+        assertEquals(-1, sample.hopDistance("E", "A"));
+        assertTrue(sample.isReachable("B", "E"));
+        assertFalse(sample.isReachable("C", "B"));
+
+        Graph<String> graph = buildRandomGraph(3000, 7000, 13);
+        Random random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            int from = random.nextInt(graph.size());
+            int[] depths = referenceDepths(graph, from);
+            for (int j = 0; j < 20; j++) {
+                int to = random.nextInt(graph.size());
+                assertEquals(depths[to], graph.hopDistance(String.valueOf(from), String.valueOf(to)));
+            }
+        }
+
+        Graph<String> wide = buildRandomGraph(20000, 200000, 8);
+        int[] depths = referenceDepths(wide, 1);
+        int reached = (int) Arrays.stream(depths).filter(d -> d >= 0).count();
+        TraversalContextPool pool = new TraversalContextPool();
+        BidirectionalBfs search = new BidirectionalBfs(wide.adjacency(), wide.adjacency().transpose());
+        assertEquals(depths[2], search.search(pool.acquire(wide.size()), pool.acquire(wide.size()), 1, 2));
+        assertTrue(search.getVisited() < reached / 4);
+    }
+
+    /*
+     * Tests that the in-edges behind inNeighbors and hopDistance follow edits
+     * without a new transpose: paged storage lends its own in-rows, other
+     * storage has each edit mirrored, and DynamicGraph versions inherit them.
+     */
+    @Test
+    public void testReverseEdgesFollowEdits() {
+        Random random = new Random(53);
+        Graph<String> paged = new Graph<>();
+        Graph<String> matrix = new Graph<>(60);
+        for (int v = 0; v < 60; v++) {
+            paged.addVertex(Integer.toString(v));
+            matrix.setLabel(v, Integer.toString(v));
+        }
+        for (Graph<String> graph : Arrays.asList(paged, matrix)) {
+            graph.inNeighbors(0); // Builds or borrows the in-edges once
+            for (int k = 0; k < 400; k++) {
+                int source = random.nextInt(60);
+                int target = random.nextInt(60);
+                if (random.nextInt(4) == 0) {
+                    graph.removeEdge(source, target);
+                } else {
+                    graph.addEdge(source, target);
+                }
+                if (k % 50 == 0) {
+                    assertInNeighborsMatch(graph);
+                }
+            }
+            assertInNeighborsMatch(graph);
+        }
+        assertTrue(paged.builtReverseEdges() instanceof PagedAdjacency.InEdges);
+        paged.removeVertex(7);
+        assertEquals(7, paged.addVertex("reused"));
+        assertEquals(60, paged.addVertex("grown"));
+        paged.addEdge(60, 7);
+        assertInNeighborsMatch(paged);
+        matrix.removeVertex(7);
+        assertNotNull(matrix.builtReverseEdges()); // Mirrored, not dropped
+        assertInNeighborsMatch(matrix);
+
+        DynamicGraph<String> dynamic = new DynamicGraph<>(buildRandomGraph(300, 1200, 59));
+        assertNull(dynamic.snapshot().builtReverseEdges());
+        dynamic.snapshot().inNeighbors(0);
+        for (int k = 0; k < 20; k++) {
+            dynamic.apply(new EdgeBatch().add(random.nextInt(300), random.nextInt(300))
+                .remove(random.nextInt(300), random.nextInt(300)));
+            assertNotNull(dynamic.snapshot().builtReverseEdges()); // Inherited from the last version
+        }
+        assertInNeighborsMatch(dynamic.snapshot());
+        assertTrue(dynamic.compact());
+        assertNotNull(dynamic.snapshot().builtReverseEdges());
+        assertInNeighborsMatch(dynamic.snapshot());
+    }
+
+    /* Checks inNeighbors of every vertex against a scan of the out-edges */
+    private void assertInNeighborsMatch(Graph<String> graph) {
+        List<List<Integer>> expected = new ArrayList<>();
+        for (int v = 0; v < graph.size(); v++) {
+            expected.add(new ArrayList<>());
+        }
+        for (int v = 0; v < graph.size(); v++) {
+            for (int w : graph.neighbors(v)) {
+                expected.get(w).add(v);
+            }
+        }
+        for (int v = 0; v < graph.size(); v++) {
+            assertArrayEquals(expected.get(v).stream().mapToInt(Integer::intValue).toArray(), graph.inNeighbors(v));
+        }
+    }
+
+    /*
+     * Tests that batches applied to a DynamicGraph match the same edits on a
+     * matrix, that earlier snapshots keep their edges, and that compaction
+     * leaves the edges unchanged while emptying the delta layer.
+     */
+    @Test
+    public void testDynamicGraphBatches() {
+        int n = 1500; //spans two delta pages
+        Graph<String> start = buildRandomGraph(n, 6000, 17);
+        MatrixAdjacency reference = new MatrixAdjacency(n);
+        for (int v = 0; v < n; v++) {
+            for (int w : start.neighbors(v)) {
+                reference.addEdge(v, w);
+            }
+        }
+        DynamicGraph<String> dynamic = new DynamicGraph<>(start);
+        Graph<String> first = dynamic.snapshot();
+        int firstEdges = first.adjacency().edgeCount();
+
+        Random random = new Random(4);
+        EdgeBatch batch = new EdgeBatch();
+        for (int round = 0; round < 10; round++) {
+            batch.clear();
+            for (int i = 0; i < 400; i++) {
+                int s = random.nextInt(n);
+                int t = random.nextInt(n);
+                if (random.nextBoolean()) {
+                    batch.add(s, t);
+                    reference.addEdge(s, t);
+                } else {
+                    int[] row = reference.neighbors(s);
+                    if (row.length > 0) {
+                        t = row[random.nextInt(row.length)];
+                    }
+                    batch.remove(s, t);
+                    reference.removeEdge(s, t);
+                }
+            }
+            dynamic.apply(batch);
+        }
+        assertEquals(10, dynamic.getVersion());
+        assertTrue(dynamic.getDeltaSize() > 0);
+
+        Graph<String> latest = dynamic.snapshot();
+        assertEquals(reference.edgeCount(), latest.adjacency().edgeCount());
+        for (int v = 0; v < n; v++) {
+            assertArrayEquals(reference.neighbors(v), latest.neighbors(v));
+            assertEquals(reference.degree(v), latest.adjacency().degree(v));
+        }
+        assertEquals(firstEdges, first.adjacency().edgeCount());
+        assertArrayEquals(start.neighbors(7), first.neighbors(7));
+        assertArrayEquals(referenceDepths(latest, 0), latest.directionOptimizingBreadthFirst("0").getDepths());
+
+        assertTrue(dynamic.compact());
+        assertEquals(0, dynamic.getDeltaSize());
+        assertEquals(10, dynamic.getVersion());
+        for (int v = 0; v < n; v++) {
+            assertArrayEquals(reference.neighbors(v), dynamic.snapshot().neighbors(v));
+        }
+        assertFalse(dynamic.compact());
+
+        try {
+            latest.addEdge(0, 1);
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(e.getMessage().contains("read-only"));
+        }
+    }
+
+    /*
+     * Tests that readers traversing snapshots while a writer applies batches
+     * and compacts always see a consistent version.
+     */
+    @Test
+    public void testDynamicGraphConcurrentReaders() throws Exception {
+        int n = 2000;
+        DynamicGraph<String> dynamic = new DynamicGraph<>(buildRandomGraph(n, 8000, 23));
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> checks = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                checks.add(readers.submit(() -> {
+                    for (int k = 0; k < 30; k++) {
+                        Graph<String> snapshot = dynamic.snapshot();
+                        int sum = 0;
+                        for (int v = 0; v < n; v++) {
+                            sum += snapshot.neighbors(v).length;
+                        }
+                        if (sum != snapshot.adjacency().edgeCount()) {
+                            return false;
+                        }
+                        snapshot.getBreadthFirstTraversal("0");
+                    }
+                    return true;
+                }));
+            }
+            Random random = new Random(9);
+            for (int round = 0; round < 50; round++) {
+                EdgeBatch batch = new EdgeBatch();
+                for (int i = 0; i < 100; i++) {
+                    if (random.nextBoolean()) {
+                        batch.add(random.nextInt(n), random.nextInt(n));
+                    } else {
+                        batch.remove(random.nextInt(n), random.nextInt(n));
+                    }
+                }
+                dynamic.apply(batch);
+                if (round % 10 == 9) {
+                    dynamic.compact();
+                }
+            }
+            for (Future<Boolean> check : checks) {
+                assertTrue(check.get());
+            }
+        } finally {
+            readers.shutdown();
+        }
+        assertEquals(50, dynamic.getVersion());
+    }
+
+    /*
+     * Tests that cached traversals equal fresh ones, that an edge change only
+     * drops the entries whose walk reached its source, that relabeling shows
+     * up in cached results, and that the capacity evicts least recent first.
+     */
+    @Test
+    public void testQueryCache() {
+        Graph<String> graph = buildSampleGraph();
+        graph.addEdge(4, 4); // E -> E, so a walk from E is cached too
+        List<String> bfs = drain(graph.getBreadthFirstTraversal("A"));
+        List<String> dfs = drain(graph.getDepthFirstTraversal("A"));
+
+        TraversalCache cache = graph.enableQueryCache(100);
+        assertEquals(bfs, drain(graph.getBreadthFirstTraversal("A")));
+        assertEquals(bfs, drain(graph.getBreadthFirstTraversal("A")));
+        assertEquals(dfs, drain(graph.getDepthFirstTraversal("A")));
+        assertEquals(Arrays.asList("E"), drain(graph.getBreadthFirstTraversal("E")));
+        assertEquals(Arrays.asList("A", "B", "C"), drain(graph.getBreadthFirstTraversal("A", 1)));
+        assertEquals(1, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(4, cache.size());
+
+        //B is not reached from E, so only the walks from A go
+        graph.removeEdge(1, 3);
+        assertEquals(3, cache.getInvalidations());
+        assertEquals(1, cache.size());
+        assertEquals(Arrays.asList("A", "B", "C", "D", "E"), drain(graph.getBreadthFirstTraversal("A")));
+        assertTrue(graph.isReachable("A", "D"));
+        assertFalse(graph.isReachable("E", "A"));
+        assertEquals(3, cache.getHits());
+        assertEquals(5, cache.getMisses());
+        graph.isReachable("C", "A"); //no walk from C is cached, so the lookup misses
+        assertEquals(3, cache.getHits());
+        assertEquals(6, cache.getMisses());
+        long version = graph.getVersion();
+        graph.removeEdge(1, 3); //already gone, nothing changes
+        assertEquals(version, graph.getVersion());
+
+        graph.setLabel(3, "Z");
+        assertEquals(Arrays.asList("A", "B", "C", "Z", "E"), drain(graph.getBreadthFirstTraversal("A")));
+
+        TraversalCache small = graph.enableQueryCache(6);
+        graph.getBreadthFirstTraversal("A"); //5 vertices
+        graph.getBreadthFirstTraversal("E"); //1 vertex, fills the cache
+        graph.getBreadthFirstTraversal("Z"); //2 vertices, pushes out the walk from A
+        assertEquals(1, small.getEvictions());
+        assertEquals(3, small.getWeight());
+        graph.getBreadthFirstTraversal("E");
+        assertEquals(1, small.getHits());
+
+        try {
+            graph.getDepthFirstTraversal("A", -1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("negative"));
+        }
+    }
+
+    /*
+     * Tests that depth-limited traversals visit the same vertices as the
+     * depth-limited iterators.
+     */
+    @Test
+    public void testDepthLimitedTraversals() {
+        Graph<String> graph = buildRandomGraph(300, 900, 31);
+        for (int depth = 0; depth < 4; depth++) {
+            List<String> bfs = new ArrayList<>();
+            graph.breadthFirstIterator("0", depth, label -> true).forEachRemaining(bfs::add);
+            assertEquals(bfs, drain(graph.getBreadthFirstTraversal("0", depth)));
+            List<String> dfs = new ArrayList<>();
+            graph.depthFirstIterator("0", depth, label -> true).forEachRemaining(dfs::add);
+            assertEquals(dfs, drain(graph.getDepthFirstTraversal("0", depth)));
+        }
+    }
+
+    /*
+     * Tests SCCs on the cyclic graph from Graph.main, the topological
+     * numbering of components and the condensation, and that a cycle stops
+     * the topological sort.
+     */
+    @Test
+    public void testStronglyConnectedComponents() {
+        Graph<String> graph = new Graph<>(9);
+        String[] nodes = {"A", "B", "C", "D", "E", "F", "G", "H", "I"};
+        for (int i = 0; i < nodes.length; i++) {
+            graph.setLabel(i, nodes[i]);
+        }
+        int[][] edges = {{0, 1}, {0, 3}, {0, 4}, {1, 4}, {3, 6}, {4, 5}, {4, 7}, {6, 7},
+            {5, 2}, {5, 7}, {7, 8}, {2, 1}, {8, 5}};
+        for (int[] edge : edges) {
+            graph.addEdge(edge[0], edge[1]);
+        }
+
+        StronglyConnectedComponents<String> sccs = graph.stronglyConnectedComponents();
+        assertEquals(4, sccs.getCount());
+        int cycle = sccs.getComponent(1);
+        assertArrayEquals(new int[] {1, 2, 4, 5, 7, 8}, sccs.getMembers(cycle));
+        assertEquals(0, sccs.getComponent(0)); //A reaches everything, so it comes first
+        for (int[] edge : edges) {
+            assertTrue(sccs.getComponent(edge[0]) <= sccs.getComponent(edge[1]));
+        }
+        assertFalse(sccs.isAcyclic());
+        try {
+            graph.getTopologicalOrder();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("cycle"));
+        }
+
+        Graph<Integer> dag = sccs.getCondensation();
+        assertEquals(4, dag.size());
+        assertTrue(dag.stronglyConnectedComponents().isAcyclic());
+        List<Integer> order = new ArrayList<>();
+        QueueInterface<Integer> topological = dag.getTopologicalOrder();
+        while (!topological.isEmpty()) {
+            order.add(topological.dequeue());
+        }
+        assertEquals(Arrays.asList(0, 1, 2, 3), order);
+
+        graph.removeEdge(2, 1);
+        graph.removeEdge(8, 5);
+        List<String> sorted = drain(graph.getTopologicalOrder());
+        for (int[] edge : edges) {
+            if (graph.isEdge(edge[0], edge[1])) {
+                assertTrue(sorted.indexOf(nodes[edge[0]]) < sorted.indexOf(nodes[edge[1]]));
+            }
+        }
+        graph.addEdge(3, 3);
+        assertEquals(3, graph.stronglyConnectedComponents().getCycleVertex());
+    }
+
+    /*
+     * Tests SCCs against mutual reachability on a random graph, and that a
+     * million-vertex path and cycle run without overflowing the stack.
+     */
+    @Test
+    public void testStronglyConnectedComponentsAtScale() {
+        Graph<String> graph = buildRandomGraph(300, 500, 19);
+        StronglyConnectedComponents<String> sccs = graph.stronglyConnectedComponents();
+        int[][] depths = new int[graph.size()][];
+        for (int v = 0; v < graph.size(); v++) {
+            depths[v] = referenceDepths(graph, v);
+        }
+        for (int v = 0; v < graph.size(); v++) {
+            for (int w = 0; w < graph.size(); w++) {
+                boolean mutual = depths[v][w] >= 0 && depths[w][v] >= 0;
+                assertEquals(mutual, sccs.getComponent(v) == sccs.getComponent(w));
+                if (depths[v][w] >= 0) {
+                    assertTrue(sccs.getComponent(v) <= sccs.getComponent(w));
+                }
+            }
+        }
+
+        int n = 1_000_000;
+        int[] sources = new int[n - 1];
+        int[] targets = new int[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            sources[i] = i;
+            targets[i] = i + 1;
+        }
+        Graph<Integer> path = new Graph<>(new CsrAdjacency(n, sources, targets));
+        for (int i = 0; i < n; i++) {
+            path.setLabel(i, i);
+        }
+        StronglyConnectedComponents<Integer> chain = path.stronglyConnectedComponents();
+        assertEquals(n, chain.getCount());
+        assertEquals(n - 1, chain.getTopologicalOrder()[n - 1]);
+        path.addEdge(n - 1, 0);
+        assertEquals(1, path.stronglyConnectedComponents().getCount());
+    }
+
+    /*
+     * Tests that a removed vertex is left out of the components, the
+     * condensation and the topological order instead of showing up as a
+     * singleton component without a label.
+     */
+    @Test
+    public void testComponentsSkipRemovedVertices() {
+        Graph<String> graph = buildSampleGraph();
+        graph.removeVertex(2); // C
+        StronglyConnectedComponents<String> sccs = graph.stronglyConnectedComponents();
+        assertEquals(4, sccs.getCount());
+        assertEquals(-1, sccs.getComponent(2));
+        assertEquals(4, sccs.getCondensation().size());
+        assertEquals(Arrays.asList("A", "B", "D", "E"), drain(graph.getTopologicalOrder()));
+
+        graph.addVertex("F"); // Reuses the id of C
+        assertEquals(5, graph.stronglyConnectedComponents().getCount());
+        assertEquals(5, drain(graph.getTopologicalOrder()).size());
+    }
+
+    /*
+     * Tests the counts a listener receives for BFS and DFS of the sample
+     * graph, the histogram totals, and that cache hits are not reported.
+     */
+    @Test
+    public void testTraversalListener() {
+        Graph<String> graph = buildSampleGraph();
+        List<TraversalStats> seen = new ArrayList<>();
+        graph.setTraversalListener(seen::add);
+
+        graph.getBreadthFirstTraversal("A");
+        TraversalStats bfs = seen.get(0);
+        assertEquals(TraversalCache.Kind.BREADTH_FIRST, bfs.getKind());
+        assertEquals(0, bfs.getOrigin());
+        assertEquals(5, bfs.getVerticesVisited());
+        assertEquals(5, bfs.getEdgesScanned());
+        assertArrayEquals(new int[] {1, 2, 1, 1}, bfs.getLevelSizes());
+        assertEquals(2, bfs.getMaxStackDepth()); //B and C wait together
+        assertTrue(bfs.getWallNanos() > 0);
+
+        graph.getDepthFirstTraversal("A");
+        TraversalStats dfs = seen.get(1);
+        assertEquals(TraversalCache.Kind.DEPTH_FIRST, dfs.getKind());
+        assertEquals(4, dfs.getMaxStackDepth()); //A, B, D, E
+        assertArrayEquals(new int[] {1, 2, 1, 1}, dfs.getLevelSizes()); //C is reached from A after backtracking
+
+        HistogramTraversalListener histogram = new HistogramTraversalListener();
+        graph.setTraversalListener(histogram);
+        graph.enableQueryCache(100);
+        for (int i = 0; i < 3; i++) {
+            graph.getBreadthFirstTraversal("B");
+        }
+        assertEquals(1, histogram.getCount());
+        assertEquals(3, histogram.getTotalVertices()); //B, D, E
+        assertEquals(1, Arrays.stream(histogram.getVerticesHistogram()).sum());
+        assertEquals(1, histogram.getVerticesHistogram()[2]);
+        assertTrue(histogram.getWallNanosPercentile(99) > 0);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+
+        graph.setTraversalListener(null);
+        graph.getDepthFirstTraversal("C");
+        assertEquals(2, seen.size());
+    }
+
+    /*
+     * Tests that the JFR listener writes one event per traversal into a
+     * recording, lasting as long as the traversal.
+     */
+    @Test
+    public void testJfrTraversalListener() throws IOException {
+        Graph<String> graph = buildSampleGraph();
+        graph.setTraversalListener(new JfrTraversalListener());
+        Path file = folder.getRoot().toPath().resolve("traversals.jfr");
+        try (jdk.jfr.Recording recording = new jdk.jfr.Recording()) {
+            recording.enable("graphtrav.Traversal");
+            recording.start();
+            graph.getBreadthFirstTraversal("A");
+            graph.getDepthFirstTraversal("B");
+            recording.stop();
+            recording.dump(file);
+        }
+        List<jdk.jfr.consumer.RecordedEvent> events = new ArrayList<>();
+        for (jdk.jfr.consumer.RecordedEvent event : jdk.jfr.consumer.RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals("graphtrav.Traversal")) {
+                events.add(event);
+            }
+        }
+        assertEquals(2, events.size());
+        assertEquals("BREADTH_FIRST", events.get(0).getString("kind"));
+        assertEquals(5, events.get(0).getInt("verticesVisited"));
+        assertEquals(3, events.get(1).getInt("verticesVisited"));
+        for (jdk.jfr.consumer.RecordedEvent event : events) { // Spans the traversal, not an instant at its end
+            assertTrue(event.getStartTime().isBefore(event.getEndTime()));
+            assertFalse(event.getDuration().isZero());
+        }
+    }
+
+    /*
+     * Tests growing a Graph vertex by vertex, removing vertices with their
+     * edges in both directions, and reusing freed ids without moving others.
+     */
+    @Test
+    public void testAddAndRemoveVertices() {
+        Graph<String> graph = new Graph<>();
+        assertEquals(0, graph.size());
+        for (int i = 0; i < 5000; i++) { //spans two adjacency pages
+            assertEquals(i, graph.addVertex("v" + i));
+        }
+        for (int i = 0; i < 4999; i++) {
+            graph.addEdge(i, i + 1);
+            graph.addEdge(i, (i * 7) % 5000);
+        }
+        assertEquals(5000, graph.size());
+        assertEquals(referenceDepths(graph, 0)[4999], graph.hopDistance("v0", "v4999"));
+
+        graph.removeVertex(2500);
+        assertTrue(graph.isRemoved(2500));
+        assertEquals(4999, graph.vertexCount());
+        assertEquals(0, graph.neighbors(2500).length);
+        assertEquals(0, graph.inNeighbors(2500).length);
+        assertFalse(graph.isEdge(2499, 2500));
+        assertEquals(-1, graph.indexOf("v2500"));
+        assertEquals("v2501", graph.getLabel(2501));
+        assertArrayEquals(referenceDepths(graph, 0), graph.directionOptimizingBreadthFirst("v0").getDepths());
+        try {
+            graph.removeVertex(2500);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("already removed"));
+        }
+
+        assertEquals(2500, graph.addVertex("fresh"));
+        assertFalse(graph.isRemoved(2500));
+        assertEquals(5000, graph.addVertex("next"));
+        graph.addEdge(5000, 2500);
+        assertArrayEquals(new int[] {5000}, graph.inNeighbors(2500));
+        assertEquals(5001, graph.vertexCount());
+
+        //Fixed-size storage can only refill removed ids
+        Graph<String> sample = buildSampleGraph();
+        sample.removeVertex(3);
+        assertEquals(Arrays.asList("A", "B", "C"), drain(sample.getBreadthFirstTraversal("A")));
+        assertEquals(3, sample.addVertex("D2"));
+        try {
+            sample.addVertex("F");
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(e.getMessage().contains("fixed"));
+        }
+    }
+
+    /*
+     * Tests that parallel BFS finds the same depths as plain BFS, and that the
+     * deterministic mode matches the sequential visit order and parents exactly.
+     */
+    @Test
+    public void testParallelBreadthFirst() {
+        Graph<String> graph = buildRandomGraph(3000, 12000, 7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] expectedDepths = referenceDepths(graph, 0);
+
+            TraversalResult<String> any = graph.parallelBreadthFirst("0", pool);
+            assertArrayEquals(expectedDepths, any.getDepths());
+            for (int v : any.getOrder()) {
+                if (v != 0) {
+                    assertTrue(graph.isEdge(any.getParent(v), v));
+                }
+            }
+
+            TraversalResult<String> exact = graph.parallelBreadthFirst("0", pool, true);
+            assertArrayEquals(expectedDepths, exact.getDepths());
+            QueueInterface<String> sequential = graph.getBreadthFirstTraversal("0");
+            int[] parents = new int[graph.size()];
+            Arrays.fill(parents, -1);
+            for (int v : exact.getOrder()) {
+                assertEquals(sequential.dequeue(), graph.getLabel(v));
+                for (int w : graph.neighbors(v)) {
+                    if (w != 0 && parents[w] == -1) {
+                        parents[w] = v; // First discoverer, as the sequential BFS picks
+                    }
+                }
+            }
+            assertTrue(sequential.isEmpty());
+            assertArrayEquals(parents, exact.getParents());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /*
+     * Drains a traversal queue into a list.
+     */
+    private static List<String> drain(QueueInterface<String> queue) {
+        List<String> output = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            output.add(queue.dequeue());
+        }
+        return output;
+    }
+
+    /*
+     * Tests that many threads traversing one shared graph at once all get the
+     * same answers as a single-threaded run.
+     */
+    @Test
+    public void testConcurrentTraversals() throws Exception {
+        Graph<String> graph = buildRandomGraph(1000, 3000, 11);
+        List<String> expectedBfs = drain(graph.getBreadthFirstTraversal("3"));
+        List<String> expectedDfs = drain(graph.getDepthFirstTraversal("3"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> runs = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                runs.add(executor.submit(() ->
+                    drain(graph.getBreadthFirstTraversal("3")).equals(expectedBfs)
+                        && drain(graph.getDepthFirstTraversal("3")).equals(expectedDfs)));
+            }
+            for (Future<Boolean> run : runs) {
+                assertTrue(run.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /*
+     * Tests that multi-source BFS distances and reach counts match one BFS per
+     * origin, with more origins than fit in one 64-search batch.
+     */
+    @Test
+    public void testMultiSourceBreadthFirst() {
+        Graph<String> graph = buildRandomGraph(500, 900, 5);
+        List<String> origins = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            origins.add(String.valueOf((i * 37) % 500));
+        }
+
+        int[][] distances = graph.multiSourceDistances(origins);
+        int[] counts = graph.multiSourceReachCounts(origins);
+        int[] expectedCounts = new int[graph.size()];
+        for (int i = 0; i < origins.size(); i++) {
+            int[] expected = referenceDepths(graph, graph.indexOf(origins.get(i)));
+            assertArrayEquals(expected, distances[i]);
+            for (int v = 0; v < expected.length; v++) {
+                if (expected[v] >= 0) {
+                    expectedCounts[v]++;
+                }
+            }
+        }
+        assertArrayEquals(expectedCounts, counts);
+    }
+
+    /*
+     * Tests that the lazy iterators produce the same orders as the full traversals.
+     */
+    @Test
+    public void testTraversalIterators() {
+        Graph<String> graph = buildRandomGraph(300, 900, 3);
+        List<String> bfs = new ArrayList<>();
+        graph.breadthFirstIterator("0").forEachRemaining(bfs::add);
+        assertEquals(drain(graph.getBreadthFirstTraversal("0")), bfs);
+
+        List<String> dfs = new ArrayList<>();
+        graph.depthFirstIterator("0").forEachRemaining(dfs::add);
+        assertEquals(drain(graph.getDepthFirstTraversal("0")), dfs);
+    }
+
+    /*
+     * Tests early termination, the depth bound and the label filter of traversal streams.
+     */
+    @Test
+    public void testTraversalStreams() {
+        Graph<String> graph = buildSampleGraph(); // A -> B, A -> C, B -> D, C -> D, D -> E
+
+        assertEquals(Arrays.asList("A", "B"),
+            graph.breadthFirstStream("A", Integer.MAX_VALUE, label -> true).limit(2).collect(Collectors.toList()));
+        assertEquals(Arrays.asList("A", "B", "C"),
+            graph.breadthFirstStream("A", 1, label -> true).collect(Collectors.toList()));
+        assertEquals(Arrays.asList("A", "C", "D", "E"),
+            graph.depthFirstStream("A", Integer.MAX_VALUE, label -> !label.equals("B")).collect(Collectors.toList()));
+        assertEquals(Arrays.asList("A", "B", "D"),
+            graph.depthFirstStream("A", 2, label -> !label.equals("C")).collect(Collectors.toList()));
+
+        TraversalIterator<String> iterator = graph.breadthFirstIterator("A");
+        iterator.next();
+        assertEquals(1, iterator.nextDepth());
+        assertEquals("B", iterator.next());
+    }
+
+    /*
+     * Tests that a graph written to a file and mapped back has the same labels,
+     * edges and traversals, including a vertex without a label.
+     */
+    @Test
+    public void testGraphFileRoundTrip() throws IOException {
+        Graph<String> graph = buildRandomGraph(400, 1600, 13);
+        graph.setLabel(399, "\u00e9t\u00e9"); // Non-ASCII label
+        Path path = folder.newFile("random.graph").toPath();
+        GraphFile.write(graph, path);
+
+        Graph<String> mapped = GraphFile.load(path);
+        assertEquals(graph.size(), mapped.size());
+        for (int v = 0; v < graph.size(); v++) {
+            assertEquals(graph.getLabel(v), mapped.getLabel(v));
+            assertArrayEquals(graph.neighbors(v), mapped.neighbors(v));
+        }
+        assertTrue(mapped.isEdge(0, graph.neighbors(0)[0]));
+        assertEquals(drain(graph.getBreadthFirstTraversal("0")), drain(mapped.getBreadthFirstTraversal("0")));
+        assertEquals(drain(graph.getDepthFirstTraversal("0")), drain(mapped.getDepthFirstTraversal("0")));
+        assertArrayEquals(graph.inNeighbors(5), mapped.inNeighbors(5));
+
+        Graph<String> partial = new Graph<>(2);
+        partial.setLabel(1, "B");
+        partial.addEdge(0, 1);
+        Path partialPath = folder.newFile("partial.graph").toPath();
+        GraphFile.write(partial, partialPath);
+        Graph<String> partialMapped = GraphFile.load(partialPath);
+        assertNull(partialMapped.getLabel(0));
+        assertEquals("B", partialMapped.getLabel(1));
+        assertTrue(partialMapped.isEdge(0, 1));
+    }
+
+    /*
+     * Tests that a mapped graph rejects edge changes.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGraphFileIsReadOnly() throws IOException {
+        Path path = folder.newFile("sample.graph").toPath();
+        GraphFile.write(buildSampleGraph(), path);
+        GraphFile.load(path).addEdge(4, 0); // Should throw
+    }
+
+    /*
+     * Tests that loading a file that is not a graph file throws an exception.
+     */
+    @Test(expected = IOException.class)
+    public void testGraphFileBadMagic() throws IOException {
+        Path path = folder.newFile("bad.graph").toPath();
+        java.nio.file.Files.write(path, new byte[64]);
+        GraphFile.load(path); // Should throw
+    }
+
+    /*
+     * Tests that corrupt vertex and edge counts in the header, offsets that go
+     * back or past the end, targets that are no vertex or out of order, and a
+     * weighted graph passed to write are refused instead of failing later.
+     */
+    @Test
+    public void testGraphFileRejectsCorruptCountsAndWeights() throws IOException {
+        Path path = folder.newFile("counts.graph").toPath();
+        GraphFile.write(buildSampleGraph(), path);
+        byte[] good = java.nio.file.Files.readAllBytes(path);
+        for (int[] patch : new int[][] {{8, -1}, {8, 1 << 30}, {12, -7}, {12, 1 << 30}}) {
+            byte[] bad = good.clone();
+            java.nio.ByteBuffer.wrap(bad).order(java.nio.ByteOrder.LITTLE_ENDIAN).putInt(patch[0], patch[1]);
+            java.nio.file.Files.write(path, bad);
+            try {
+                GraphFile.load(path);
+                fail("Loaded a header with " + (patch[0] == 8 ? "n" : "m") + " = " + patch[1]);
+            } catch (IOException expected) {
+                // Corrupt counts are an I/O error, not an IllegalArgumentException
+            }
+        }
+
+        // Offsets start at byte 32, targets right after the n + 1 = 6 offsets
+        for (int[] patch : new int[][] {{32 + 4 * 2, 9}, {32 + 4 * 3, 1}, {32 + 24, 5}, {32 + 24, -1}, {32 + 24 + 4, 1}}) {
+            byte[] bad = good.clone();
+            java.nio.ByteBuffer.wrap(bad).order(java.nio.ByteOrder.LITTLE_ENDIAN).putInt(patch[0], patch[1]);
+            java.nio.file.Files.write(path, bad);
+            try {
+                GraphFile.load(path);
+                fail("Loaded edges with " + patch[1] + " at byte " + patch[0]);
+            } catch (IOException expected) {
+                // Bad offsets and targets fail the load, not a later traversal
+            }
+        }
+
+        Graph<String> weighted = new Graph<>(2);
+        weighted.addEdge(0, 1, 2.5);
+        Path weightedPath = folder.newFile("weighted.graph").toPath();
+        try {
+            GraphFile.write(weighted, weightedPath);
+            fail("Wrote a weighted graph the format cannot hold");
+        } catch (IllegalArgumentException expected) {
+            // Weights would be lost
+        }
+        assertEquals(0, java.nio.file.Files.size(weightedPath));
+    }
+
+    /*
+     * Tests loading a SNAP edge list with small chunks, so lines straddle chunk
+     * boundaries, against the same graph built by addEdge.
+     */
+    @Test
+    public void testEdgeListLoaderSnap() throws IOException {
+        Graph<String> expected = buildRandomGraph(300, 2000, 17);
+        StringBuilder text = new StringBuilder("# random graph\n");
+        for (int v = 0; v < expected.size(); v++) {
+            for (int w : expected.neighbors(v)) {
+                text.append(v).append('\t').append(w).append(v % 2 == 0 ? "\r\n" : "\n");
+            }
+        }
+        Path path = folder.newFile("random.txt").toPath();
+        java.nio.file.Files.write(path, text.toString().getBytes("UTF-8"));
+
+        EdgeListLoader loader = new EdgeListLoader(EdgeListLoader.Format.SNAP, 3, 64);
+        Graph<String> loaded = loader.load(path);
+        int edges = 0;
+        for (int v = 0; v < expected.size(); v++) {
+            int[] neighbors = expected.neighbors(v);
+            edges += neighbors.length;
+            int loadedVertex = loaded.indexOf(expected.getLabel(v));
+            if (neighbors.length > 0) {
+                Set<String> want = new HashSet<>();
+                for (int w : neighbors) {
+                    want.add(expected.getLabel(w));
+                }
+                Set<String> got = new HashSet<>();
+                for (int w : loaded.neighbors(loadedVertex)) {
+                    got.add(loaded.getLabel(w));
+                }
+                assertEquals(want, got);
+            }
+        }
+        assertEquals(edges, loader.getEdgesRead());
+        assertTrue(loader.getEdgesPerSecond() > 0);
+    }
+
+    /*
+     * Tests loading numeric ids that share their low bits, as in sparse SNAP
+     * id spaces, which must still intern to distinct vertices in order.
+     */
+    @Test
+    public void testEdgeListLoaderStridedIds() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (long i = 0; i < 20000; i++) {
+            text.append(i << 10).append(' ').append((i + 1) << 10).append('\n');
+        }
+        Path path = folder.newFile("strided.txt").toPath();
+        java.nio.file.Files.write(path, text.toString().getBytes("UTF-8"));
+
+        Graph<String> graph = new EdgeListLoader(EdgeListLoader.Format.SNAP, 2, 1 << 16).load(path);
+        assertEquals(20001, graph.size());
+        for (int v = 0; v < graph.size(); v += 997) {
+            assertEquals(Long.toString((long) v << 10), graph.getLabel(v));
+        }
+        assertArrayEquals(new int[] {20000}, graph.neighbors(19999));
+    }
+
+    /*
+     * Tests loading a CSV edge list with string labels, interned in order of first appearance.
+     */
+    @Test
+    public void testEdgeListLoaderCsv() throws IOException {
+        Path path = folder.newFile("cities.csv").toPath();
+        java.nio.file.Files.write(path, "Pomona, Ontario\nOntario,Fontana\n\nPomona,Fontana\nPomona,Ontario".getBytes("UTF-8"));
+
+        Graph<String> graph = new EdgeListLoader(EdgeListLoader.Format.CSV).load(path);
+        assertEquals(3, graph.size());
+        assertEquals("Pomona", graph.getLabel(0));
+        assertEquals("Ontario", graph.getLabel(1));
+        assertEquals("Fontana", graph.getLabel(2));
+        assertArrayEquals(new int[]{1, 2}, graph.neighbors(0));
+        assertEquals(Arrays.asList("Pomona", "Ontario", "Fontana"), drain(graph.getBreadthFirstTraversal("Pomona")));
+    }
+
+    /*
+     * Tests that comment lines are skipped even when indented, in both formats.
+     */
+    @Test
+    public void testEdgeListLoaderIndentedComments() throws IOException {
+        Path snap = folder.newFile("indented.txt").toPath();
+        java.nio.file.Files.write(snap, "# header\n  # nodes: 3\n\t% edges: 2\n1 2\n   \n  2\t3\n".getBytes("UTF-8"));
+        Graph<String> graph = new EdgeListLoader(EdgeListLoader.Format.SNAP).load(snap);
+        assertEquals(3, graph.size());
+        assertEquals(Arrays.asList("1", "2", "3"), drain(graph.getBreadthFirstTraversal("1")));
+
+        Path csv = folder.newFile("indented.csv").toPath();
+        java.nio.file.Files.write(csv, " # from,to\nPomona,Ontario\n\t%,comment\n".getBytes("UTF-8"));
+        Graph<String> cities = new EdgeListLoader(EdgeListLoader.Format.CSV).load(csv);
+        assertEquals(2, cities.size());
+        assertTrue(cities.isEdge(0, 1));
+    }
+
+    /*
+     * Tests that a line with a single field is rejected.
+     */
+    @Test(expected = IOException.class)
+    public void testEdgeListLoaderMalformedLine() throws IOException {
+        Path path = folder.newFile("bad.txt").toPath();
+        java.nio.file.Files.write(path, "1 2\n3\n".getBytes("UTF-8"));
+        new EdgeListLoader(EdgeListLoader.Format.SNAP).load(path);
+    }
+
+    /*
+     * Tests that a graph copied into direct memory traverses like the original,
+     * that the off-heap BFS matches plain BFS, and that closing frees the storage.
+     */
+    @Test
+    public void testOffHeapGraph() {
+        Graph<String> graph = buildRandomGraph(500, 2500, 19);
+        ExternalCsrAdjacency offHeap = ExternalCsrAdjacency.offHeapCopyOf(graph.adjacency());
+        Graph<String> copy = new Graph<>(offHeap);
+        for (int v = 0; v < graph.size(); v++) {
+            copy.setLabel(v, graph.getLabel(v));
+            assertArrayEquals(graph.neighbors(v), copy.neighbors(v));
+        }
+        assertArrayEquals(graph.inNeighbors(9), copy.inNeighbors(9));
+        assertEquals(drain(graph.getDepthFirstTraversal("0")), drain(copy.getDepthFirstTraversal("0")));
+
+        int[] expected = referenceDepths(graph, 0);
+        try (OffHeapTraversalResult result = copy.breadthFirstOffHeap("0")) {
+            List<String> order = new ArrayList<>();
+            for (int k = 0; k < result.size(); k++) {
+                order.add(copy.getLabel(result.getOrderAt(k)));
+            }
+            assertEquals(drain(graph.getBreadthFirstTraversal("0")), order);
+            for (int v = 0; v < graph.size(); v++) {
+                assertEquals(expected[v], result.getDepth(v));
+                if (result.isReached(v) && v != 0) {
+                    assertTrue(graph.isEdge(result.getParent(v), v));
+                }
+            }
+        }
+
+        offHeap.close();
+        try {
+            copy.isEdge(0, 1);
+            fail("Closed storage should not be readable");
+        } catch (RuntimeException expectedFailure) {
+            // Closed arrays are empty, so reads fail instead of touching freed memory
+        }
+    }
+
+    /*
+     * Tests that closing a Graph frees its off-heap storage and the off-heap
+     * in-edge view inNeighbors built, which the Graph alone holds.
+     */
+    @Test
+    public void testClosingGraphClosesOffHeapTranspose() {
+        OffHeapInts offsets = new OffHeapInts(4);
+        OffHeapInts targets = new OffHeapInts(3);
+        int[][] rows = {{0, 2, 3, 3}, {1, 2, 2}}; // 0 -> 1, 0 -> 2, 1 -> 2
+        for (int i = 0; i < 4; i++) {
+            offsets.set(i, rows[0][i]);
+        }
+        for (int i = 0; i < 3; i++) {
+            targets.set(i, rows[1][i]);
+        }
+        List<ExternalCsrAdjacency> transposes = new ArrayList<>();
+        Graph<String> graph = new Graph<>(new ExternalCsrAdjacency(offsets, targets) {
+            @Override
+            public ExternalCsrAdjacency transpose() {
+                ExternalCsrAdjacency reversed = super.transpose();
+                transposes.add(reversed);
+                return reversed;
+            }
+        });
+        assertArrayEquals(new int[] {0, 1}, graph.inNeighbors(2));
+        assertArrayEquals(new int[] {0}, graph.inNeighbors(1));
+        assertEquals(1, transposes.size()); // Built once and kept
+
+        graph.close();
+        try {
+            transposes.get(0).neighbors(2);
+            fail("Closing the Graph should close its transpose");
+        } catch (RuntimeException expected) {
+            // Closed arrays are empty
+        }
+        try {
+            offsets.get(0);
+            fail("Closing the Graph should close its storage");
+        } catch (RuntimeException expected) {
+            // Closed arrays are empty
+        }
+    }
+
+    /*
+     * Tests that breadth-first and depth-first results carry parents, depths
+     * and nested discovery/finish times, and render the old tree edge strings.
+     */
+    @Test
+    public void testTraversalResultTimes() {
+        Graph<String> sample = buildSampleGraph();
+        TraversalResult<String> bfs = sample.breadthFirst("A");
+        assertEquals(Arrays.asList("(A,B)", "(A,C)", "(B,D)", "(D,E)"), bfs.getTreeEdges());
+        assertArrayEquals(new int[] {-1, 0, 0, 1, 3}, bfs.getParents());
+        assertArrayEquals(new int[] {0, 1, 1, 2, 3}, bfs.getDepths());
+        assertEquals(drain(sample.getBreadthFirstTraversal("A")), drain(bfs.getLabelOrder()));
+
+        Graph<String> graph = buildRandomGraph(400, 1600, 23);
+        int[] expected = referenceDepths(graph, 0);
+        TraversalResult<String> breadth = graph.breadthFirst("0");
+        TraversalResult<String> depth = graph.depthFirst("0");
+        for (int v = 0; v < graph.size(); v++) {
+            assertEquals(expected[v], breadth.getDepth(v));
+            assertEquals(breadth.isReached(v), depth.isReached(v));
+            if (!depth.isReached(v)) {
+                assertEquals(-1, depth.getDiscoveryTime(v));
+                continue;
+            }
+            assertTrue(depth.getDiscoveryTime(v) < depth.getFinishTime(v));
+            assertTrue(breadth.getDiscoveryTime(v) < breadth.getFinishTime(v));
+            int parent = depth.getParent(v);
+            if (parent >= 0) {
+                // A tree child's interval sits inside its parent's
+                assertTrue(graph.isEdge(parent, v));
+                assertTrue(depth.getDiscoveryTime(parent) < depth.getDiscoveryTime(v));
+                assertTrue(depth.getFinishTime(v) < depth.getFinishTime(parent));
+                assertEquals(depth.getDepth(parent) + 1, depth.getDepth(v));
+            }
+        }
+
+        graph.enableQueryCache(10_000);
+        TraversalResult<String> first = graph.depthFirst("0");
+        TraversalResult<String> cached = graph.depthFirst("0");
+        assertSame(first, cached);
+        assertArrayEquals(depth.getOrder(), cached.getOrder());
+        assertEquals(depth.getTreeEdges(), cached.getTreeEdges());
+    }
+
+    /*
+     * Tests that every ordering is a permutation whose renumbered copy keeps
+     * the edges, weights and labels, that removed vertices are compacted away,
+     * and that Reverse Cuthill-McKee narrows the bandwidth of a shuffled grid.
+     */
+    @Test
+    public void testVertexOrdering() {
+        Graph<String> graph = buildRandomGraph(300, 1200, 29);
+        graph.addEdge(5, 7, 2.5);
+        graph.removeVertex(11);
+        for (VertexOrdering.Strategy strategy : VertexOrdering.Strategy.values()) {
+            VertexOrdering<String> ordering = graph.reorder(strategy);
+            Graph<String> copy = ordering.getGraph();
+            assertEquals(299, ordering.size());
+            assertEquals(299, copy.size());
+            assertEquals(-1, ordering.getNewId(11));
+            for (int v = 0; v < graph.size(); v++) {
+                if (v == 11) {
+                    continue;
+                }
+                int renamed = ordering.getNewId(v);
+                assertEquals(v, ordering.getOldId(renamed));
+                assertEquals(graph.getLabel(v), copy.getLabel(renamed));
+                int[] expected = graph.neighbors(v);
+                int[] actual = copy.neighbors(renamed);
+                for (int k = 0; k < actual.length; k++) {
+                    actual[k] = ordering.getOldId(actual[k]);
+                }
+                Arrays.sort(actual);
+                assertArrayEquals(expected, actual);
+            }
+            assertEquals(2.5, copy.getWeight(ordering.getNewId(5), ordering.getNewId(7)), 0.0);
+            assertEquals(new HashSet<>(drain(graph.getBreadthFirstTraversal("0"))),
+                new HashSet<>(drain(copy.getBreadthFirstTraversal("0"))));
+        }
+        assertEquals(0, graph.reorder(VertexOrdering.Strategy.BREADTH_FIRST).getNewId(0));
+
+        // A 30x30 grid under shuffled ids: RCM brings every edge within about one row
+        int side = 30;
+        int n = side * side;
+        List<Integer> shuffled = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            shuffled.add(v);
+        }
+        Collections.shuffle(shuffled, new Random(31));
+        Graph<String> grid = new Graph<>(new CsrAdjacency(n));
+        for (int v = 0; v < n; v++) {
+            grid.setLabel(v, Integer.toString(v));
+        }
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = shuffled.get(r * side + c);
+                if (c + 1 < side) grid.addEdge(v, shuffled.get(r * side + c + 1));
+                if (r + 1 < side) grid.addEdge(v, shuffled.get((r + 1) * side + c));
+            }
+        }
+        Graph<String> banded = grid.reorder(VertexOrdering.Strategy.REVERSE_CUTHILL_MCKEE).getGraph();
+        assertTrue(bandwidth(grid) > 10 * side);
+        assertTrue(bandwidth(banded) <= 2 * side);
+    }
+
+    private int bandwidth(Graph<String> graph) {
+        int widest = 0;
+        for (int v = 0; v < graph.size(); v++) {
+            for (int w : graph.neighbors(v)) {
+                widest = Math.max(widest, Math.abs(v - w));
+            }
+        }
+        return widest;
+    }
+
+    /*
+     * Tests that a breadth-first search across shards reaches every vertex at
+     * its sequential depth through a real edge, under both partitionings,
+     * that a shard sends each remote vertex once per superstep, and that the
+     * edge-cut partitioning cuts fewer edges than hashing.
+     */
+    @Test
+    public void testDistributedBfs() {
+        Graph<String> graph = buildRandomGraph(2000, 8000, 37);
+        int[] expected = referenceDepths(graph, 0);
+        for (PartitionedGraph.Partitioning partitioning : PartitionedGraph.Partitioning.values()) {
+            PartitionedGraph<String> shards = graph.partition(4, partitioning);
+            int owned = 0;
+            for (int s = 0; s < 4; s++) {
+                owned += shards.getShardSize(s);
+                assertTrue(shards.getShardSize(s) <= 2000 * 1.05 / 4 + 1);
+            }
+            assertEquals(2000, owned);
+
+            DistributedBfs<String> search = shards.breadthFirst("0");
+            TraversalResult<String> result = search.getResult();
+            long bytes = 0;
+            for (int v = 0; v < graph.size(); v++) {
+                assertEquals(expected[v], result.getDepth(v));
+                if (result.isReached(v) && v != 0) {
+                    assertTrue(graph.isEdge(result.getParent(v), v));
+                }
+            }
+            assertEquals(1, search.getFrontierSize(0));
+            for (int step = 0; step < search.getSupersteps(); step++) {
+                assertTrue(search.getBatchesSent(step) <= 4 * 3);
+                bytes += search.getBytesSent(step);
+            }
+            assertEquals(search.getTotalBytesSent(), bytes);
+            assertTrue(bytes > 0);
+        }
+
+        // Two rows of one shard reaching the same remote vertex send it once
+        Graph<String> fan = new Graph<>(16);
+        for (int v = 0; v < 16; v++) {
+            fan.setLabel(v, Integer.toString(v));
+        }
+        PartitionedGraph<String> split = fan.partition(2, PartitionedGraph.Partitioning.HASH);
+        List<List<Integer>> byShard = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+        for (int v = 0; v < 16; v++) {
+            byShard.get(split.getOwner(v)).add(v);
+        }
+        int home = byShard.get(0).size() >= 3 ? 0 : 1;
+        int origin = byShard.get(home).get(0);
+        int left = byShard.get(home).get(1);
+        int right = byShard.get(home).get(2);
+        int remote = byShard.get(1 - home).get(0);
+        fan.addEdge(origin, left);
+        fan.addEdge(origin, right);
+        fan.addEdge(left, remote);
+        fan.addEdge(right, remote);
+        DistributedBfs<String> fanSearch = fan.partition(2, PartitionedGraph.Partitioning.HASH)
+            .breadthFirst(Integer.toString(origin));
+        assertEquals(2, fanSearch.getFrontierSize(1));
+        assertEquals(1, fanSearch.getBatchesSent(1));
+        assertEquals(1, fanSearch.getVerticesSent(1));
+        assertEquals(2, fanSearch.getResult().getDepth(remote));
+
+        // Two dense clusters joined by one edge: the edge-cut split keeps them mostly apart
+        Graph<String> clusters = new Graph<>(new CsrAdjacency(200));
+        for (int v = 0; v < 200; v++) {
+            clusters.setLabel(v, Integer.toString(v));
+            int base = v < 100 ? 0 : 100;
+            clusters.addEdge(v, base + (v + 1) % 100);
+            clusters.addEdge(v, base + (v + 7) % 100);
+        }
+        clusters.addEdge(99, 100);
+        long hashCut = clusters.partition(2, PartitionedGraph.Partitioning.HASH).getCrossPartitionEdges();
+        long greedyCut = clusters.partition(2, PartitionedGraph.Partitioning.EDGE_CUT).getCrossPartitionEdges();
+        assertTrue(greedyCut < hashCut / 2);
+    }
+
+    /*
+     * Tests that the query service answers like the Graph, folds concurrent
+     * point queries between one pair of vertices into a single search, turns
+     * away queries past its in-flight limit, and times out a query whose
+     * deadline passes.
+     */
+    @Test
+    public void testGraphQueryService() throws Exception {
+        Graph<String> graph = buildRandomGraph(1000, 4000, 41);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CountDownLatch gate = new CountDownLatch(1);
+        try (GraphQueryService<String> service = new GraphQueryService<>(graph, 2, pool)) {
+            pool.execute(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            // While the only thread is busy every query from "0" to "999" joins one search
+            List<CompletableFuture<Boolean>> reaches = new ArrayList<>();
+            List<CompletableFuture<ShortestPath<String>>> paths = new ArrayList<>();
+            for (int k = 0; k < 25; k++) {
+                reaches.add(service.isReachable("0", "999", 10, TimeUnit.SECONDS));
+                paths.add(service.shortestPath("0", "999", 10, TimeUnit.SECONDS));
+            }
+            CompletableFuture<TraversalResult<String>> late = service.depthFirst("1", 1, TimeUnit.MILLISECONDS);
+            CompletableFuture<Boolean> refused = service.isReachable("0", "998", 10, TimeUnit.SECONDS);
+            assertEquals(49, service.getJoined());
+            assertEquals(2, service.getInFlight());
+            assertEquals(1, service.getRejected());
+            try {
+                refused.get();
+                fail("A third search should be refused");
+            } catch (ExecutionException expected) {
+                assertTrue(expected.getCause() instanceof RejectedExecutionException);
+            }
+            try {
+                late.get();
+                fail("The deadline should pass before the walk runs");
+            } catch (ExecutionException expected) {
+                assertTrue(expected.getCause() instanceof TimeoutException);
+            }
+
+            gate.countDown();
+            int[] depths = referenceDepths(graph, 0);
+            for (int k = 0; k < 25; k++) {
+                assertEquals(depths[999] >= 0, reaches.get(k).get());
+                ShortestPath<String> path = paths.get(k).get();
+                assertEquals(depths[999], path.isFound() ? path.getHops() : -1);
+            }
+            for (int v = 0; v < 50; v++) { // Each target gets its own search, which stops once it is found
+                assertEquals(depths[v] >= 0, service.isReachable("0", Integer.toString(v), 10, TimeUnit.SECONDS).get());
+                ShortestPath<String> path = service.shortestPath("0", Integer.toString(v), 10, TimeUnit.SECONDS).get();
+                assertEquals(depths[v], path.isFound() ? path.getHops() : -1);
+            }
+            assertEquals(drain(graph.getBreadthFirstTraversal("0")),
+                drain(service.breadthFirst("0", 10, TimeUnit.SECONDS).get().getLabelOrder()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /*
+     * Tests that a weighted addEdge the default storage cannot hold leaves
+     * the Graph, its version and its cached walks as they were.
+     */
+    @Test
+    public void testUnsupportedWeightLeavesGraphUnchanged() {
+        Graph<String> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.enableQueryCache(100);
+        assertEquals(1, graph.breadthFirst("A").size());
+        long version = graph.getVersion();
+        try {
+            graph.addEdge(0, 1, 2.5);
+            fail("Paged storage holds no weights");
+        } catch (UnsupportedOperationException expected) {
+            // The edge must not stay behind
+        }
+        assertFalse(graph.isEdge(0, 1));
+        assertEquals(version, graph.getVersion());
+        assertEquals(0, graph.inNeighbors(1).length);
+
+        graph.addEdge(0, 1, 1.0);
+        assertTrue(graph.isEdge(0, 1));
+        assertEquals(2, graph.breadthFirst("A").size());
+        assertArrayEquals(new int[] {0}, graph.inNeighbors(1));
+    }
+
+    /*
+     * Tests that DynamicGraph snapshots refuse label and vertex changes, so
+     * an older version keeps its labels, and that they share traversal contexts.
+     */
+    @Test
+    public void testDynamicGraphSnapshotLabelsAreFixed() {
+        DynamicGraph<String> dynamic = new DynamicGraph<>(buildSampleGraph());
+        Graph<String> first = dynamic.snapshot();
+        Graph<String> second = dynamic.addEdge(4, 0);
+        try {
+            second.setLabel(0, "renamed");
+            fail("Snapshot labels are shared between versions");
+        } catch (UnsupportedOperationException expected) {
+            // Relabeling one version would relabel all of them
+        }
+        try {
+            second.addVertex("F");
+            fail("Snapshot vertices are fixed");
+        } catch (UnsupportedOperationException expected) {
+            // The vertex set belongs to the DynamicGraph
+        }
+        assertEquals("A", first.getLabel(0));
+        assertEquals(0, first.indexOf("A"));
+        assertEquals(0, second.indexOf("A"));
+        assertSame(first.traversalContexts(), second.traversalContexts());
+        assertEquals(5, second.breadthFirst("E").size());
+    }
+
+    /*
+     * Tests that cursor scans of a DynamicGraph snapshot merge base and added
+     * edges in ascending order, so traversals match deterministic parallel BFS.
+     */
+    @Test
+    public void testDeltaCursorIsAscending() {
+        Graph<String> start = new Graph<>(new CsrAdjacency(5));
+        for (int v = 0; v < 5; v++) {
+            start.setLabel(v, Integer.toString(v));
+        }
+        start.addEdge(0, 3);
+        start.addEdge(0, 2);
+        DynamicGraph<String> dynamic = new DynamicGraph<>(start);
+        Graph<String> snapshot = dynamic.apply(new EdgeBatch().add(0, 1).add(0, 4).remove(0, 2));
+        List<Integer> scanned = new ArrayList<>();
+        snapshot.forEachNeighbor(0, scanned::add);
+        assertEquals(Arrays.asList(1, 3, 4), scanned);
+        assertArrayEquals(new int[] {0, 1, 3, 4}, snapshot.breadthFirst("0").getOrder());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertArrayEquals(snapshot.breadthFirst("0").getOrder(),
+                snapshot.parallelBreadthFirst("0", pool, true).getOrder());
+        } finally {
+            pool.shutdown();
+        }
+
+        // Random edits: every cursor scan lists exactly neighbors(), in order
+        DynamicGraph<String> random = new DynamicGraph<>(buildRandomGraph(300, 1500, 43));
+        Random rng = new Random(43);
+        EdgeBatch batch = new EdgeBatch();
+        for (int k = 0; k < 2000; k++) {
+            if (rng.nextBoolean()) {
+                batch.add(rng.nextInt(300), rng.nextInt(300));
+            } else {
+                batch.remove(rng.nextInt(300), rng.nextInt(300));
+            }
+        }
+        Graph<String> edited = random.apply(batch);
+        for (int v = 0; v < 300; v++) {
+            List<Integer> row = new ArrayList<>();
+            edited.forEachNeighbor(v, row::add);
+            int[] expected = edited.neighbors(v);
+            assertEquals(expected.length, row.size());
+            for (int k = 0; k < expected.length; k++) {
+                assertEquals(expected[k], (int) row.get(k));
+            }
+        }
+    }
+
+    /*
+     * Tests that a context replaced because the graph grew comes back with
+     * headroom, so the next few added vertices still reuse it.
+     */
+    @Test
+    public void testContextPoolGrowsWithHeadroom() {
+        Graph<String> graph = new Graph<>(); // Paged storage, which grows
+        for (String label : new String[] {"A", "B", "C", "D", "E"}) {
+            graph.addVertex(label);
+        }
+        TraversalContextPool pool = graph.traversalContexts();
+        pool.release(pool.acquire(graph.size()));
+
+        graph.addVertex("F"); // Outgrows the pooled context
+        assertEquals(Arrays.asList("F"), drain(graph.getBreadthFirstTraversal("F")));
+        TraversalContext grown = pool.acquire(graph.size());
+        assertTrue(grown.capacity() >= 5 * 3 / 2);
+        pool.release(grown);
+
+        graph.addVertex("G");
+        graph.addEdge(5, 6);
+        assertEquals(Arrays.asList("F", "G"), drain(graph.getBreadthFirstTraversal("F")));
+        TraversalContext reused = pool.acquire(graph.size());
+        assertSame(grown, reused);
+        pool.release(reused);
+    }
+
+    /*
+     * Tests that closing an iterator or stream stopped early hands its
+     * context back, so the next traversal reuses it instead of allocating.
+     */
+    @Test
+    public void testClosingTraversalIteratorReleasesContext() {
+        Graph<String> graph = buildRandomGraph(500, 2000, 47);
+        TraversalContextPool pool = graph.traversalContexts();
+        TraversalContext pooled = pool.acquire(graph.size());
+        pool.release(pooled);
+
+        try (TraversalIterator<String> walk = graph.breadthFirstIterator("0")) {
+            assertEquals("0", walk.next());
+            assertTrue(walk.hasNext());
+        }
+        TraversalContext reused = pool.acquire(graph.size());
+        assertSame(pooled, reused);
+        pool.release(reused);
+
+        TraversalIterator<String> closed = graph.depthFirstIterator("0");
+        closed.close();
+        closed.close();
+        assertFalse(closed.hasNext());
+
+        try (Stream<String> labels = graph.depthFirstStream("0", Integer.MAX_VALUE, label -> true)) {
+            assertEquals(Optional.of("0"), labels.findFirst());
+        }
+        reused = pool.acquire(graph.size());
+        assertSame(pooled, reused);
+        pool.release(reused);
+    }
 }
@@ -0,0 +1,132 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A TraversalListener that keeps running totals and power-of-two
+ * histograms of wall time and vertices visited in memory, for a metrics
+ * endpoint to read. Bucket b counts traversals whose value v has
+ * 2^(b-1) <= v < 2^b, with bucket 0 holding zeros. Recording is lock-free.
+ */
+public class HistogramTraversalListener implements TraversalListener{
+    private static final int BUCKETS = 64;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder vertices = new LongAdder();
+    private final LongAdder edges = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private final LongAccumulator maxStackDepth = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray wallNanos = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray visited = new AtomicLongArray(BUCKETS);
+
+    @Override
+    public void traversalFinished(TraversalStats stats){
+        count.increment();
+        vertices.add(stats.getVerticesVisited());
+        edges.add(stats.getEdgesScanned());
+        if(stats.getAllocatedBytes() > 0){
+            allocated.add(stats.getAllocatedBytes());
+        } //end if
+        maxStackDepth.accumulate(stats.getMaxStackDepth());
+        wallNanos.incrementAndGet(bucket(stats.getWallNanos()));
+        visited.incrementAndGet(bucket(stats.getVerticesVisited()));
+    } //end traversalFinished
+
+    /* Finds the power-of-two bucket of a value */
+    private static int bucket(long value){
+        return value <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    } //end bucket
+
+    /**Counts the traversals recorded.
+     * @return long number of traversals.
+     */
+    public long getCount(){
+        return count.sum();
+    } //end getCount
+
+    /**Totals the vertices visited across traversals.
+     * @return long number of vertices.
+     */
+    public long getTotalVertices(){
+        return vertices.sum();
+    } //end getTotalVertices
+
+    /**Totals the edges scanned across traversals.
+     * @return long number of edges.
+     */
+    public long getTotalEdges(){
+        return edges.sum();
+    } //end getTotalEdges
+
+    /**Totals the bytes allocated across traversals that measured it.
+     * @return long number of bytes.
+     */
+    public long getTotalAllocatedBytes(){
+        return allocated.sum();
+    } //end getTotalAllocatedBytes
+
+    /**Retrieves the deepest stack or longest queue of any traversal.
+     * @return long peak pending vertices.
+     */
+    public long getMaxStackDepth(){
+        return maxStackDepth.get();
+    } //end getMaxStackDepth
+
+    /**Copies the wall time histogram.
+     * @return long array of traversal counts per power-of-two nanosecond bucket.
+     */
+    public long[] getWallNanosHistogram(){
+        return copy(wallNanos);
+    } //end getWallNanosHistogram
+
+    /**Copies the vertices visited histogram.
+     * @return long array of traversal counts per power-of-two vertex bucket.
+     */
+    public long[] getVerticesHistogram(){
+        return copy(visited);
+    } //end getVerticesHistogram
+
+    /* Reads a histogram bucket by bucket */
+    private static long[] copy(AtomicLongArray histogram){
+        long[] counts = new long[BUCKETS];
+        for(int b = 0; b < BUCKETS; b++){
+            counts[b] = histogram.get(b);
+        } //end for
+        return counts;
+    } //end copy
+
+    /**Estimates a wall time percentile from the histogram.
+     * @return long upper bound in nanoseconds of the bucket holding the percentile, 0 if nothing was recorded.
+     * @param percentile double between 0 and 100.
+     */
+    public long getWallNanosPercentile(double percentile){
+        long[] counts = getWallNanosHistogram();
+        long total = 0;
+        for(long c : counts){
+            total += c;
+        } //end for
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for(int b = 0; b < BUCKETS; b++){
+            seen += counts[b];
+            if(seen >= rank && seen > 0){
+                return b == 0 ? 0 : (b == BUCKETS - 1 ? Long.MAX_VALUE : (1L << b) - 1);
+            } //end if
+        } //end for
+        return 0;
+    } //end getWallNanosPercentile
+
+    /**Clears every total and histogram. */
+    public void reset(){
+        count.reset();
+        vertices.reset();
+        edges.reset();
+        allocated.reset();
+        maxStackDepth.reset();
+        for(int b = 0; b < BUCKETS; b++){
+            wallNanos.set(b, 0);
+            visited.set(b, 0);
+        } //end for
+    } //end reset
+
+} //end HistogramTraversalListener
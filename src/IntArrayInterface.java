@@ -0,0 +1,21 @@
+/**An interface for a read-only array of ints that may live outside the
+ * Java heap and hold more than Integer.MAX_VALUE entries.
+ */
+public interface IntArrayInterface{
+    /**Retrieves one int.
+     * @return the int at index.
+     * @param index position in the array, 0 through length() - 1.
+     */
+    public int get(long index);
+
+    /**Determines how many ints the array holds.
+     * @return long number of ints.
+     */
+    public long length();
+
+    /**Releases the memory behind the array. Only call once no thread is
+     * using it; afterwards every get throws an exception.
+     */
+    public void close();
+
+} //end IntArrayInterface
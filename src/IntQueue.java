@@ -0,0 +1,89 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+/**
+ * A class that implements a queue of ints by using a circular array
+ * that doubles when full. Nothing is boxed and no node is allocated per entry.
+ */
+public class IntQueue implements IntQueueInterface{
+    private int[] queue; //circular array of entries, length is always a power of two
+    private int frontIndex; //index of the front entry
+    private int numberOfEntries;
+
+    /**Creates an empty IntQueue. */
+    public IntQueue(){
+        this(16);
+    } //end default constructor
+
+    /**Creates an empty IntQueue with room for initialCapacity entries before growing. */
+    public IntQueue(int initialCapacity){
+        int capacity = Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1;
+        queue = new int[capacity];
+    } //end constructor
+
+    /**Adds a new entry to the back of the queue.
+     * @param newEntry entry to be added.
+     */
+    @Override
+    public void enqueue(int newEntry){
+        if(numberOfEntries == queue.length){
+            grow();
+        } //end if
+        queue[(frontIndex + numberOfEntries) & (queue.length - 1)] = newEntry;
+        numberOfEntries++;
+    } //end enqueue
+
+    /**Removes and returns the integer at the front of the queue.
+     * @return integer at the front of the queue.
+     */
+    @Override
+    public int dequeue(){
+        int front = getFront();
+        frontIndex = (frontIndex + 1) & (queue.length - 1);
+        numberOfEntries--;
+        return front;
+    } //end dequeue
+
+    /**Retrieves entry at the front of the queue.
+     * @return integer at the front of the queue.
+     */
+    @Override
+    public int getFront(){
+        if(isEmpty()){
+            throw new NoSuchElementException("Queue is empty");
+        }
+        else{
+            return queue[frontIndex];
+        } //end if-else
+    } //end getFront
+
+    /**Detects whether this queue is empty.
+     * @return True if the queue is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty(){
+        return numberOfEntries == 0;
+    } //end isEmpty
+
+    /**Retrieves the number of entries in the queue.
+     * @return integer number of entries.
+     */
+    public int size(){
+        return numberOfEntries;
+    } //end size
+
+    /**Removes all entries from this queue, keeping the array for reuse. */
+    @Override
+    public void clear(){
+        frontIndex = 0;
+        numberOfEntries = 0;
+    } //end clear
+
+    /* Doubles the array, unwrapping the entries so the front is at index 0 */
+    private void grow(){
+        int[] larger = Arrays.copyOfRange(queue, frontIndex, frontIndex + queue.length * 2);
+        System.arraycopy(queue, 0, larger, queue.length - frontIndex, frontIndex);
+        queue = larger;
+        frontIndex = 0;
+    } //end grow
+
+} //end IntQueue
@@ -0,0 +1,28 @@
+/**An interface for a queue of primitive ints, the unboxed variant of QueueInterface. */
+public interface IntQueueInterface{
+    /**Adds a new entry to the back of this queue.
+     * @param newEntry An integer to be added.
+     */
+    public void enqueue(int newEntry);
+
+    /**Removes and returns the entry at the front of this queue.
+     * @return The integer at the front of the queue.
+     * @throws NoSuchElementException if the queue is empty before operation.
+     */
+    public int dequeue();
+
+    /** Retrieves the entry at the front of this queue.
+     * @return The integer at the front of the queue.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public int getFront();
+
+    /**Detects whether this queue is empty.
+     * @return True if the queue is empty, or false otherwise.
+     */
+    public boolean isEmpty();
+
+    /**Removes all entries from this queue. */
+    public void clear();
+
+} //end IntQueueInterface
@@ -0,0 +1,69 @@
+import java.util.Arrays;
+import java.util.EmptyStackException;
+/**
+ * A class that implements a stack of ints by using an array that doubles when full.
+ * Unlike java.util.Stack it is unsynchronized and does not box its entries.
+ */
+public class IntStack{
+    private int[] stack; //stack[0] is the bottom entry
+    private int topIndex = -1; //index of the top entry
+
+    /**Creates an empty IntStack. */
+    public IntStack(){
+        this(16);
+    } //end default constructor
+
+    /**Creates an empty IntStack with room for initialCapacity entries before growing. */
+    public IntStack(int initialCapacity){
+        stack = new int[Math.max(1, initialCapacity)];
+    } //end constructor
+
+    /**Adds a new entry to the top of this stack.
+     * @param newEntry entry to be added.
+     */
+    public void push(int newEntry){
+        if(topIndex == stack.length - 1){
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        } //end if
+        stack[++topIndex] = newEntry;
+    } //end push
+
+    /**Removes and returns this stack's top entry.
+     * @return integer at the top of the stack.
+     */
+    public int pop(){
+        int top = peek();
+        topIndex--;
+        return top;
+    } //end pop
+
+    /**Retrieves this stack's top entry.
+     * @return integer at the top of the stack.
+     */
+    public int peek(){
+        if(isEmpty()){
+            throw new EmptyStackException();
+        } //end if
+        return stack[topIndex];
+    } //end peek
+
+    /**Detects whether this stack is empty.
+     * @return True if the stack is empty, false otherwise.
+     */
+    public boolean isEmpty(){
+        return topIndex < 0;
+    } //end isEmpty
+
+    /**Retrieves the number of entries in the stack.
+     * @return integer number of entries.
+     */
+    public int size(){
+        return topIndex + 1;
+    } //end size
+
+    /**Removes all entries from this stack, keeping the array for reuse. */
+    public void clear(){
+        topIndex = -1;
+    } //end clear
+
+} //end IntStack
@@ -0,0 +1,82 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A TraversalListener that commits each traversal as a JDK Flight Recorder
+ * event named graphtrav.Traversal, so traversals show up beside GC and lock
+ * events in a recording. The event begins when the traversal starts and
+ * ends when it finishes, so its duration is the traversal's and duration
+ * thresholds pick out the slow ones. When no recording has the event
+ * enabled, each traversal costs one check.
+ */
+public class JfrTraversalListener implements TraversalListener{
+
+    @Override
+    public void traversalStarted(TraversalStats stats){
+        TraversalEvent event = new TraversalEvent();
+        if(event.isEnabled()){
+            event.begin();
+            stats.listenerState = event;
+        } //end if
+    } //end traversalStarted
+
+    @Override
+    public void traversalFinished(TraversalStats stats){
+        if(!(stats.listenerState instanceof TraversalEvent)){
+            return; //not enabled when the traversal started
+        } //end if
+        TraversalEvent event = (TraversalEvent) stats.listenerState;
+        event.end();
+        if(!event.shouldCommit()){
+            return; //shorter than the recording's threshold
+        } //end if
+        event.kind = stats.getKind().name();
+        event.origin = stats.getOrigin();
+        event.verticesVisited = stats.getVerticesVisited();
+        event.edgesScanned = stats.getEdgesScanned();
+        event.levels = stats.getLevelSizes().length;
+        event.maxStackDepth = stats.getMaxStackDepth();
+        event.wallTime = stats.getWallNanos();
+        event.allocated = stats.getAllocatedBytes();
+        event.commit();
+    } //end traversalFinished
+
+    /* The event written per traversal */
+    @Name("graphtrav.Traversal")
+    @Label("Graph Traversal")
+    @Category("Graph")
+    @Description("A breadth-first or depth-first traversal of a Graph")
+    static class TraversalEvent extends Event {
+        @Label("Kind")
+        String kind;
+
+        @Label("Origin")
+        int origin;
+
+        @Label("Vertices Visited")
+        int verticesVisited;
+
+        @Label("Edges Scanned")
+        long edgesScanned;
+
+        @Label("Levels")
+        int levels;
+
+        @Label("Max Stack Depth")
+        int maxStackDepth;
+
+        @Label("Wall Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long wallTime;
+
+        @Label("Allocated")
+        @DataAmount(DataAmount.BYTES)
+        long allocated;
+    }
+
+} //end JfrTraversalListener
@@ -0,0 +1,46 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+/**
+ * A MessageTransport within one JVM, standing in for the network: each
+ * shard has a concurrent queue of batches in flight and a list of batches
+ * delivered at the last barrier. Nothing is serialized, so only the
+ * counts, not the timings, say anything about a real cluster.
+ */
+public class LocalMessageTransport implements MessageTransport{
+    private final ConcurrentLinkedQueue<FrontierBatch>[] inFlight; //inFlight[s] holds batches sent to s this superstep
+    private final List<FrontierBatch>[] delivered; //delivered[s] holds batches s may receive
+
+    /**Creates a LocalMessageTransport between a number of shards. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LocalMessageTransport(int shards){
+        inFlight = new ConcurrentLinkedQueue[shards]; //raw array and cast, but warnings suppressed
+        delivered = new List[shards];
+        for(int s = 0; s < shards; s++){
+            inFlight[s] = new ConcurrentLinkedQueue<>();
+            delivered[s] = new ArrayList<>();
+        } //end for
+    } //end constructor
+
+    @Override
+    public void send(FrontierBatch batch){
+        inFlight[batch.getTo()].add(batch);
+    } //end send
+
+    @Override
+    public void endSuperstep(){
+        for(int s = 0; s < inFlight.length; s++){
+            for(FrontierBatch batch = inFlight[s].poll(); batch != null; batch = inFlight[s].poll()){
+                delivered[s].add(batch);
+            } //end for
+        } //end for
+    } //end endSuperstep
+
+    @Override
+    public List<FrontierBatch> receive(int shard){
+        List<FrontierBatch> batches = delivered[shard];
+        delivered[shard] = new ArrayList<>();
+        return batches;
+    } //end receive
+
+} //end LocalMessageTransport
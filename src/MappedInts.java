@@ -0,0 +1,56 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+/**
+ * A read-only array of ints mapped straight from a region of a file.
+ * A single mapping cannot exceed 2 GB, so the region is mapped in chunks
+ * of CHUNK_INTS ints and an index picks its chunk with a shift.
+ */
+public class MappedInts implements IntArrayInterface{
+    private static final int CHUNK_SHIFT = 28;
+    /**Ints per mapped chunk, 1 GB worth. */
+    public static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_INTS - 1;
+
+    private IntBuffer[] chunks; //empty once closed
+    private final long length;
+
+    /**Maps length little-endian ints starting at byte position of channel.
+     * @param channel open file to map from; may be closed once this returns.
+     * @param position byte offset of the first int.
+     * @param length number of ints to map.
+     * @throws IOException if the mapping fails.
+     */
+    public MappedInts(FileChannel channel, long position, long length) throws IOException{
+        this.length = length;
+        int chunkCount = (int) ((length + CHUNK_INTS - 1) >>> CHUNK_SHIFT);
+        chunks = new IntBuffer[chunkCount];
+        for(int i = 0; i < chunkCount; i++){
+            long first = (long) i << CHUNK_SHIFT;
+            long ints = Math.min(CHUNK_INTS, length - first);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * 4, ints * 4)
+                               .order(ByteOrder.LITTLE_ENDIAN)
+                               .asIntBuffer();
+        } //end for
+    } //end constructor
+
+    @Override
+    public int get(long index){
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    } //end get
+
+    @Override
+    public long length(){
+        return length;
+    } //end length
+
+    /**Drops the mappings; the operating system unmaps them once they are
+     * garbage collected, which cannot happen while another reader holds them.
+     */
+    @Override
+    public void close(){
+        chunks = new IntBuffer[0];
+    } //end close
+
+} //end MappedInts
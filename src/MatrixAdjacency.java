@@ -0,0 +1,132 @@
+import java.util.Arrays;
+/**
+ * Dense adjacency storage using a boolean matrix.
+ * Needs n*n bytes, so it only suits small or very dense graphs.
+ * Setting a weight adds a matrix of n*n doubles beside it.
+ */
+public class MatrixAdjacency implements AdjacencyInterface{
+    private final boolean[][] edges; //edges[i][j] is true if there is an edge from i to j
+    private double[][] weights; //weights[i][j] is the weight of edge i to j, null until a weight is set
+    private int edgeCount;
+
+    /**Creates a MatrixAdjacency with n vertices and no edges. */
+    public MatrixAdjacency(int n){
+        edges = new boolean[n][n]; //All values initially false
+    } //end constructor
+
+    @Override
+    public int size(){
+        return edges.length;
+    } //end size
+
+    @Override
+    public int edgeCount(){
+        return edgeCount;
+    } //end edgeCount
+
+    @Override
+    public boolean isEdge(int source, int target){
+        return edges[source][target];
+    } //end isEdge
+
+    @Override
+    public void addEdge(int source, int target){
+        if(!edges[source][target]){
+            edges[source][target] = true;
+            if(weights != null){
+                weights[source][target] = 1.0;
+            } //end if
+            edgeCount++;
+        } //end if
+    } //end addEdge
+
+    @Override
+    public void removeEdge(int source, int target){
+        if(edges[source][target]){
+            edges[source][target] = false;
+            edgeCount--;
+        } //end if
+    } //end removeEdge
+
+    @Override
+    public int[] neighbors(int vertex){
+        boolean[] row = edges[vertex];
+        int count = 0;
+        int[] answer;
+
+        for(int i = 0; i < row.length; i++){
+            if(row[i]){
+                count++;
+            } //end if
+        } //end for
+        answer = new int[count];
+        count = 0;
+        for(int i = 0; i < row.length; i++){
+            if(row[i]){
+                answer[count++] = i;
+            } //end if
+        } //end for
+        return answer;
+    } //end neighbors
+
+    @Override
+    public int nextNeighbor(int vertex, int cursor){
+        boolean[] row = edges[vertex];
+        for(int i = cursor; i < row.length; i++){
+            if(row[i]){
+                return i; //the cursor is the column itself
+            } //end if
+        } //end for
+        return -1;
+    } //end nextNeighbor
+
+    @Override
+    public int neighborAt(int vertex, int cursor){
+        return cursor;
+    } //end neighborAt
+
+    @Override
+    public double weightAt(int vertex, int cursor){
+        return weights == null ? 1.0 : weights[vertex][cursor];
+    } //end weightAt
+
+    @Override
+    public double weight(int source, int target){
+        return edges[source][target] ? weightAt(source, target) : Double.NaN;
+    } //end weight
+
+    @Override
+    public void setWeight(int source, int target, double weight){
+        if(!edges[source][target]){
+            return;
+        } //end if
+        if(weights == null){
+            weights = new double[edges.length][edges.length];
+            for(double[] row : weights){
+                Arrays.fill(row, 1.0);
+            } //end for
+        } //end if
+        weights[source][target] = weight;
+    } //end setWeight
+
+    @Override
+    public MatrixAdjacency transpose(){
+        MatrixAdjacency reversed = new MatrixAdjacency(edges.length);
+        for(int i = 0; i < edges.length; i++){
+            for(int j = 0; j < edges.length; j++){
+                reversed.edges[j][i] = edges[i][j];
+            } //end for
+        } //end for
+        if(weights != null){
+            reversed.weights = new double[edges.length][edges.length];
+            for(int i = 0; i < edges.length; i++){
+                for(int j = 0; j < edges.length; j++){
+                    reversed.weights[j][i] = weights[i][j];
+                } //end for
+            } //end for
+        } //end if
+        reversed.edgeCount = edgeCount;
+        return reversed;
+    } //end transpose
+
+} //end MatrixAdjacency
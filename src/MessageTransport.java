@@ -0,0 +1,27 @@
+import java.util.List;
+
+/**An interface for the channel the shards of a DistributedBfs exchange
+ * FrontierBatches through. Delivery is bulk synchronous: a batch sent
+ * during a superstep becomes visible to its receiver only after the
+ * coordinator calls endSuperstep, which acts as the barrier.
+ * send may be called from many shards at once; receive is called for each
+ * shard by one thread at a time.
+ */
+public interface MessageTransport{
+    /**Queues a batch for delivery to batch.getTo() at the next barrier.
+     * @param batch the batch to send.
+     */
+    public void send(FrontierBatch batch);
+
+    /**Delivers every batch sent since the last barrier. Called by the
+     * coordinator once every shard has finished the superstep.
+     */
+    public void endSuperstep();
+
+    /**Removes and returns the batches delivered to a shard.
+     * @return List of batches, empty if none arrived.
+     * @param shard integer shard number.
+     */
+    public List<FrontierBatch> receive(int shard);
+
+} //end MessageTransport
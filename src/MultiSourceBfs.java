@@ -0,0 +1,106 @@
+import java.util.Arrays;
+/**
+ * Multi-source breadth-first search (MS-BFS, Then et al.) that runs up to
+ * 64 searches at once. Every vertex keeps one long per state, bit i standing
+ * for search i, so a single scan of a vertex's neighbors advances every
+ * search that reached it on the same level. More than 64 sources are run
+ * in batches of 64.
+ */
+public class MultiSourceBfs{
+    /**Searches that share one pass over the edges. */
+    public static final int BATCH = 64;
+
+    private final AdjacencyInterface edges;
+    private final int n;
+    private final long[] seen; //bit i of seen[v] is set once search i reached v
+    private long[] visit; //bit i of visit[v] is set if v is on search i's current frontier
+    private long[] visitNext;
+
+    /**Creates a search over edges.
+     * @param edges storage of the edges; must not change while searching.
+     */
+    public MultiSourceBfs(AdjacencyInterface edges){
+        this.edges = edges;
+        n = edges.size();
+        seen = new long[n];
+        visit = new long[n];
+        visitNext = new long[n];
+    } //end constructor
+
+    /**Computes the hop distance from every source to every vertex.
+     * @return distances[i][v] is the hops from sources[i] to v, or -1 if unreachable.
+     * @param sources integer array of start vertices.
+     */
+    public int[][] distances(int[] sources){
+        int[][] distances = new int[sources.length][];
+        for(int i = 0; i < sources.length; i++){
+            distances[i] = new int[n];
+            Arrays.fill(distances[i], -1);
+        } //end for
+        for(int first = 0; first < sources.length; first += BATCH){
+            runBatch(sources, first, Math.min(sources.length, first + BATCH), distances);
+        } //end for
+        return distances;
+    } //end distances
+
+    /**Counts, for every vertex, how many of the sources can reach it.
+     * Nothing per source is stored, so any number of sources fits in O(n) memory.
+     * @return counts[v] is the number of sources with a path to v, itself included.
+     * @param sources integer array of start vertices.
+     */
+    public int[] reachCounts(int[] sources){
+        int[] counts = new int[n];
+        for(int first = 0; first < sources.length; first += BATCH){
+            runBatch(sources, first, Math.min(sources.length, first + BATCH), null);
+            for(int v = 0; v < n; v++){
+                counts[v] += Long.bitCount(seen[v]);
+            } //end for
+        } //end for
+        return counts;
+    } //end reachCounts
+
+    /* Runs sources[first..last) together, recording distances when distances is not null */
+    private void runBatch(int[] sources, int first, int last, int[][] distances){
+        Arrays.fill(seen, 0L);
+        Arrays.fill(visit, 0L);
+        for(int i = first; i < last; i++){
+            long bit = 1L << (i - first);
+            seen[sources[i]] |= bit;
+            visit[sources[i]] |= bit;
+            if(distances != null){
+                distances[i][sources[i]] = 0;
+            } //end if
+        } //end for
+
+        boolean active = true;
+        for(int level = 1; active; level++){
+            active = false;
+            Arrays.fill(visitNext, 0L);
+            for(int v = 0; v < n; v++){
+                long frontier = visit[v];
+                if(frontier == 0){
+                    continue;
+                } //end if
+                for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                    int w = edges.neighborAt(v, c);
+                    long discovered = frontier & ~seen[w]; //searches reaching w for the first time
+                    if(discovered == 0){
+                        continue;
+                    } //end if
+                    seen[w] |= discovered;
+                    visitNext[w] |= discovered;
+                    active = true;
+                    if(distances != null){
+                        for(long bits = discovered; bits != 0; bits &= bits - 1){
+                            distances[first + Long.numberOfTrailingZeros(bits)][w] = level;
+                        } //end for
+                    } //end if
+                } //end for
+            } //end for
+            long[] swap = visit;
+            visit = visitNext;
+            visitNext = swap;
+        } //end for
+    } //end runBatch
+
+} //end MultiSourceBfs
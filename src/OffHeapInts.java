@@ -0,0 +1,106 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+/**
+ * A fixed-length array of ints in direct memory, outside the Java heap,
+ * so the garbage collector never scans or copies its contents. Memory is
+ * allocated zeroed in chunks of CHUNK_INTS ints and freed as soon as close
+ * is called rather than whenever the buffers happen to be collected.
+ */
+public class OffHeapInts implements IntArrayInterface, AutoCloseable{
+    private static final int CHUNK_SHIFT = 28;
+    /**Ints per chunk, 1 GB worth. */
+    public static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_INTS - 1;
+
+    //sun.misc.Unsafe.invokeCleaner frees a direct buffer now; null if this JDK lacks it
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            //Fall back to freeing when the buffers are garbage collected
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private ByteBuffer[] memory; //the direct buffers, kept to free them
+    private IntBuffer[] chunks; //int views of memory, empty once closed
+    private final long length;
+
+    /**Allocates length zeroed ints in direct memory.
+     * @param length number of ints.
+     */
+    public OffHeapInts(long length){
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative: " + length);
+        }
+        this.length = length;
+        int chunkCount = (int) ((length + CHUNK_INTS - 1) >>> CHUNK_SHIFT);
+        memory = new ByteBuffer[chunkCount];
+        chunks = new IntBuffer[chunkCount];
+        for(int i = 0; i < chunkCount; i++){
+            long ints = Math.min(CHUNK_INTS, length - ((long) i << CHUNK_SHIFT));
+            memory[i] = ByteBuffer.allocateDirect((int) (ints * 4)).order(ByteOrder.nativeOrder());
+            chunks[i] = memory[i].asIntBuffer();
+        } //end for
+    } //end constructor
+
+    @Override
+    public int get(long index){
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    } //end get
+
+    /**Stores one int.
+     * @param index position in the array, 0 through length() - 1.
+     * @param value int to store.
+     */
+    public void set(long index, int value){
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    } //end set
+
+    /**Sets every entry to one value.
+     * @param value int to store everywhere.
+     */
+    public void fill(int value){
+        for(IntBuffer chunk : chunks){
+            for(int i = 0; i < chunk.capacity(); i++){
+                chunk.put(i, value);
+            } //end for
+        } //end for
+    } //end fill
+
+    @Override
+    public long length(){
+        return length;
+    } //end length
+
+    /**Frees the direct memory. Closing twice is harmless. */
+    @Override
+    public void close(){
+        ByteBuffer[] freed = memory;
+        memory = new ByteBuffer[0];
+        chunks = new IntBuffer[0];
+        if(INVOKE_CLEANER == null){
+            return;
+        } //end if
+        for(ByteBuffer buffer : freed){
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException e) {
+                return; //left for the garbage collector
+            }
+        } //end for
+    } //end close
+
+} //end OffHeapInts
@@ -0,0 +1,100 @@
+/**
+ * A breadth-first traversal whose visited, parent, depth and queue arrays
+ * all live in direct memory, for graphs so large that O(n) heap arrays per
+ * traversal would add to garbage collection pauses. Close it to free the
+ * memory once the answers have been read.
+ */
+public class OffHeapTraversalResult implements AutoCloseable{
+    private final int origin;
+    private final OffHeapInts order; //order[0..size) are the reached vertices, also the BFS queue
+    private final OffHeapInts parent; //-1 for the origin and unreached vertices
+    private final OffHeapInts depth; //-1 for unreached vertices, doubling as the visited mark
+    private int size;
+
+    /**Runs a breadth-first search from origin with its state in direct memory.
+     * @param edges storage of the edges to traverse.
+     * @param origin integer index of the start vertex.
+     */
+    public OffHeapTraversalResult(AdjacencyInterface edges, int origin){
+        int n = edges.size();
+        this.origin = origin;
+        order = new OffHeapInts(n);
+        parent = new OffHeapInts(n);
+        depth = new OffHeapInts(n);
+        parent.fill(-1);
+        depth.fill(-1);
+
+        depth.set(origin, 0);
+        order.set(size++, origin);
+        for(int head = 0; head < size; head++){
+            int frontIndex = order.get(head);
+            int level = depth.get(frontIndex) + 1;
+            for(int c = edges.nextNeighbor(frontIndex, 0); c >= 0; c = edges.nextNeighbor(frontIndex, c + 1)){
+                int neighbor = edges.neighborAt(frontIndex, c);
+                if(depth.get(neighbor) < 0){
+                    depth.set(neighbor, level);
+                    parent.set(neighbor, frontIndex);
+                    order.set(size++, neighbor);
+                } //end if
+            } //end for
+        } //end for
+    } //end constructor
+
+    /**Retrieves the vertex the traversal started at.
+     * @return integer index of the origin.
+     */
+    public int getOrigin(){
+        return origin;
+    } //end getOrigin
+
+    /**Determines how many vertices the traversal reached, origin included.
+     * @return integer number of reached vertices.
+     */
+    public int size(){
+        return size;
+    } //end size
+
+    /**Retrieves a reached vertex by the order it was reached in.
+     * @return integer index of the k-th vertex reached.
+     * @param k position in the visit order, 0 through size() - 1.
+     */
+    public int getOrderAt(int k){
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Invalid order position: " + k);
+        }
+        return order.get(k);
+    } //end getOrderAt
+
+    /**Retrieves the tree parent of a vertex.
+     * @return integer index of the parent, or -1 for the origin and unreached vertices.
+     * @param vertex integer index of the vertex.
+     */
+    public int getParent(int vertex){
+        return parent.get(vertex);
+    } //end getParent
+
+    /**Retrieves the depth of a vertex.
+     * @return integer number of tree edges from the origin, or -1 if unreached.
+     * @param vertex integer index of the vertex.
+     */
+    public int getDepth(int vertex){
+        return depth.get(vertex);
+    } //end getDepth
+
+    /**Tests whether the traversal reached a vertex.
+     * @return True if vertex was reached, false otherwise.
+     * @param vertex integer index of the vertex.
+     */
+    public boolean isReached(int vertex){
+        return depth.get(vertex) >= 0;
+    } //end isReached
+
+    /**Frees the direct memory; the getters must not be called afterwards. */
+    @Override
+    public void close(){
+        order.close();
+        parent.close();
+        depth.close();
+    } //end close
+
+} //end OffHeapTraversalResult
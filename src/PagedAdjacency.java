@@ -0,0 +1,287 @@
+import java.util.Arrays;
+/**
+ * Sparse adjacency storage for graphs that gain and lose vertices while
+ * in use. Every vertex has a sorted out-row and a sorted in-row, each an
+ * array with spare room that doubles when full, so adding an edge costs
+ * time in the degree of its endpoints and removing a vertex costs time in
+ * its own degree. Rows sit in pages of 4096 vertices: adding a vertex at
+ * most allocates a page or doubles the small table of pages, and never
+ * copies existing rows.
+ */
+public class PagedAdjacency implements AdjacencyInterface{
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+    private static final int[] EMPTY = new int[0];
+
+    private int[][][] out = new int[0][][]; //out[v >>> PAGE_BITS][v & PAGE_MASK] is the out-row of v, valid up to its degree
+    private int[][] outDegree = new int[0][];
+    private int[][][] in = new int[0][][]; //in-rows, same layout
+    private int[][] inDegree = new int[0][];
+    private int size;
+    private int edgeCount;
+
+    /**Creates a PagedAdjacency with n vertices and no edges. */
+    public PagedAdjacency(int n){
+        for(int i = 0; i < n; i++){
+            addVertex();
+        } //end for
+    } //end constructor
+
+    @Override
+    public int size(){
+        return size;
+    } //end size
+
+    @Override
+    public int edgeCount(){
+        return edgeCount;
+    } //end edgeCount
+
+    @Override
+    public int addVertex(){
+        int page = size >>> PAGE_BITS;
+        if(page == out.length){
+            int pageCount = Math.max(4, out.length * 2);
+            out = Arrays.copyOf(out, pageCount);
+            outDegree = Arrays.copyOf(outDegree, pageCount);
+            in = Arrays.copyOf(in, pageCount);
+            inDegree = Arrays.copyOf(inDegree, pageCount);
+        } //end if
+        if(out[page] == null){
+            out[page] = new int[1 << PAGE_BITS][];
+            outDegree[page] = new int[1 << PAGE_BITS];
+            in[page] = new int[1 << PAGE_BITS][];
+            inDegree[page] = new int[1 << PAGE_BITS];
+            Arrays.fill(out[page], EMPTY);
+            Arrays.fill(in[page], EMPTY);
+        } //end if
+        return size++;
+    } //end addVertex
+
+    @Override
+    public void removeVertex(int vertex){
+        int page = vertex >>> PAGE_BITS;
+        int slot = vertex & PAGE_MASK;
+        int[] targets = out[page][slot];
+        for(int i = outDegree[page][slot] - 1; i >= 0; i--){
+            removeEdge(vertex, targets[i]);
+        } //end for
+        int[] sources = in[page][slot];
+        for(int i = inDegree[page][slot] - 1; i >= 0; i--){
+            removeEdge(sources[i], vertex);
+        } //end for
+        out[page][slot] = EMPTY; //let the spare room go
+        in[page][slot] = EMPTY;
+    } //end removeVertex
+
+    @Override
+    public boolean isEdge(int source, int target){
+        return find(out, outDegree, source, target) >= 0;
+    } //end isEdge
+
+    /* Binary searches a row
+     * @return position of value in the row of vertex, or (-(insertion point) - 1) if absent
+     */
+    private static int find(int[][][] rows, int[][] degrees, int vertex, int value){
+        return Arrays.binarySearch(rows[vertex >>> PAGE_BITS][vertex & PAGE_MASK], 0, degrees[vertex >>> PAGE_BITS][vertex & PAGE_MASK], value);
+    } //end find
+
+    @Override
+    public void addEdge(int source, int target){
+        if(insert(out, outDegree, source, target)){
+            insert(in, inDegree, target, source);
+            edgeCount++;
+        } //end if
+    } //end addEdge
+
+    /* Inserts value into the sorted row of vertex, doubling the row if full
+     * @return True if it was inserted, false if it was already there
+     */
+    private static boolean insert(int[][][] rows, int[][] degrees, int vertex, int value){
+        int position = find(rows, degrees, vertex, value);
+        if(position >= 0){
+            return false;
+        } //end if
+        position = -position - 1;
+        int page = vertex >>> PAGE_BITS;
+        int slot = vertex & PAGE_MASK;
+        int[] row = rows[page][slot];
+        int degree = degrees[page][slot];
+        if(degree == row.length){
+            row = Arrays.copyOf(row, Math.max(4, degree * 2));
+            rows[page][slot] = row;
+        } //end if
+        System.arraycopy(row, position, row, position + 1, degree - position);
+        row[position] = value;
+        degrees[page][slot] = degree + 1;
+        return true;
+    } //end insert
+
+    @Override
+    public void removeEdge(int source, int target){
+        if(delete(out, outDegree, source, target)){
+            delete(in, inDegree, target, source);
+            edgeCount--;
+        } //end if
+    } //end removeEdge
+
+    /* Removes value from the sorted row of vertex
+     * @return True if it was removed, false if it was not there
+     */
+    private static boolean delete(int[][][] rows, int[][] degrees, int vertex, int value){
+        int position = find(rows, degrees, vertex, value);
+        if(position < 0){
+            return false;
+        } //end if
+        int page = vertex >>> PAGE_BITS;
+        int slot = vertex & PAGE_MASK;
+        int[] row = rows[page][slot];
+        int degree = --degrees[page][slot];
+        System.arraycopy(row, position + 1, row, position, degree - position);
+        return true;
+    } //end delete
+
+    @Override
+    public int degree(int vertex){
+        return outDegree[vertex >>> PAGE_BITS][vertex & PAGE_MASK];
+    } //end degree
+
+    @Override
+    public int[] neighbors(int vertex){
+        return Arrays.copyOf(out[vertex >>> PAGE_BITS][vertex & PAGE_MASK], degree(vertex));
+    } //end neighbors
+
+    /**Obtains the vertices with an edge into a vertex, in ascending order.
+     * @return integer array of the in-neighbors.
+     * @param vertex integer index of the vertex.
+     */
+    public int[] inNeighbors(int vertex){
+        return Arrays.copyOf(in[vertex >>> PAGE_BITS][vertex & PAGE_MASK], inDegree[vertex >>> PAGE_BITS][vertex & PAGE_MASK]);
+    } //end inNeighbors
+
+    @Override
+    public int nextNeighbor(int vertex, int cursor){
+        return cursor < degree(vertex) ? cursor : -1; //the cursor is the position within the row
+    } //end nextNeighbor
+
+    @Override
+    public int neighborAt(int vertex, int cursor){
+        return out[vertex >>> PAGE_BITS][vertex & PAGE_MASK][cursor];
+    } //end neighborAt
+
+    @Override
+    public PagedAdjacency transpose(){
+        return copy(in, inDegree, out, outDegree);
+    } //end transpose
+
+    /* Builds a PagedAdjacency of the same size from deep copies of the given rows */
+    private PagedAdjacency copy(int[][][] outRows, int[][] outDegrees, int[][][] inRows, int[][] inDegrees){
+        PagedAdjacency copy = new PagedAdjacency(0);
+        copy.out = copyRows(outRows);
+        copy.outDegree = copyDegrees(outDegrees);
+        copy.in = copyRows(inRows);
+        copy.inDegree = copyDegrees(inDegrees);
+        copy.size = size;
+        copy.edgeCount = edgeCount;
+        return copy;
+    } //end copy
+
+    /**Views the in-rows this storage keeps for every vertex, so a Graph
+     * needs no transpose and nothing to rebuild after edits.
+     * @return live read-only PagedAdjacency.InEdges over the in-rows.
+     */
+    @Override
+    public AdjacencyInterface inEdgeView(){
+        return new InEdges();
+    } //end inEdgeView
+
+    /* Deep copies a page table of rows */
+    private static int[][][] copyRows(int[][][] rows){
+        int[][][] copy = new int[rows.length][][];
+        for(int p = 0; p < rows.length && rows[p] != null; p++){
+            copy[p] = new int[rows[p].length][];
+            for(int i = 0; i < rows[p].length; i++){
+                copy[p][i] = rows[p][i].length == 0 ? EMPTY : rows[p][i].clone();
+            } //end for
+        } //end for
+        return copy;
+    } //end copyRows
+
+    /* Deep copies a page table of degrees */
+    private static int[][] copyDegrees(int[][] degrees){
+        int[][] copy = new int[degrees.length][];
+        for(int p = 0; p < degrees.length && degrees[p] != null; p++){
+            copy[p] = degrees[p].clone();
+        } //end for
+        return copy;
+    } //end copyDegrees
+
+    /**The in-rows of a PagedAdjacency seen as out-rows: reads go straight to
+     * the rows the storage updates, so the view is never stale. Changes go
+     * through the storage itself.
+     */
+    public final class InEdges implements AdjacencyInterface{
+        private InEdges(){
+        } //end constructor
+
+        @Override
+        public int size(){
+            return size;
+        } //end size
+
+        @Override
+        public int edgeCount(){
+            return edgeCount;
+        } //end edgeCount
+
+        @Override
+        public boolean isEdge(int source, int target){
+            return find(out, outDegree, target, source) >= 0;
+        } //end isEdge
+
+        /**Not supported: change the PagedAdjacency instead.
+         * @throws UnsupportedOperationException always.
+         */
+        @Override
+        public void addEdge(int source, int target){
+            throw new UnsupportedOperationException("In-edge views are read-only");
+        } //end addEdge
+
+        /**Not supported: change the PagedAdjacency instead.
+         * @throws UnsupportedOperationException always.
+         */
+        @Override
+        public void removeEdge(int source, int target){
+            throw new UnsupportedOperationException("In-edge views are read-only");
+        } //end removeEdge
+
+        @Override
+        public int[] neighbors(int vertex){
+            return inNeighbors(vertex);
+        } //end neighbors
+
+        @Override
+        public int degree(int vertex){
+            return inDegree[vertex >>> PAGE_BITS][vertex & PAGE_MASK];
+        } //end degree
+
+        @Override
+        public int nextNeighbor(int vertex, int cursor){
+            return cursor < degree(vertex) ? cursor : -1;
+        } //end nextNeighbor
+
+        @Override
+        public int neighborAt(int vertex, int cursor){
+            return in[vertex >>> PAGE_BITS][vertex & PAGE_MASK][cursor];
+        } //end neighborAt
+
+        /**Copies the out-edges of the storage, the transpose of this view.
+         * @return new PagedAdjacency of the out-edges.
+         */
+        @Override
+        public PagedAdjacency transpose(){
+            return copy(out, outDegree, in, inDegree);
+        } //end transpose
+    } //end InEdges
+
+} //end PagedAdjacency
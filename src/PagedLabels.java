@@ -0,0 +1,73 @@
+/**
+ * Vertex labels that can grow one at a time without copying. The first
+ * labels live in a plain array, which may be shared with other holders;
+ * labels added later go into pages of 16384, and only the small table of
+ * pages is ever copied as it grows.
+ */
+public class PagedLabels<E>{
+    private static final int PAGE_BITS = 14;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    private final E[] base; //labels of vertices 0 through base.length - 1
+    private Object[][] pages = new Object[0][]; //pages[p][i] labels vertex base.length + (p << PAGE_BITS) + i
+    private int size;
+
+    /**Creates PagedLabels starting with the labels of an array.
+     * @param base array of the first labels, kept and not copied.
+     */
+    public PagedLabels(E[] base){
+        this.base = base;
+        size = base.length;
+    } //end constructor
+
+    /**Determines how many labels are held, null ones included.
+     * @return integer number of vertices.
+     */
+    public int size(){
+        return size;
+    } //end size
+
+    /**Retrieves a label.
+     * @return label of the vertex, or null if it has none.
+     * @param vertex integer index of the vertex.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int vertex){
+        if(vertex < base.length){
+            return base[vertex];
+        } //end if
+        int i = vertex - base.length;
+        return (E) pages[i >>> PAGE_BITS][i & PAGE_MASK];
+    } //end get
+
+    /**Changes a label.
+     * @param vertex integer index of the vertex.
+     * @param label new label, or null.
+     */
+    public void set(int vertex, E label){
+        if(vertex < base.length){
+            base[vertex] = label;
+            return;
+        } //end if
+        int i = vertex - base.length;
+        pages[i >>> PAGE_BITS][i & PAGE_MASK] = label;
+    } //end set
+
+    /**Makes room for one more vertex, with no label.
+     * @return integer index of the new vertex.
+     */
+    public int add(){
+        int i = size - base.length;
+        int page = i >>> PAGE_BITS;
+        if(page == pages.length){
+            Object[][] grown = new Object[Math.max(4, pages.length * 2)][];
+            System.arraycopy(pages, 0, grown, 0, pages.length);
+            pages = grown;
+        } //end if
+        if(pages[page] == null){
+            pages[page] = new Object[1 << PAGE_BITS];
+        } //end if
+        return size++;
+    } //end add
+
+} //end PagedLabels
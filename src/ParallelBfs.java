@@ -0,0 +1,171 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+/**
+ * Level-synchronous breadth-first search that expands each frontier across
+ * the workers of a ForkJoinPool. Workers claim a vertex by compare-and-set
+ * on a shared claim array, so each vertex is reached exactly once.
+ * In deterministic mode a vertex is instead claimed by the earliest frontier
+ * vertex reaching it and each level is sorted afterwards, which reproduces
+ * the parents and order of the sequential getBreadthFirstTraversal.
+ */
+public class ParallelBfs{
+    /**Frontier vertices a task expands itself before splitting. */
+    public static final int GRAIN = 256;
+    private static final int UNCLAIMED = Integer.MAX_VALUE;
+
+    private final AdjacencyInterface edges;
+    private final ForkJoinPool pool;
+    private final boolean deterministic;
+    private final int n;
+
+    private final AtomicIntegerArray claim; //claim[v] is the frontier position v was reached from
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] order; //order[levelStart..levelEnd) is the frontier being expanded
+    private final AtomicInteger reached = new AtomicInteger();
+    private int levelStart;
+
+    /**Creates a search over edges that runs in pool.
+     * @param edges storage of the edges; must not change while searching.
+     * @param pool workers to expand frontiers with.
+     * @param deterministic True to reproduce the sequential BFS tree exactly.
+     */
+    public ParallelBfs(AdjacencyInterface edges, ForkJoinPool pool, boolean deterministic){
+        this.edges = edges;
+        this.pool = pool;
+        this.deterministic = deterministic;
+        n = edges.size();
+        claim = new AtomicIntegerArray(n);
+        parent = new int[n];
+        depth = new int[n];
+        order = new int[n];
+    } //end constructor
+
+    /**Runs the search from origin, filling the parent, depth and order arrays.
+     * @return integer number of vertices reached.
+     * @param origin integer index of the start vertex.
+     */
+    public int search(int origin){
+        for(int v = 0; v < n; v++){
+            claim.set(v, UNCLAIMED);
+        } //end for
+        Arrays.fill(parent, -1);
+        Arrays.fill(depth, -1);
+
+        claim.set(origin, 0);
+        depth[origin] = 0;
+        order[0] = origin;
+        reached.set(1);
+        levelStart = 0;
+        int level = 0;
+
+        while(levelStart < reached.get()){
+            int levelEnd = reached.get();
+            pool.invoke(new ExpandTask(levelStart, levelEnd));
+            int nextEnd = reached.get();
+            if(deterministic){
+                sortLevel(levelEnd, nextEnd);
+            } //end if
+            for(int i = levelEnd; i < nextEnd; i++){
+                int w = order[i];
+                parent[w] = order[levelStart + claim.get(w)];
+                depth[w] = level + 1;
+            } //end for
+            levelStart = levelEnd;
+            level++;
+        } //end while
+        return reached.get();
+    } //end search
+
+    /* Orders order[start..end) by claiming frontier position, then by vertex,
+     * which is the order a sequential BFS scanning rows in ascending order finds them
+     */
+    private void sortLevel(int start, int end){
+        long[] keys = new long[end - start];
+        for(int i = start; i < end; i++){
+            keys[i - start] = ((long) claim.get(order[i]) << 32) | order[i];
+        } //end for
+        Arrays.sort(keys);
+        for(int i = start; i < end; i++){
+            order[i] = (int) keys[i - start];
+        } //end for
+    } //end sortLevel
+
+    /**Retrieves the tree parents from the last search.
+     * @return the backing integer array, -1 where there is no parent.
+     */
+    public int[] getParents(){
+        return parent;
+    } //end getParents
+
+    /**Retrieves the depths from the last search.
+     * @return the backing integer array, -1 for unreached vertices.
+     */
+    public int[] getDepths(){
+        return depth;
+    } //end getDepths
+
+    /**Retrieves the reached vertices from the last search, level by level.
+     * @return a copy of the first reached entries of the order array.
+     */
+    public int[] getOrder(){
+        return Arrays.copyOf(order, reached.get());
+    } //end getOrder
+
+    /**Expands a slice of the frontier, splitting it while it is larger than GRAIN. */
+    private class ExpandTask extends RecursiveAction{
+        private static final long serialVersionUID = 1L;
+        private final int from; //first frontier position, inclusive
+        private final int to; //last frontier position, exclusive
+
+        private ExpandTask(int from, int to){
+            this.from = from;
+            this.to = to;
+        } //end constructor
+
+        @Override
+        protected void compute(){
+            if(to - from > GRAIN){
+                int middle = (from + to) >>> 1;
+                invokeAll(new ExpandTask(from, middle), new ExpandTask(middle, to));
+                return;
+            } //end if
+
+            int[] found = new int[16];
+            int count = 0;
+            for(int i = from; i < to; i++){
+                int u = order[i];
+                int rank = i - levelStart;
+                for(int c = edges.nextNeighbor(u, 0); c >= 0; c = edges.nextNeighbor(u, c + 1)){
+                    int w = edges.neighborAt(u, c);
+                    if(depth[w] >= 0){
+                        continue; //reached on an earlier level
+                    } //end if
+                    boolean first;
+                    if(deterministic){
+                        //Keep lowering the claim even if another worker got there first
+                        first = claim.get(w) > rank && claim.getAndAccumulate(w, rank, Math::min) == UNCLAIMED;
+                    }
+                    else{
+                        first = claim.get(w) == UNCLAIMED && claim.compareAndSet(w, UNCLAIMED, rank);
+                    } //end if-else
+                    if(first){
+                        if(count == found.length){
+                            found = Arrays.copyOf(found, count * 2);
+                        } //end if
+                        found[count++] = w;
+                    } //end if
+                } //end for
+            } //end for
+
+            //Reserve a block past the frontier and publish what this slice found
+            int at = reached.getAndAdd(count);
+            System.arraycopy(found, 0, order, at, count);
+        } //end compute
+
+    } //end ExpandTask
+
+} //end ParallelBfs
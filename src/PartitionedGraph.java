@@ -0,0 +1,260 @@
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+/**
+ * A Graph split into K shards, the way it would be spread over the nodes
+ * of a cluster. Every vertex has one owning shard, which keeps its
+ * out-edges in CSR rows of its own; a row lists global vertex ids, so an
+ * edge whose target another shard owns is a cross-partition edge and
+ * following it costs a message. Searches run through DistributedBfs.
+ * The shards copy the edges at construction; later changes to the Graph
+ * are not seen.
+ */
+public class PartitionedGraph<E>{
+    /**The ways of assigning vertices to shards. */
+    public enum Partitioning {
+        /**By a hash of the vertex id: balanced and needs no look at the
+         * edges, but cuts about (K - 1) / K of them. */
+        HASH,
+        /**Greedy streaming edge-cut: vertices arrive in breadth-first order
+         * and join the shard holding most of their neighbors so far,
+         * discounted by how full it is, so shards stay within 5% of even. */
+        EDGE_CUT
+    } //end Partitioning
+
+    private final Graph<E> graph;
+    private final Partitioning partitioning;
+    private final int[] owner; //owner[v] is the shard owning vertex v
+    private final int[] localIds; //localIds[v] is the row of v within its shard
+    private final int[][] globalIds; //globalIds[s][i] is the vertex in row i of shard s
+    private final int[][] offsets; //row i of shard s is targets[s][offsets[s][i]] through targets[s][offsets[s][i + 1] - 1]
+    private final int[][] targets;
+    private final long crossEdges;
+
+    /**Splits a Graph into shards.
+     * @param graph the Graph to split.
+     * @param shards integer number of shards, at least 1.
+     * @param partitioning how to assign vertices to shards.
+     */
+    public PartitionedGraph(Graph<E> graph, int shards, Partitioning partitioning){
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shards);
+        }
+        this.graph = graph;
+        this.partitioning = partitioning;
+        AdjacencyInterface edges = graph.adjacency();
+        int n = graph.size();
+        owner = partitioning == Partitioning.HASH ? hashOwners(n, shards) : edgeCutOwners(edges, shards);
+
+        //Number each shard's rows in ascending vertex order
+        int[] shardSizes = new int[shards];
+        localIds = new int[n];
+        for(int v = 0; v < n; v++){
+            localIds[v] = shardSizes[owner[v]]++;
+        } //end for
+        globalIds = new int[shards][];
+        offsets = new int[shards][];
+        targets = new int[shards][];
+        int[] shardEdges = new int[shards];
+        for(int s = 0; s < shards; s++){
+            globalIds[s] = new int[shardSizes[s]];
+            offsets[s] = new int[shardSizes[s] + 1];
+        } //end for
+        for(int v = 0; v < n; v++){
+            int s = owner[v];
+            globalIds[s][localIds[v]] = v;
+            offsets[s][localIds[v] + 1] = edges.degree(v);
+            shardEdges[s] += edges.degree(v);
+        } //end for
+
+        long cut = 0;
+        for(int s = 0; s < shards; s++){
+            int[] rows = offsets[s];
+            for(int i = 0; i < globalIds[s].length; i++){
+                rows[i + 1] += rows[i];
+            } //end for
+            int[] row = targets[s] = new int[shardEdges[s]];
+            int write = 0;
+            for(int v : globalIds[s]){
+                for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                    int w = edges.neighborAt(v, c);
+                    row[write++] = w;
+                    if(owner[w] != s){
+                        cut++;
+                    } //end if
+                } //end for
+            } //end for
+        } //end for
+        crossEdges = cut;
+    } //end constructor
+
+    /* Assigns vertices by a multiplicative hash, so runs of ids spread over every shard */
+    private static int[] hashOwners(int n, int shards){
+        int[] owners = new int[n];
+        for(int v = 0; v < n; v++){
+            owners[v] = (int) (((v * 0x9E3779B97F4A7C15L) >>> 32) % shards);
+        } //end for
+        return owners;
+    } //end hashOwners
+
+    /* Assigns vertices with linear deterministic greedy streaming: each vertex,
+     * taken in breadth-first order over edges in both directions, joins the
+     * shard maximizing (placed neighbors there) * (1 - size / capacity),
+     * the smallest shard on ties
+     */
+    private static int[] edgeCutOwners(AdjacencyInterface out, int shards){
+        AdjacencyInterface in = CsrAdjacency.transposeOf(out);
+        int n = out.size();
+        long capacity = Math.max(1, (long) Math.ceil(n * 1.05 / shards));
+        int[] owners = new int[n];
+        Arrays.fill(owners, -1);
+        int[] sizes = new int[shards];
+        int[] placedNeighbors = new int[shards];
+        int[] stream = new int[n];
+        boolean[] queued = new boolean[n];
+        int count = 0;
+        for(int root = 0; root < n; root++){
+            if(queued[root]){
+                continue;
+            } //end if
+            queued[root] = true;
+            stream[count++] = root;
+            for(int head = count - 1; head < count; head++){
+                int v = stream[head];
+                Arrays.fill(placedNeighbors, 0);
+                for(AdjacencyInterface edges = out; edges != null; edges = edges == out ? in : null){
+                    for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                        int w = edges.neighborAt(v, c);
+                        if(owners[w] >= 0){
+                            placedNeighbors[owners[w]]++;
+                        } //end if
+                        if(!queued[w]){
+                            queued[w] = true;
+                            stream[count++] = w;
+                        } //end if
+                    } //end for
+                } //end for
+                int best = -1;
+                double bestScore = -1;
+                for(int s = 0; s < shards; s++){
+                    if(sizes[s] >= capacity){
+                        continue;
+                    } //end if
+                    double score = placedNeighbors[s] * (1.0 - (double) sizes[s] / capacity);
+                    if(best < 0 || score > bestScore || (score == bestScore && sizes[s] < sizes[best])){
+                        best = s;
+                        bestScore = score;
+                    } //end if
+                } //end for
+                owners[v] = best;
+                sizes[best]++;
+            } //end for
+        } //end for
+        return owners;
+    } //end edgeCutOwners
+
+    /**Retrieves the Graph these shards were split from.
+     * @return the original Graph, which supplies the labels.
+     */
+    public Graph<E> getGraph(){
+        return graph;
+    } //end getGraph
+
+    /**Retrieves how the vertices were assigned.
+     * @return Partitioning used.
+     */
+    public Partitioning getPartitioning(){
+        return partitioning;
+    } //end getPartitioning
+
+    /**Determines the number of shards.
+     * @return integer K.
+     */
+    public int getShardCount(){
+        return globalIds.length;
+    } //end getShardCount
+
+    /**Finds the shard owning a vertex.
+     * @return integer shard number.
+     * @param vertex integer index of the vertex.
+     */
+    public int getOwner(int vertex){
+        return owner[vertex];
+    } //end getOwner
+
+    /**Counts the vertices a shard owns.
+     * @return integer number of vertices.
+     * @param shard integer shard number.
+     */
+    public int getShardSize(int shard){
+        return globalIds[shard].length;
+    } //end getShardSize
+
+    /**Counts the edges a shard stores, those leaving its vertices.
+     * @return integer number of edges.
+     * @param shard integer shard number.
+     */
+    public int getShardEdgeCount(int shard){
+        return targets[shard].length;
+    } //end getShardEdgeCount
+
+    /**Counts the edges whose endpoints are owned by different shards.
+     * @return long number of cross-partition edges.
+     */
+    public long getCrossPartitionEdges(){
+        return crossEdges;
+    } //end getCrossPartitionEdges
+
+    /**Determines the share of edges that cross between shards.
+     * @return double from 0 to 1, or 0 for a graph without edges.
+     */
+    public double getCutRatio(){
+        long total = 0;
+        for(int[] row : targets){
+            total += row.length;
+        } //end for
+        return total == 0 ? 0 : (double) crossEdges / total;
+    } //end getCutRatio
+
+    /* Counts the global ids, one per vertex of the Graph when it was split */
+    int idCount(){
+        return owner.length;
+    } //end idCount
+
+    /* Retrieves the local row of a vertex within its shard */
+    int localId(int vertex){
+        return localIds[vertex];
+    } //end localId
+
+    /* Retrieves the vertices of a shard, indexed by row; not copied */
+    int[] globalIds(int shard){
+        return globalIds[shard];
+    } //end globalIds
+
+    /* Retrieves the row starts of a shard; not copied */
+    int[] offsets(int shard){
+        return offsets[shard];
+    } //end offsets
+
+    /* Retrieves the concatenated rows of a shard, as global ids; not copied */
+    int[] targets(int shard){
+        return targets[shard];
+    } //end targets
+
+    /**Runs a distributed breadth-first search over these shards, one worker
+     * thread per shard exchanging batches through a LocalMessageTransport.
+     * @return DistributedBfs holding the result and per-superstep communication.
+     * @param origin label of the vertex the search begins at.
+     */
+    public DistributedBfs<E> breadthFirst(E origin){
+        ExecutorService workers = Executors.newFixedThreadPool(getShardCount());
+        try {
+            DistributedBfs<E> search = new DistributedBfs<>(this, new LocalMessageTransport(getShardCount()), workers);
+            search.search(origin);
+            return search;
+        } finally {
+            workers.shutdown();
+        }
+    } //end breadthFirst
+
+} //end PartitionedGraph
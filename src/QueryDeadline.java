@@ -0,0 +1,65 @@
+import java.util.concurrent.CancellationException;
+/**
+ * A point in time after which a traversal should give up, plus a flag to
+ * give up at once. Graph walks given one call check every CHECK_INTERVAL
+ * edges, so an abandoned query stops within a few microseconds of work
+ * instead of running to the end. The deadline may be pushed later while
+ * the walk runs, as GraphQueryService does when a query with more time
+ * joins one in flight.
+ */
+public class QueryDeadline{
+    /**Edges a walk scans between checks; a power of two. */
+    public static final int CHECK_INTERVAL = 1024;
+
+    private volatile long expiresAt; //System.nanoTime() value
+    private volatile boolean cancelled;
+
+    /**Creates a QueryDeadline some time from now.
+     * @param timeoutNanos long nanoseconds until it passes.
+     */
+    public QueryDeadline(long timeoutNanos){
+        expiresAt = System.nanoTime() + timeoutNanos;
+    } //end constructor
+
+    /**Moves the deadline later; an earlier time than the current one has no effect.
+     * @param timeoutNanos long nanoseconds from now.
+     */
+    public synchronized void extend(long timeoutNanos){
+        long candidate = System.nanoTime() + timeoutNanos;
+        if(candidate - expiresAt > 0){
+            expiresAt = candidate;
+        } //end if
+    } //end extend
+
+    /**Makes the next check fail, whatever the time. */
+    public void cancel(){
+        cancelled = true;
+    } //end cancel
+
+    /**Tests whether a walk should give up.
+     * @return True if cancelled or past the deadline, false otherwise.
+     */
+    public boolean isExpired(){
+        return cancelled || System.nanoTime() - expiresAt > 0;
+    } //end isExpired
+
+    /**Determines how long is left.
+     * @return long nanoseconds until the deadline, negative once passed.
+     */
+    public long remainingNanos(){
+        return expiresAt - System.nanoTime();
+    } //end remainingNanos
+
+    /**Fails if a walk should give up.
+     * @throws CancellationException if cancelled or past the deadline.
+     */
+    public void check(){
+        if(cancelled){
+            throw new CancellationException("Query was cancelled");
+        } //end if
+        if(System.nanoTime() - expiresAt > 0){
+            throw new CancellationException("Query deadline passed");
+        } //end if
+    } //end check
+
+} //end QueryDeadline
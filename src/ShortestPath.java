@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+/**
+ * A shortest path between two vertices of a Graph: its length and the
+ * vertices along it, source first. When the target cannot be reached the
+ * path is empty and its distance is infinite.
+ */
+public class ShortestPath<E>{
+    private final Graph<E> graph;
+    private final int source;
+    private final int target;
+    private final double distance; //sum of edge weights, hop count for unweighted paths
+    private final int[] vertices; //vertices[0] is source and vertices[length - 1] is target, empty if unreachable
+
+    /**Creates a ShortestPath. The vertex array is kept, not copied.
+     * @param graph the Graph the path runs through.
+     * @param source integer index of the start vertex.
+     * @param target integer index of the end vertex.
+     * @param distance double length of the path, infinity if there is none.
+     * @param vertices integer array of the vertices along the path.
+     */
+    public ShortestPath(Graph<E> graph, int source, int target, double distance, int[] vertices){
+        this.graph = graph;
+        this.source = source;
+        this.target = target;
+        this.distance = distance;
+        this.vertices = vertices;
+    } //end constructor
+
+    /* Builds the path to target by following the parents a finished search left in context */
+    static <E> ShortestPath<E> fromParents(Graph<E> graph, TraversalContext context, int source, int target, double distance) {
+        if (!context.isVisited(target)) {
+            return new ShortestPath<>(graph, source, target, Double.POSITIVE_INFINITY, new int[0]);
+        }
+        int[] vertices = new int[context.getDepth(target) + 1];
+        int at = target;
+        for (int i = vertices.length - 1; i >= 0; i--) {
+            vertices[i] = at;
+            at = context.getParent(at);
+        }
+        return new ShortestPath<>(graph, source, target, distance, vertices);
+    }
+
+    /**Retrieves the vertex the path starts at.
+     * @return integer index of the source.
+     */
+    public int getSource(){
+        return source;
+    } //end getSource
+
+    /**Retrieves the vertex the path ends at.
+     * @return integer index of the target.
+     */
+    public int getTarget(){
+        return target;
+    } //end getTarget
+
+    /**Tests whether the target can be reached from the source.
+     * @return True if there is a path, false otherwise.
+     */
+    public boolean isFound(){
+        return vertices.length > 0;
+    } //end isFound
+
+    /**Retrieves the length of the path.
+     * @return double sum of edge weights along the path, infinity if there is none.
+     */
+    public double getDistance(){
+        return distance;
+    } //end getDistance
+
+    /**Counts the edges along the path.
+     * @return integer number of edges, -1 if there is no path.
+     */
+    public int getHops(){
+        return vertices.length - 1;
+    } //end getHops
+
+    /**Retrieves the vertices along the path, source first.
+     * @return the backing integer array, empty if there is no path; do not modify it.
+     */
+    public int[] getVertices(){
+        return vertices;
+    } //end getVertices
+
+    /**Retrieves the labels of the vertices along the path, source first.
+     * @return unmodifiable List of labels, empty if there is no path.
+     */
+    public List<E> getLabels(){
+        List<E> path = new ArrayList<>(vertices.length);
+        for(int vertex : vertices){
+            path.add(graph.getLabel(vertex));
+        } //end for
+        return Collections.unmodifiableList(path);
+    } //end getLabels
+
+} //end ShortestPath
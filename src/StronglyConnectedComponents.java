@@ -0,0 +1,211 @@
+import java.util.Arrays;
+/**
+ * The strongly connected components of a Graph, found with Tarjan's
+ * algorithm run iteratively: an IntStack of vertices plus a per-vertex
+ * neighbor cursor stand in for the recursion, so graphs of any depth work
+ * and nothing is boxed.
+ * Components are numbered in topological order: every edge between two
+ * components goes from a lower number to a higher one. Listing the
+ * vertices by component therefore gives a topological order whenever
+ * the graph has no cycle. Removed vertices belong to no component.
+ */
+public class StronglyConnectedComponents<E>{
+    private final Graph<E> graph;
+    private final int[] component; //component[v] is the number of the component holding v
+    private final int[] offsets; //members of component c are members[offsets[c]] through members[offsets[c + 1] - 1]
+    private final int[] members;
+    private final int cycleVertex; //a vertex on some cycle, -1 if there is none
+    private Graph<Integer> condensation; //built on first use
+
+    /**Finds the strongly connected components of a Graph.
+     * @param graph the Graph to decompose.
+     */
+    public StronglyConnectedComponents(Graph<E> graph){
+        this.graph = graph;
+        AdjacencyInterface edges = graph.adjacency();
+        int n = graph.size();
+        int[] index = new int[n]; //discovery number, -1 until discovered
+        int[] low = new int[n]; //smallest discovery number reachable through the DFS subtree and one back edge
+        int[] cursor = new int[n];
+        component = new int[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1);
+        IntStack calls = new IntStack(); //vertices whose neighbor scan is in progress, deepest on top
+        IntStack open = new IntStack(); //discovered vertices not yet assigned to a component
+        int counter = 0;
+        int found = 0;
+        int selfLoop = -1;
+
+        for(int root = 0; root < n; root++){
+            if(index[root] >= 0 || graph.isRemoved(root)){
+                continue; //a removed vertex has no edges, so no walk reaches it either
+            } //end if
+            index[root] = low[root] = counter++;
+            open.push(root);
+            calls.push(root);
+
+            while(!calls.isEmpty()){
+                int v = calls.peek();
+                int c = edges.nextNeighbor(v, cursor[v]);
+                if(c >= 0){
+                    cursor[v] = c + 1;
+                    int w = edges.neighborAt(v, c);
+                    if(index[w] < 0){ //tree edge: descend
+                        index[w] = low[w] = counter++;
+                        open.push(w);
+                        calls.push(w);
+                    }
+                    else if(component[w] < 0){ //w is still open, so it is on the current path's component
+                        low[v] = Math.min(low[v], index[w]);
+                        if(w == v){
+                            selfLoop = v;
+                        } //end if
+                    } //end if-else
+                    continue;
+                } //end if
+
+                //Every neighbor of v is done: return to the caller
+                calls.pop();
+                if(!calls.isEmpty()){
+                    int caller = calls.peek();
+                    low[caller] = Math.min(low[caller], low[v]);
+                } //end if
+                if(low[v] == index[v]){ //v roots a component: everything above it on open belongs to it
+                    int w;
+                    do{
+                        w = open.pop();
+                        component[w] = found;
+                    } while(w != v);
+                    found++;
+                } //end if
+            } //end while
+        } //end for
+
+        //Tarjan finishes sink components first; reverse the numbers into topological order
+        offsets = new int[found + 1];
+        for(int v = 0; v < n; v++){
+            if(component[v] < 0){
+                continue; //removed
+            } //end if
+            component[v] = found - 1 - component[v];
+            offsets[component[v] + 1]++;
+        } //end for
+        for(int c = 0; c < found; c++){
+            offsets[c + 1] += offsets[c];
+        } //end for
+        members = new int[offsets[found]];
+        int[] next = Arrays.copyOf(offsets, found);
+        int cycle = selfLoop;
+        for(int v = 0; v < n; v++){
+            if(component[v] < 0){
+                continue; //removed
+            } //end if
+            members[next[component[v]]++] = v;
+            if(cycle < 0 && offsets[component[v] + 1] - offsets[component[v]] > 1){
+                cycle = v;
+            } //end if
+        } //end for
+        cycleVertex = cycle;
+    } //end constructor
+
+    /**Counts the components.
+     * @return integer number of strongly connected components.
+     */
+    public int getCount(){
+        return offsets.length - 1;
+    } //end getCount
+
+    /**Retrieves the component of a vertex.
+     * @return integer component number, in topological order, or -1 if the vertex was removed.
+     * @param vertex integer index of the vertex.
+     */
+    public int getComponent(int vertex){
+        return component[vertex];
+    } //end getComponent
+
+    /**Retrieves the component of every vertex.
+     * @return the backing integer array; do not modify it.
+     */
+    public int[] getComponents(){
+        return component;
+    } //end getComponents
+
+    /**Counts the vertices of a component.
+     * @return integer size of the component.
+     * @param component integer component number.
+     */
+    public int getSize(int component){
+        return offsets[component + 1] - offsets[component];
+    } //end getSize
+
+    /**Lists the vertices of a component in ascending order.
+     * @return new integer array of the member vertices.
+     * @param component integer component number.
+     */
+    public int[] getMembers(int component){
+        return Arrays.copyOfRange(members, offsets[component], offsets[component + 1]);
+    } //end getMembers
+
+    /**Tests whether the graph has no cycle, counting self-loops as cycles.
+     * @return True if every component is a single vertex without a self-loop.
+     */
+    public boolean isAcyclic(){
+        return cycleVertex < 0;
+    } //end isAcyclic
+
+    /**Finds a vertex that lies on a cycle.
+     * @return integer index of such a vertex, or -1 if the graph is acyclic.
+     */
+    public int getCycleVertex(){
+        return cycleVertex;
+    } //end getCycleVertex
+
+    /**Orders the vertices so every edge points forward.
+     * @return new integer array of all vertices that were not removed, in topological order.
+     * @throws IllegalStateException if the graph has a cycle.
+     */
+    public int[] getTopologicalOrder(){
+        if(cycleVertex >= 0){
+            throw new IllegalStateException("Graph has a cycle through " + graph.getLabel(cycleVertex));
+        } //end if
+        return members.clone(); //singleton components listed in topological order
+    } //end getTopologicalOrder
+
+    /**Builds the condensation: one vertex per component, labeled with its
+     * number, and an edge wherever some edge joins two components. The
+     * result is acyclic and its vertices are already in topological order.
+     * @return Graph of components on CSR storage.
+     */
+    public synchronized Graph<Integer> getCondensation(){
+        if(condensation == null){
+            AdjacencyInterface edges = graph.adjacency();
+            int[] sources = new int[16];
+            int[] targets = new int[16];
+            int count = 0;
+            for(int v = 0; v < component.length; v++){
+                if(component[v] < 0){
+                    continue; //removed
+                } //end if
+                for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                    int w = edges.neighborAt(v, c);
+                    if(component[v] != component[w]){
+                        if(count == sources.length){
+                            sources = Arrays.copyOf(sources, count * 2);
+                            targets = Arrays.copyOf(targets, count * 2);
+                        } //end if
+                        sources[count] = component[v];
+                        targets[count++] = component[w];
+                    } //end if
+                } //end for
+            } //end for
+            int k = getCount();
+            Graph<Integer> dag = new Graph<>(new CsrAdjacency(k, Arrays.copyOf(sources, count), Arrays.copyOf(targets, count)));
+            for(int c = 0; c < k; c++){
+                dag.setLabel(c, c);
+            } //end for
+            condensation = dag;
+        } //end if
+        return condensation;
+    } //end getCondensation
+
+} //end StronglyConnectedComponents
@@ -0,0 +1,229 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * A bounded cache of traversal results, keyed by origin vertex, traversal
+ * kind and depth limit. Results are stored as vertex indices, not labels,
+ * so relabeling a vertex never makes an entry wrong.
+ * The bound is on the total number of vertices held across entries, about
+ * 24 bytes each, and the least recently used entries go first.
+ * When an edge leaving a vertex changes, only the entries whose walk
+ * reached that vertex are dropped: no other walk ever looked at its edges.
+ * A result computed while the graph changed is never stored, since the
+ * graph's version counter tells the cache which results are too old.
+ */
+public class TraversalCache{
+    /** The traversals a cache entry can hold. */
+    public enum Kind{
+        BREADTH_FIRST,
+        DEPTH_FIRST
+    } //end Kind
+
+    private final long capacity; //most vertices held across all entries
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); //iteration runs least to most recently used
+    private long weight; //vertices held across all entries
+    private long version; //graph version of the latest invalidation; older results are refused
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**Creates an empty TraversalCache.
+     * @param capacity most vertices to hold across all cached results.
+     */
+    public TraversalCache(long capacity){
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    } //end constructor
+
+    /**Looks up a cached walk and counts the hit or miss.
+     * @return TraversalResult shared with the cache, or null on a miss.
+     * @param origin integer index of the vertex the walk starts at.
+     * @param kind traversal kind.
+     * @param maxDepth deepest level the walk visits.
+     */
+    public synchronized TraversalResult<?> get(int origin, Kind kind, int maxDepth){
+        Entry entry = entries.get(new Key(origin, kind, maxDepth));
+        if(entry == null){
+            misses++;
+            return null;
+        } //end if
+        hits++;
+        return entry.result;
+    } //end get
+
+    /**Answers whether one vertex reaches another from an unbounded walk
+     * already in the cache, without running anything, and counts the hit or miss.
+     * @return True or False if a cached walk from origin knows, null on a miss.
+     * @param origin integer index of the start vertex.
+     * @param target integer index of the end vertex.
+     */
+    public synchronized Boolean reaches(int origin, int target){
+        for(Kind kind : Kind.values()){
+            Entry entry = entries.get(new Key(origin, kind, Integer.MAX_VALUE));
+            if(entry != null){
+                hits++;
+                return entry.contains(target);
+            } //end if
+        } //end for
+        misses++;
+        return null;
+    } //end reaches
+
+    /**Stores a walk unless the graph changed since it started, evicting the
+     * least recently used entries to make room.
+     * @param origin integer index of the vertex the walk starts at.
+     * @param kind traversal kind.
+     * @param maxDepth deepest level the walk visits.
+     * @param result TraversalResult of the walk, kept and not copied.
+     * @param startVersion graph version read before the walk began.
+     */
+    public synchronized void put(int origin, Kind kind, int maxDepth, TraversalResult<?> result, long startVersion){
+        Entry entry = new Entry(result);
+        if(startVersion < version || entry.weight > capacity){
+            return;
+        } //end if
+        Entry replaced = entries.put(new Key(origin, kind, maxDepth), entry);
+        if(replaced != null){
+            weight -= replaced.weight;
+        } //end if
+        weight += entry.weight;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while(weight > capacity){
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        } //end while
+    } //end put
+
+    /**Drops every entry whose walk reached a vertex, after an edge leaving
+     * that vertex was added or removed.
+     * @param source integer index of the vertex whose edges changed.
+     * @param newVersion graph version after the change.
+     */
+    public synchronized void invalidate(int source, long newVersion){
+        version = Math.max(version, newVersion);
+        Iterator<Entry> all = entries.values().iterator();
+        while(all.hasNext()){
+            Entry entry = all.next();
+            if(entry.contains(source)){
+                weight -= entry.weight;
+                all.remove();
+                invalidations++;
+            } //end if
+        } //end while
+    } //end invalidate
+
+    /**Drops every entry. Metrics are kept. */
+    public synchronized void clear(){
+        entries.clear();
+        weight = 0;
+    } //end clear
+
+    /**Counts the cached results.
+     * @return integer number of entries.
+     */
+    public synchronized int size(){
+        return entries.size();
+    } //end size
+
+    /**Counts the vertices held across all cached results.
+     * @return long number of vertices, at most the capacity.
+     */
+    public synchronized long getWeight(){
+        return weight;
+    } //end getWeight
+
+    /**Retrieves the bound on vertices held.
+     * @return long capacity.
+     */
+    public long getCapacity(){
+        return capacity;
+    } //end getCapacity
+
+    /**Counts the lookups answered from the cache.
+     * @return long number of hits.
+     */
+    public synchronized long getHits(){
+        return hits;
+    } //end getHits
+
+    /**Counts the lookups that had to run a traversal.
+     * @return long number of misses.
+     */
+    public synchronized long getMisses(){
+        return misses;
+    } //end getMisses
+
+    /**Counts the entries dropped to stay within capacity.
+     * @return long number of evictions.
+     */
+    public synchronized long getEvictions(){
+        return evictions;
+    } //end getEvictions
+
+    /**Counts the entries dropped because an edge they depended on changed.
+     * @return long number of invalidations.
+     */
+    public synchronized long getInvalidations(){
+        return invalidations;
+    } //end getInvalidations
+
+    /**Computes the share of lookups answered from the cache.
+     * @return double between 0 and 1, or 0 before any lookup.
+     */
+    public synchronized double getHitRate(){
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    } //end getHitRate
+
+    /* Identifies a cached walk */
+    private static final class Key {
+        private final int origin;
+        private final Kind kind;
+        private final int maxDepth;
+
+        Key(int origin, Kind kind, int maxDepth) {
+            this.origin = origin;
+            this.kind = kind;
+            this.maxDepth = maxDepth;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return origin == key.origin && kind == key.kind && maxDepth == key.maxDepth;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origin, kind, maxDepth);
+        }
+    }
+
+    /* A cached walk with its reached vertices sorted for membership tests */
+    private static final class Entry {
+        private final TraversalResult<?> result;
+        private final int[] members; //result.getOrder() sorted
+        private final long weight; //vertices reached
+
+        Entry(TraversalResult<?> result) {
+            this.result = result;
+            members = result.getOrder().clone();
+            Arrays.sort(members);
+            weight = members.length;
+        }
+
+        boolean contains(int vertex) {
+            return Arrays.binarySearch(members, vertex) >= 0;
+        }
+    }
+
+} //end TraversalCache
@@ -0,0 +1,146 @@
+import java.util.Arrays;
+/**
+ * Scratch state for one traversal: which vertices are visited, their parents
+ * and depths, per-vertex neighbor cursors, and the frontier queue and stack.
+ * Weighted searches also keep distances and a heap, allocated on first use.
+ * A context belongs to one traversal at a time, so traversals on a shared
+ * Graph never see each other's state. Visited marks are stamps compared with
+ * a per-traversal counter, so begin() makes a reused context clean in O(1)
+ * instead of clearing arrays of length n.
+ */
+public class TraversalContext{
+    private final int[] visitStamp; //v is visited in this traversal if visitStamp[v] == stamp
+    private int stamp;
+    private final int[] parent; //valid only for visited vertices
+    private final int[] depth; //valid only for visited vertices
+    private final int[] cursor; //cursor[v] is where the scan of v's neighbors resumes
+    private final IntQueue queue = new IntQueue();
+    private final IntStack stack = new IntStack();
+    private double[] distance; //weighted distance, valid only for visited vertices; allocated on first use
+    private IndexedMinHeap heap; //frontier of weighted searches, allocated on first use
+
+    /**Creates a TraversalContext for graphs of up to capacity vertices. */
+    public TraversalContext(int capacity){
+        visitStamp = new int[capacity];
+        parent = new int[capacity];
+        depth = new int[capacity];
+        cursor = new int[capacity];
+    } //end constructor
+
+    /**Determines how many vertices this context can track.
+     * @return integer capacity.
+     */
+    public int capacity(){
+        return visitStamp.length;
+    } //end capacity
+
+    /**Starts a new traversal: forgets every visit and empties the queue and stack. */
+    public void begin(){
+        stamp++;
+        if(stamp == 0){ //counter wrapped, old stamps could collide
+            Arrays.fill(visitStamp, 0);
+            stamp = 1;
+        } //end if
+        queue.clear();
+        stack.clear();
+        if(heap != null){
+            heap.clear();
+        } //end if
+    } //end begin
+
+    /**Tests whether a vertex was visited in the current traversal.
+     * @return True if visited, false otherwise.
+     * @param vertex integer index of the vertex.
+     */
+    public boolean isVisited(int vertex){
+        return visitStamp[vertex] == stamp;
+    } //end isVisited
+
+    /**Marks a vertex visited and records how it was reached.
+     * @param vertex integer index of the vertex.
+     * @param from integer index of its parent, -1 for the origin.
+     * @param level integer depth of the vertex below the origin.
+     */
+    public void visit(int vertex, int from, int level){
+        visitStamp[vertex] = stamp;
+        parent[vertex] = from;
+        depth[vertex] = level;
+        cursor[vertex] = 0;
+    } //end visit
+
+    /**Retrieves the parent of a vertex in the current traversal.
+     * @return integer index of the parent, -1 for the origin and unvisited vertices.
+     * @param vertex integer index of the vertex.
+     */
+    public int getParent(int vertex){
+        return isVisited(vertex) ? parent[vertex] : -1;
+    } //end getParent
+
+    /**Retrieves the depth of a vertex in the current traversal.
+     * @return integer depth, -1 for unvisited vertices.
+     * @param vertex integer index of the vertex.
+     */
+    public int getDepth(int vertex){
+        return isVisited(vertex) ? depth[vertex] : -1;
+    } //end getDepth
+
+    /**Retrieves where the neighbor scan of a visited vertex resumes.
+     * @return integer cursor to pass to AdjacencyInterface.nextNeighbor.
+     * @param vertex integer index of the vertex.
+     */
+    public int getCursor(int vertex){
+        return cursor[vertex];
+    } //end getCursor
+
+    /**Records where the neighbor scan of a visited vertex resumes.
+     * @param vertex integer index of the vertex.
+     * @param position integer cursor to resume from.
+     */
+    public void setCursor(int vertex, int position){
+        cursor[vertex] = position;
+    } //end setCursor
+
+    /**Retrieves the weighted distance of a vertex in the current traversal.
+     * @return double distance from the origin, infinity for unvisited vertices.
+     * @param vertex integer index of the vertex.
+     */
+    public double getDistance(int vertex){
+        return isVisited(vertex) ? distance[vertex] : Double.POSITIVE_INFINITY;
+    } //end getDistance
+
+    /**Records the weighted distance of a visited vertex.
+     * @param vertex integer index of the vertex.
+     * @param value double distance from the origin.
+     */
+    public void setDistance(int vertex, double value){
+        if(distance == null){
+            distance = new double[visitStamp.length];
+        } //end if
+        distance[vertex] = value;
+    } //end setDistance
+
+    /**Retrieves the frontier heap, empty at the start of each traversal.
+     * @return IndexedMinHeap owned by this context.
+     */
+    public IndexedMinHeap getHeap(){
+        if(heap == null){
+            heap = new IndexedMinHeap(visitStamp.length);
+        } //end if
+        return heap;
+    } //end getHeap
+
+    /**Retrieves the frontier queue, empty at the start of each traversal.
+     * @return IntQueue owned by this context.
+     */
+    public IntQueue getQueue(){
+        return queue;
+    } //end getQueue
+
+    /**Retrieves the frontier stack, empty at the start of each traversal.
+     * @return IntStack owned by this context.
+     */
+    public IntStack getStack(){
+        return stack;
+    } //end getStack
+
+} //end TraversalContext
@@ -0,0 +1,70 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * A lock-free pool of TraversalContexts, so traversals reuse their O(n)
+ * arrays instead of allocating them on every call. Unlike a ThreadLocal the
+ * pool holds only as many contexts as traversals ever ran at once, which
+ * suits many short-lived or virtual threads.
+ */
+public class TraversalContextPool{
+    /**Contexts kept by a pool unless another limit is given. */
+    public static final int DEFAULT_MAX_IDLE = 64;
+
+    private final ConcurrentLinkedQueue<TraversalContext> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+
+    /**Creates a pool keeping up to DEFAULT_MAX_IDLE idle contexts. */
+    public TraversalContextPool(){
+        this(DEFAULT_MAX_IDLE);
+    } //end default constructor
+
+    /**Creates a pool keeping up to maxIdle idle contexts. */
+    public TraversalContextPool(int maxIdle){
+        this.maxIdle = maxIdle;
+    } //end constructor
+
+    /**Takes a context able to track capacity vertices, ready for a new traversal.
+     * When the pooled contexts are too small because the graph grew, the
+     * replacement gets half as much room again as the largest of them, so
+     * a graph growing by single vertices between traversals does not
+     * outgrow every context on every call.
+     * @return TraversalContext that the caller must hand back through release.
+     * @param capacity integer number of vertices in the graph.
+     */
+    public TraversalContext acquire(int capacity){
+        TraversalContext context;
+        int outgrown = 0; //capacity of the largest context found too small
+        while((context = idle.poll()) != null){
+            idleCount.decrementAndGet();
+            if(context.capacity() >= capacity){
+                context.begin();
+                return context;
+            } //end if
+            outgrown = Math.max(outgrown, context.capacity()); //too small for this graph now, let it go
+        } //end while
+        context = new TraversalContext(Math.max(capacity, (int) Math.min(Integer.MAX_VALUE - 8, outgrown * 3L / 2)));
+        context.begin();
+        return context;
+    } //end acquire
+
+    /**Returns a context to the pool once its traversal is done.
+     * @param context TraversalContext obtained from acquire.
+     */
+    public void release(TraversalContext context){
+        if(idleCount.incrementAndGet() <= maxIdle){
+            idle.offer(context);
+        }
+        else{
+            idleCount.decrementAndGet();
+        } //end if-else
+    } //end release
+
+    /**Drops every idle context so its memory can be reclaimed. */
+    public void clear(){
+        while(idle.poll() != null){
+            idleCount.decrementAndGet();
+        } //end while
+    } //end clear
+
+} //end TraversalContextPool
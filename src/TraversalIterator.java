@@ -0,0 +1,146 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+/**
+ * An Iterator that walks a Graph breadth-first or depth-first, doing only
+ * the work needed to produce the next label. Stopping early skips the rest
+ * of the traversal. A depth bound and a label filter prune the search:
+ * vertices deeper than maxDepth or whose label fails the filter are neither
+ * returned nor expanded. The origin is always returned first.
+ * The Graph must not change while an iterator is in use.
+ * An iterator holds a pooled O(n) TraversalContext until the walk is
+ * exhausted or close is called, so one that may stop early belongs in a
+ * try-with-resources block:
+ * <pre>
+ * try (TraversalIterator&lt;String&gt; walk = graph.breadthFirstIterator("A")) {
+ *     while (walk.hasNext() &amp;&amp; !found) { ... }
+ * }
+ * </pre>
+ */
+public class TraversalIterator<E> implements Iterator<E>, AutoCloseable{
+    private final Graph<E> graph;
+    private final AdjacencyInterface edges;
+    private final boolean depthFirst;
+    private final int maxDepth;
+    private final Predicate<? super E> filter;
+    private TraversalContext context; //null once the traversal is finished
+    private int nextVertex; //vertex the next call to next returns, -1 if not yet found
+
+    /**Creates a TraversalIterator.
+     * @param graph Graph to traverse.
+     * @param origin integer index of the vertex to begin at.
+     * @param depthFirst True for depth-first order, false for breadth-first.
+     * @param maxDepth deepest level to visit; Integer.MAX_VALUE for no bound.
+     * @param filter test a label must pass for its vertex to be visited.
+     */
+    public TraversalIterator(Graph<E> graph, int origin, boolean depthFirst, int maxDepth, Predicate<? super E> filter){
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth cannot be negative: " + maxDepth);
+        }
+        this.graph = graph;
+        this.edges = graph.adjacency();
+        this.depthFirst = depthFirst;
+        this.maxDepth = maxDepth;
+        this.filter = filter;
+        context = graph.traversalContexts().acquire(graph.size());
+        context.visit(origin, -1, 0);
+        if(depthFirst){
+            context.getStack().push(origin);
+        }
+        else{
+            context.getQueue().enqueue(origin);
+        } //end if-else
+        nextVertex = origin;
+    } //end constructor
+
+    /**Detects whether the traversal has more vertices.
+     * @return True if next will return a label, false otherwise.
+     */
+    @Override
+    public boolean hasNext(){
+        if(nextVertex < 0 && context != null){
+            nextVertex = depthFirst ? advanceDepthFirst() : advanceBreadthFirst();
+            if(nextVertex < 0){
+                graph.traversalContexts().release(context); //finished, let another traversal reuse it
+                context = null;
+            } //end if
+        } //end if
+        return nextVertex >= 0;
+    } //end hasNext
+
+    /**Retrieves the label of the next vertex reached.
+     * @return label of the next vertex.
+     */
+    @Override
+    public E next(){
+        if(!hasNext()){
+            throw new NoSuchElementException("Traversal is finished");
+        } //end if
+        int vertex = nextVertex;
+        nextVertex = -1;
+        return graph.getLabel(vertex);
+    } //end next
+
+    /**Ends the walk and hands its context back for another traversal to
+     * reuse. Afterwards hasNext returns false. Closing again has no effect.
+     */
+    @Override
+    public void close(){
+        if(context != null){
+            graph.traversalContexts().release(context);
+            context = null;
+        } //end if
+        nextVertex = -1;
+    } //end close
+
+    /**Retrieves the depth of the vertex next returned, so callers can tell levels apart.
+     * @return integer depth below the origin of the vertex next will return, or -1 if none.
+     */
+    public int nextDepth(){
+        return hasNext() ? context.getDepth(nextVertex) : -1;
+    } //end nextDepth
+
+    /* Expands the vertex at the front of the queue, which was returned last,
+     * then returns the vertex now at the front, or -1 if the queue is empty
+     */
+    private int advanceBreadthFirst(){
+        IntQueue queue = context.getQueue();
+        int frontIndex = queue.dequeue();
+        int level = context.getDepth(frontIndex) + 1;
+        if(level <= maxDepth){
+            for(int c = edges.nextNeighbor(frontIndex, 0); c >= 0; c = edges.nextNeighbor(frontIndex, c + 1)){
+                int neighbor = edges.neighborAt(frontIndex, c);
+                if(!context.isVisited(neighbor) && filter.test(graph.getLabel(neighbor))){
+                    context.visit(neighbor, frontIndex, level);
+                    queue.enqueue(neighbor);
+                } //end if
+            } //end for
+        } //end if
+        return queue.isEmpty() ? -1 : queue.getFront();
+    } //end advanceBreadthFirst
+
+    /* Goes deeper from the top of the stack, backtracking as needed
+     * @return the next vertex in depth-first order, or -1 if there is none
+     */
+    private int advanceDepthFirst(){
+        IntStack stack = context.getStack();
+        while(!stack.isEmpty()){
+            int topIndex = stack.peek();
+            int level = context.getDepth(topIndex) + 1;
+            if(level <= maxDepth){
+                for(int c = edges.nextNeighbor(topIndex, context.getCursor(topIndex)); c >= 0; c = edges.nextNeighbor(topIndex, c + 1)){
+                    int neighbor = edges.neighborAt(topIndex, c);
+                    if(!context.isVisited(neighbor) && filter.test(graph.getLabel(neighbor))){
+                        context.setCursor(topIndex, c + 1);
+                        context.visit(neighbor, topIndex, level);
+                        stack.push(neighbor);
+                        return neighbor;
+                    } //end if
+                } //end for
+            } //end if
+            stack.pop(); //Backtrack
+        } //end while
+        return -1;
+    } //end advanceDepthFirst
+
+} //end TraversalIterator
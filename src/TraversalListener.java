@@ -0,0 +1,20 @@
+/**An interface for observers of the traversals a Graph runs.
+ * Set one with Graph.setTraversalListener; with none set, traversals
+ * skip the measuring entirely.
+ */
+public interface TraversalListener{
+    /**Receives a traversal about to run, before anything is measured; the
+     * same TraversalStats later reaches traversalFinished. Does nothing
+     * unless overridden, for listeners that time the traversal themselves.
+     * @param stats measurements of the traversal, still empty.
+     */
+    public default void traversalStarted(TraversalStats stats){
+    } //end traversalStarted
+
+    /**Receives the measurements of a finished traversal. Called on the
+     * traversing thread, so it should return quickly.
+     * @param stats measurements of the traversal.
+     */
+    public void traversalFinished(TraversalStats stats);
+
+} //end TraversalListener
@@ -0,0 +1,226 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+/**
+ * The outcome of a traversal of a Graph: the order vertices were reached,
+ * and for each vertex its parent in the traversal tree and its depth below
+ * the origin. Vertices the traversal never reached have parent and depth -1.
+ * Results of breadthFirst and depthFirst also carry discovery and finish
+ * times. They hold their data per reached vertex, in visit order, and
+ * build the arrays indexed by vertex only when first asked, so a traversal
+ * that reaches k vertices costs O(k) however large the graph.
+ * Tree edges are rendered as strings only when getTreeEdges is called.
+ */
+public class TraversalResult<E>{
+    private final Graph<E> graph;
+    private final int origin;
+    private final int[] order; //order[k] is the k-th vertex reached
+    private volatile int[] parent; //parent[v] is the vertex v was reached from, -1 for the origin; built on demand
+    private volatile int[] depth; //depth[v] is the number of tree edges from the origin to v; built on demand
+    private volatile int[] position; //position[v] is k where order[k] == v, -1 if unreached; built on demand
+    //Per reached vertex, indexed like order; null for results created from per-vertex arrays
+    private final int[] treeParents;
+    private final int[] levels;
+    private final int[] discovery;
+    private final int[] finish;
+
+    /**Creates a TraversalResult. The arrays are kept, not copied.
+     * @param graph the Graph that was traversed.
+     * @param origin integer index of the vertex the traversal started at.
+     * @param order integer array of reached vertices in the order reached.
+     * @param parent integer array of tree parents, -1 where there is none.
+     * @param depth integer array of depths, -1 for unreached vertices.
+     */
+    public TraversalResult(Graph<E> graph, int origin, int[] order, int[] parent, int[] depth){
+        this.graph = graph;
+        this.origin = origin;
+        this.order = order;
+        this.parent = parent;
+        this.depth = depth;
+        treeParents = null;
+        levels = null;
+        discovery = null;
+        finish = null;
+    } //end constructor
+
+    /**Creates a TraversalResult from data kept per reached vertex, in the
+     * order reached. The arrays are kept, not copied.
+     * @param graph the Graph that was traversed.
+     * @param order integer array of reached vertices in the order reached, origin first.
+     * @param treeParents integer array, treeParents[k] is the parent of order[k], -1 for the origin.
+     * @param levels integer array, levels[k] is the depth of order[k].
+     * @param discovery integer array, discovery[k] is the clock when order[k] was reached.
+     * @param finish integer array, finish[k] is the clock when every edge of order[k] had been scanned.
+     */
+    public TraversalResult(Graph<E> graph, int[] order, int[] treeParents, int[] levels, int[] discovery, int[] finish){
+        this.graph = graph;
+        this.origin = order[0];
+        this.order = order;
+        this.treeParents = treeParents;
+        this.levels = levels;
+        this.discovery = discovery;
+        this.finish = finish;
+    } //end constructor
+
+    /**Retrieves the vertex the traversal started at.
+     * @return integer index of the origin.
+     */
+    public int getOrigin(){
+        return origin;
+    } //end getOrigin
+
+    /**Determines how many vertices the traversal reached, origin included.
+     * @return integer number of reached vertices.
+     */
+    public int size(){
+        return order.length;
+    } //end size
+
+    /**Retrieves the reached vertices in the order they were reached.
+     * @return the backing integer array; do not modify it.
+     */
+    public int[] getOrder(){
+        return order;
+    } //end getOrder
+
+    /**Retrieves the tree parent of every vertex.
+     * @return integer array indexed by vertex, shared by later calls; do not modify it.
+     */
+    public int[] getParents(){
+        int[] parents = parent;
+        if(parents == null){
+            parents = spread(treeParents);
+            parent = parents;
+        } //end if
+        return parents;
+    } //end getParents
+
+    /**Retrieves the depth of every vertex.
+     * @return integer array indexed by vertex, shared by later calls; do not modify it.
+     */
+    public int[] getDepths(){
+        int[] depths = depth;
+        if(depths == null){
+            depths = spread(levels);
+            depth = depths;
+        } //end if
+        return depths;
+    } //end getDepths
+
+    /* Lays out per-position values by vertex, -1 for unreached vertices */
+    private int[] spread(int[] values){
+        int[] byVertex = new int[graph.size()];
+        Arrays.fill(byVertex, -1);
+        for(int k = 0; k < order.length; k++){
+            byVertex[order[k]] = values[k];
+        } //end for
+        return byVertex;
+    } //end spread
+
+    /* Finds where a vertex was reached
+     * @return integer k with order[k] == vertex, or -1 if unreached
+     */
+    private int positionOf(int vertex){
+        int[] positions = position;
+        if(positions == null){
+            positions = new int[graph.size()];
+            Arrays.fill(positions, -1);
+            for(int k = 0; k < order.length; k++){
+                positions[order[k]] = k;
+            } //end for
+            position = positions;
+        } //end if
+        return vertex < positions.length ? positions[vertex] : -1; //vertices added after the traversal were not reached
+    } //end positionOf
+
+    /**Retrieves the tree parent of a vertex.
+     * @return integer index of the parent, or -1 for the origin and unreached vertices.
+     * @param vertex integer index of the vertex.
+     */
+    public int getParent(int vertex){
+        if(treeParents == null){
+            return parent[vertex];
+        } //end if
+        int k = positionOf(vertex);
+        return k < 0 ? -1 : treeParents[k];
+    } //end getParent
+
+    /**Retrieves the depth of a vertex.
+     * @return integer number of tree edges from the origin, or -1 if unreached.
+     * @param vertex integer index of the vertex.
+     */
+    public int getDepth(int vertex){
+        if(levels == null){
+            return depth[vertex];
+        } //end if
+        int k = positionOf(vertex);
+        return k < 0 ? -1 : levels[k];
+    } //end getDepth
+
+    /**Tests whether the traversal reached a vertex.
+     * @return True if vertex was reached, false otherwise.
+     * @param vertex integer index of the vertex.
+     */
+    public boolean isReached(int vertex){
+        return getDepth(vertex) >= 0;
+    } //end isReached
+
+    /**Tests whether this result records discovery and finish times.
+     * @return True for results of breadthFirst and depthFirst, false otherwise.
+     */
+    public boolean hasTimes(){
+        return discovery != null;
+    } //end hasTimes
+
+    /**Retrieves when a vertex was reached. One clock counts both discoveries
+     * and finishes, so a depth-first tree nests: a descendant's interval
+     * lies inside its ancestor's.
+     * @return integer clock value, or -1 if unreached or times were not recorded.
+     * @param vertex integer index of the vertex.
+     */
+    public int getDiscoveryTime(int vertex){
+        int k = discovery == null ? -1 : positionOf(vertex);
+        return k < 0 ? -1 : discovery[k];
+    } //end getDiscoveryTime
+
+    /**Retrieves when every edge out of a vertex had been scanned.
+     * @return integer clock value, or -1 if unreached or times were not recorded.
+     * @param vertex integer index of the vertex.
+     */
+    public int getFinishTime(int vertex){
+        int k = finish == null ? -1 : positionOf(vertex);
+        return k < 0 ? -1 : finish[k];
+    } //end getFinishTime
+
+    /**Lists the tree edges in the order their targets were reached, as
+     * "(parent,child)" strings of labels. Each string is built when read.
+     * @return unmodifiable List of rendered tree edges.
+     */
+    public List<String> getTreeEdges(){
+        return new AbstractList<String>(){
+            @Override
+            public String get(int index){
+                int child = order[index + 1]; //the origin has no tree edge
+                int from = treeParents != null ? treeParents[index + 1] : parent[child];
+                return "(" + graph.getLabel(from) + "," + graph.getLabel(child) + ")";
+            } //end get
+
+            @Override
+            public int size(){
+                return Math.max(0, order.length - 1);
+            } //end size
+        };
+    } //end getTreeEdges
+
+    /**Builds a queue of the labels of the reached vertices, in the order reached.
+     * @return Queue of labels, the same shape getBreadthFirstTraversal returns.
+     */
+    public QueueInterface<E> getLabelOrder(){
+        QueueInterface<E> labels = new LinkedQueue<>();
+        for(int vertex : order){
+            labels.enqueue(graph.getLabel(vertex));
+        } //end for
+        return labels;
+    } //end getLabelOrder
+
+} //end TraversalResult
@@ -0,0 +1,109 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+/**
+ * Measurements of one traversal, handed to a TraversalListener when the
+ * traversal finishes: how much of the graph it touched, the shape of its
+ * frontier, and what it cost in time and allocation.
+ */
+public class TraversalStats{
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final TraversalCache.Kind kind;
+    private final int origin;
+    int verticesVisited;
+    long edgesScanned;
+    int[] levelSizes = new int[0]; //levelSizes[d] is the number of vertices visited at depth d
+    int maxStackDepth;
+    long wallNanos;
+    long allocatedBytes = -1;
+    Object listenerState; //whatever the listener's traversalStarted keeps for its traversalFinished
+
+    /**Creates empty TraversalStats for a traversal about to run.
+     * @param kind traversal kind.
+     * @param origin integer index of the vertex the traversal starts at.
+     */
+    public TraversalStats(TraversalCache.Kind kind, int origin){
+        this.kind = kind;
+        this.origin = origin;
+    } //end constructor
+
+    /* Reads the bytes the current thread has allocated so far
+     * @return byte count, or -1 if the JVM does not track it
+     */
+    static long threadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**Retrieves the traversal kind.
+     * @return TraversalCache.Kind of the traversal.
+     */
+    public TraversalCache.Kind getKind(){
+        return kind;
+    } //end getKind
+
+    /**Retrieves the vertex the traversal started at.
+     * @return integer index of the origin.
+     */
+    public int getOrigin(){
+        return origin;
+    } //end getOrigin
+
+    /**Counts the vertices the traversal visited, origin included.
+     * @return integer number of vertices.
+     */
+    public int getVerticesVisited(){
+        return verticesVisited;
+    } //end getVerticesVisited
+
+    /**Counts the edges the traversal looked at.
+     * @return long number of edges scanned.
+     */
+    public long getEdgesScanned(){
+        return edgesScanned;
+    } //end getEdgesScanned
+
+    /**Retrieves how many vertices were visited at each depth, which for a
+     * breadth-first traversal is the frontier size of each level.
+     * @return integer array indexed by depth; do not modify it.
+     */
+    public int[] getLevelSizes(){
+        return levelSizes;
+    } //end getLevelSizes
+
+    /**Retrieves the most vertices the traversal held pending at once: the
+     * deepest stack of a depth-first traversal, the longest queue of a
+     * breadth-first one.
+     * @return integer peak stack depth or queue length.
+     */
+    public int getMaxStackDepth(){
+        return maxStackDepth;
+    } //end getMaxStackDepth
+
+    /**Retrieves how long the traversal took.
+     * @return long elapsed nanoseconds.
+     */
+    public long getWallNanos(){
+        return wallNanos;
+    } //end getWallNanos
+
+    /**Retrieves how much the traversal allocated on its thread.
+     * @return long bytes allocated, or -1 if the JVM does not measure it.
+     */
+    public long getAllocatedBytes(){
+        return allocatedBytes;
+    } //end getAllocatedBytes
+
+    @Override
+    public String toString(){
+        return kind + " from " + origin + ": " + verticesVisited + " vertices, " + edgesScanned + " edges, "
+            + levelSizes.length + " levels, max pending " + maxStackDepth + ", " + wallNanos + " ns, "
+            + allocatedBytes + " bytes";
+    } //end toString
+
+} //end TraversalStats
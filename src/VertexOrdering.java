@@ -0,0 +1,268 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * A renumbering of the vertices of a Graph that places vertices used
+ * together at nearby ids, so a traversal of the renumbered Graph reads
+ * its visited marks and adjacency rows from fewer cache lines.
+ * The ordering is computed once, typically right after loading; getGraph
+ * builds the renumbered copy on CSR storage and getOldId/getNewId map ids
+ * between the two. Removed vertices get no new id, so the copy is also
+ * compacted.
+ */
+public class VertexOrdering<E>{
+    /**The ways of choosing the new order. */
+    public enum Strategy {
+        /**Reverse Cuthill-McKee: breadth-first over edges in both directions,
+         * lowest degree first, then reversed. Keeps every edge's endpoints
+         * close, which suits meshes, roads and other low-bandwidth graphs. */
+        REVERSE_CUTHILL_MCKEE,
+        /**Highest total degree first. Packs the hubs of a power-law graph
+         * together, where most edges point. */
+        DEGREE_DESCENDING,
+        /**The order a breadth-first traversal along out-edges visits them,
+         * starting from vertex 0 and then each unreached vertex in turn. */
+        BREADTH_FIRST
+    } //end Strategy
+
+    private final Graph<E> graph;
+    private final Strategy strategy;
+    private final int[] oldIds; //oldIds[n] is the vertex that new id n came from
+    private final int[] newIds; //newIds[v] is the new id of vertex v, -1 if v was removed
+    private Graph<E> reordered; //built on first use
+
+    /**Computes an ordering of the vertices of a Graph.
+     * @param graph the Graph to renumber.
+     * @param strategy how to choose the new order.
+     */
+    public VertexOrdering(Graph<E> graph, Strategy strategy){
+        this.graph = graph;
+        this.strategy = strategy;
+        int n = graph.size();
+        switch(strategy){
+            case REVERSE_CUTHILL_MCKEE:
+                oldIds = reverseCuthillMcKee(graph);
+                break;
+            case DEGREE_DESCENDING:
+                oldIds = degreeDescending(graph);
+                break;
+            case BREADTH_FIRST:
+                oldIds = breadthFirst(graph);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        } //end switch
+        newIds = new int[n];
+        Arrays.fill(newIds, -1);
+        for(int k = 0; k < oldIds.length; k++){
+            newIds[oldIds[k]] = k;
+        } //end for
+    } //end constructor
+
+    /* Lists the vertices breadth-first over edges in both directions, each
+     * component from a vertex of lowest degree and each vertex's newly found
+     * neighbors by ascending degree, then reverses the whole list
+     */
+    private static int[] reverseCuthillMcKee(Graph<?> graph){
+        AdjacencyInterface out = graph.adjacency();
+        AdjacencyInterface in = CsrAdjacency.transposeOf(out);
+        int n = graph.size();
+        int[] degree = new int[n];
+        for(int v = 0; v < n; v++){
+            degree[v] = out.degree(v) + in.degree(v);
+        } //end for
+        int[] starts = byKey(graph, degree, false); //roots are tried lowest degree first
+        int[] order = new int[starts.length];
+        boolean[] placed = new boolean[n];
+        long[] scratch = new long[16];
+        int count = 0;
+        for(int root : starts){
+            if(placed[root]){
+                continue;
+            } //end if
+            placed[root] = true;
+            order[count++] = root;
+            for(int head = count - 1; head < count; head++){
+                int v = order[head];
+                int first = count;
+                for(AdjacencyInterface edges = out; edges != null; edges = edges == out ? in : null){
+                    for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                        int w = edges.neighborAt(v, c);
+                        if(!placed[w]){
+                            placed[w] = true;
+                            order[count++] = w;
+                        } //end if
+                    } //end for
+                } //end for
+                //Sort the neighbors just found by degree, packing (degree, id) into longs
+                int found = count - first;
+                if(found > 1){
+                    if(found > scratch.length){
+                        scratch = new long[Math.max(found, scratch.length * 2)];
+                    } //end if
+                    for(int k = 0; k < found; k++){
+                        int w = order[first + k];
+                        scratch[k] = (long) degree[w] << 32 | w;
+                    } //end for
+                    Arrays.sort(scratch, 0, found);
+                    for(int k = 0; k < found; k++){
+                        order[first + k] = (int) scratch[k];
+                    } //end for
+                } //end if
+            } //end for
+        } //end for
+        for(int i = 0, j = count - 1; i < j; i++, j--){
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        } //end for
+        return order;
+    } //end reverseCuthillMcKee
+
+    /* Lists the vertices by descending total degree, ties by id */
+    private static int[] degreeDescending(Graph<?> graph){
+        AdjacencyInterface out = graph.adjacency();
+        int n = graph.size();
+        int[] degree = new int[n];
+        for(int v = 0; v < n; v++){
+            for(int c = out.nextNeighbor(v, 0); c >= 0; c = out.nextNeighbor(v, c + 1)){
+                degree[v]++;
+                degree[out.neighborAt(v, c)]++;
+            } //end for
+        } //end for
+        return byKey(graph, degree, true);
+    } //end degreeDescending
+
+    /* Lists the vertices in the order breadth-first traversals along
+     * out-edges reach them, rooted at each unreached vertex by ascending id
+     */
+    private static int[] breadthFirst(Graph<?> graph){
+        AdjacencyInterface out = graph.adjacency();
+        int n = graph.size();
+        int[] order = new int[graph.vertexCount()];
+        boolean[] placed = new boolean[n];
+        int count = 0;
+        for(int root = 0; root < n; root++){
+            if(placed[root] || graph.isRemoved(root)){
+                continue;
+            } //end if
+            placed[root] = true;
+            order[count++] = root;
+            for(int head = count - 1; head < count; head++){
+                int v = order[head];
+                for(int c = out.nextNeighbor(v, 0); c >= 0; c = out.nextNeighbor(v, c + 1)){
+                    int w = out.neighborAt(v, c);
+                    if(!placed[w]){
+                        placed[w] = true;
+                        order[count++] = w;
+                    } //end if
+                } //end for
+            } //end for
+        } //end for
+        return order;
+    } //end breadthFirst
+
+    /* Lists the vertices that have not been removed sorted by key, ties by id
+     * @param descending true for the largest key first
+     */
+    private static int[] byKey(Graph<?> graph, int[] key, boolean descending){
+        long[] packed = new long[graph.vertexCount()];
+        int count = 0;
+        for(int v = 0; v < key.length; v++){
+            if(!graph.isRemoved(v)){
+                packed[count++] = (long) (descending ? Integer.MAX_VALUE - key[v] : key[v]) << 32 | v;
+            } //end if
+        } //end for
+        Arrays.sort(packed);
+        int[] order = new int[count];
+        for(int k = 0; k < count; k++){
+            order[k] = (int) packed[k];
+        } //end for
+        return order;
+    } //end byKey
+
+    /**Retrieves the strategy this ordering was computed with.
+     * @return Strategy used.
+     */
+    public Strategy getStrategy(){
+        return strategy;
+    } //end getStrategy
+
+    /**Determines the number of vertices the renumbered Graph has.
+     * @return integer number of vertices that were not removed.
+     */
+    public int size(){
+        return oldIds.length;
+    } //end size
+
+    /**Finds the new id of a vertex of the original Graph.
+     * @return integer id in the renumbered Graph, or -1 if the vertex was removed.
+     * @param oldId integer index of the vertex in the original Graph.
+     */
+    public int getNewId(int oldId){
+        return newIds[oldId];
+    } //end getNewId
+
+    /**Finds the vertex of the original Graph a new id came from.
+     * @return integer index of the vertex in the original Graph.
+     * @param newId integer index of the vertex in the renumbered Graph.
+     */
+    public int getOldId(int newId){
+        return oldIds[newId];
+    } //end getOldId
+
+    /**Retrieves the whole ordering.
+     * @return integer array whose entry n is the original vertex given new id n.
+     */
+    public int[] getOldIds(){
+        return oldIds.clone();
+    } //end getOldIds
+
+    /**Retrieves the whole mapping from original to new ids.
+     * @return integer array whose entry v is the new id of vertex v, or -1 if it was removed.
+     */
+    public int[] getNewIds(){
+        return newIds.clone();
+    } //end getNewIds
+
+    /**Builds a copy of the Graph with its vertices renumbered, holding the
+     * same labels and weighted edges on CSR storage. Later changes to the
+     * original Graph do not reach the copy.
+     * @return Graph whose vertex n is vertex getOldId(n) of the original.
+     */
+    public synchronized Graph<E> getGraph(){
+        if(reordered == null){
+            AdjacencyInterface edges = graph.adjacency();
+            int m = edges.edgeCount();
+            int[] sources = new int[m];
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            boolean weighted = false;
+            int count = 0;
+            for(int k = 0; k < oldIds.length; k++){
+                int v = oldIds[k];
+                for(int c = edges.nextNeighbor(v, 0); c >= 0; c = edges.nextNeighbor(v, c + 1)){
+                    sources[count] = k;
+                    targets[count] = newIds[edges.neighborAt(v, c)];
+                    weights[count] = edges.weightAt(v, c);
+                    weighted |= weights[count++] != 1.0;
+                } //end for
+            } //end for
+            CsrAdjacency renumbered = new CsrAdjacency(oldIds.length, Arrays.copyOf(sources, count),
+                Arrays.copyOf(targets, count), weighted ? Arrays.copyOf(weights, count) : null);
+
+            @SuppressWarnings("unchecked") //only ever holds labels of type E
+            E[] labels = (E[]) new Object[oldIds.length];
+            Map<E, Integer> labelIndex = new HashMap<>();
+            for(int k = 0; k < oldIds.length; k++){
+                labels[k] = graph.getLabel(oldIds[k]);
+                if(labels[k] != null){
+                    labelIndex.put(labels[k], k);
+                } //end if
+            } //end for
+            reordered = new Graph<>(renumbered, labels, labelIndex);
+        } //end if
+        return reordered;
+    } //end getGraph
+
+} //end VertexOrdering